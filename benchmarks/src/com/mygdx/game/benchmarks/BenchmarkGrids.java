@@ -0,0 +1,108 @@
+package com.mygdx.game.benchmarks;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+
+import java.util.Random;
+
+/**
+ * Generates the grids the benchmarks run on. Every grid is made from a fixed seed, so the numbers can be compared between runs.
+ */
+public class BenchmarkGrids {
+
+    /**
+     * The seed every benchmark generates its grid and routes from.
+     */
+    public static final long SEED = 8L;
+    /**
+     * The width of the rooms the grid is split into, the same as the test kitchen.
+     */
+    public static final int ROOM_SIZE = 16;
+    //The size of a tile in world co-ordinates, the same as the test kitchen
+    private static final int TILE_SIZE = 32;
+    //The share of nodes inside the rooms that are stations
+    private static final float STATION_CHANCE = 0.08f;
+
+    private BenchmarkGrids(){}
+
+    /**
+     * Creates a kitchen-like grid: walls around the edge, rooms split by walls with a three node doorway into each neighbour,
+     * and stations scattered across the floor.
+     *
+     * @param size the width and height of the grid
+     * @param seed the seed to place the stations with
+     * @return the grid
+     */
+    public static Node[][] createKitchen(int size, long seed){
+        Random random = new Random(seed);
+        Node[][] grid = GridStore.createGrid(size, size);
+        for(int x = 0; x < size; x++){
+            for(int y = 0; y < size; y++){
+                boolean isEdge = x == 0 || y == 0 || x == size - 1 || y == size - 1;
+                boolean isWall = (x % ROOM_SIZE == 0 && Math.abs(y % ROOM_SIZE - ROOM_SIZE / 2) > 1)
+                        || (y % ROOM_SIZE == 0 && Math.abs(x % ROOM_SIZE - ROOM_SIZE / 2) > 1);
+                if(isEdge || isWall) grid[x][y].setNodeType(NodeType.WALL);
+                else if(random.nextFloat() < STATION_CHANCE && !isDoorway(x, y)) grid[x][y].setNodeType(NodeType.STATION);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Picks open nodes to route between, each start in the left quarter of the grid and each end in the right quarter,
+     * so every route crosses most of the map.
+     *
+     * @param grid  the grid
+     * @param count the number of routes
+     * @param seed  the seed to pick the nodes with
+     * @return the routes, each a start and end node
+     */
+    public static Node[][] createRoutes(Node[][] grid, int count, long seed){
+        Random random = new Random(seed);
+        int size = grid.length;
+        int quarter = Math.max(1, size / 4);
+        Node[][] routes = new Node[count][];
+        for(int i = 0; i < count; i++){
+            Node start = pickOpenNode(grid, random, 0, quarter);
+            Node end = pickOpenNode(grid, random, size - quarter, size);
+            routes[i] = new Node[]{start, end};
+        }
+        return routes;
+    }
+
+    /**
+     * Picks a random open node between two columns.
+     *
+     * @param grid   the grid
+     * @param random the random to pick with
+     * @param fromX  the first column, inclusive
+     * @param toX    the last column, exclusive
+     * @return the node
+     */
+    public static Node pickOpenNode(Node[][] grid, Random random, int fromX, int toX){
+        while(true){
+            Node node = grid[fromX + random.nextInt(toX - fromX)][random.nextInt(grid[0].length)];
+            if(node.getNodeType() == NodeType.EMPTY) return node;
+        }
+    }
+
+    /**
+     * Creates a tiled map with a single empty layer the size of the grid, which is all the position helpers in TileMapUtils read.
+     *
+     * @param size the width and height of the grid
+     * @return the tiled map
+     */
+    public static TiledMap createTiledMap(int size){
+        TiledMap tiledMap = new TiledMap();
+        tiledMap.getLayers().add(new TiledMapTileLayer(size, size, TILE_SIZE, TILE_SIZE));
+        return tiledMap;
+    }
+
+    //Keeps stations out of doorways so every room can be reached
+    private static boolean isDoorway(int x, int y){
+        return Math.abs(x % ROOM_SIZE - ROOM_SIZE / 2) <= 2 || Math.abs(y % ROOM_SIZE - ROOM_SIZE / 2) <= 2;
+    }
+}
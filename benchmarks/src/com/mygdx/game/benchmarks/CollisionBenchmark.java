@@ -0,0 +1,102 @@
+package com.mygdx.game.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.mygdx.game.Node;
+import com.mygdx.game.utils.CollisionHandler;
+import com.mygdx.game.utils.MapGeometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the collision checks a chef makes every frame it is moved with the keyboard, at positions spread across the map,
+ * some clear and some overlapping a wall or station - both checking a position on its own and sweeping a one-frame move from it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+    private static final int POSITION_COUNT = 1024;
+    //The size of the area checked around a chef, as Chef uses
+    private static final int SQUARE_SIZE = 30;
+    private static final int TILE_SIZE = 32;
+    //How far a chef moves each frame, 100 pixels a second at 60 frames a second
+    private static final float STEP = 100f / 60f;
+
+    /**
+     * The width and height of the grid.
+     */
+    @Param({"16", "64", "256", "1024"})
+    public int size;
+
+    private Sprite sprite;
+    private CollisionHandler collisionHandler;
+    private float[] positionsX;
+    private float[] positionsY;
+    private int nextPosition;
+
+    /**
+     * Generates the grid and the positions to check, each within a tile of an open node.
+     */
+    @Setup(Level.Trial)
+    public void setUp(){
+        Node[][] grid = BenchmarkGrids.createKitchen(size, BenchmarkGrids.SEED);
+        TiledMap tiledMap = BenchmarkGrids.createTiledMap(size);
+        sprite = new Sprite();
+        collisionHandler = new CollisionHandler(grid, tiledMap, SQUARE_SIZE);
+        Random random = new Random(BenchmarkGrids.SEED);
+        positionsX = new float[POSITION_COUNT];
+        positionsY = new float[POSITION_COUNT];
+        for(int i = 0; i < POSITION_COUNT; i++){
+            Node node = BenchmarkGrids.pickOpenNode(grid, random, 1, size - 1);
+            //Up to half a tile off the centre, so some positions overlap their neighbours
+            positionsX[i] = MapGeometry.of(tiledMap).toWorldX(node.getGridX()) + random.nextInt(TILE_SIZE) - TILE_SIZE / 2;
+            positionsY[i] = MapGeometry.of(tiledMap).toWorldY(node.getGridY()) + random.nextInt(TILE_SIZE) - TILE_SIZE / 2;
+        }
+        nextPosition = 0;
+    }
+
+    /**
+     * Checks the next position.
+     *
+     * @return whether a box at the position collides, so it isn't optimised away
+     */
+    @Benchmark
+    public boolean hasCollision(){
+        float x = positionsX[nextPosition];
+        float y = positionsY[nextPosition];
+        nextPosition = (nextPosition + 1) % POSITION_COUNT;
+        return collisionHandler.hasCollision(x, y);
+    }
+
+    /**
+     * Moves the sprite to the next position and sweeps a one-frame move from it, in a different direction each time.
+     *
+     * @return whether the move was cut short, so it isn't optimised away
+     */
+    @Benchmark
+    public boolean move(){
+        sprite.setPosition(positionsX[nextPosition], positionsY[nextPosition]);
+        float moveX = nextPosition % 4 == 0 ? STEP : nextPosition % 4 == 1 ? -STEP : 0;
+        float moveY = nextPosition % 4 == 2 ? STEP : nextPosition % 4 == 3 ? -STEP : 0;
+        nextPosition = (nextPosition + 1) % POSITION_COUNT;
+        return collisionHandler.move(sprite, moveX, moveY);
+    }
+}
@@ -0,0 +1,30 @@
+package com.mygdx.game.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Starts libGDX without a window, for benchmarks of classes that load textures, the same way GdxTestRunner does for the tests.
+ * Files are read relative to the working directory, which the jmh task sets to the assets folder.
+ */
+public class HeadlessGdx {
+
+    private static boolean started = false;
+
+    private HeadlessGdx(){}
+
+    /**
+     * Starts the headless application, if it hasn't been already.
+     */
+    public static synchronized void start(){
+        if(started) return;
+        new HeadlessApplication(new ApplicationAdapter() {}, new HeadlessApplicationConfiguration());
+        Gdx.gl = mock(GL20.class);
+        started = true;
+    }
+}
@@ -0,0 +1,145 @@
+package com.mygdx.game.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.Node;
+import com.mygdx.game.OccupancyIndex;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.interfaces.IGridEntity;
+import com.mygdx.game.pathfinding.NavigationGrid;
+import com.mygdx.game.utils.MapGeometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times one frame of keeping the grid up to date with where every chef and customer is, each of them telling the OccupancyIndex where they now are.
+ * Each entity walks back and forth along a corridor, so some move onto a new node each frame and most don't.
+ * The grid has a NavigationGrid attached, so the cost of telling the pathfinding caches about each change is included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OccupancyBenchmark {
+
+    //How far an entity moves each frame, a customer walking at 100 pixels a second at 60 frames a second
+    private static final float STEP = 100f / 60f;
+
+    /**
+     * The width and height of the grid.
+     */
+    @Param({"16", "64", "256", "1024"})
+    public int size;
+
+    /**
+     * The number of chefs and customers on the grid.
+     */
+    @Param({"8", "64"})
+    public int entityCount;
+
+    private Node[][] grid;
+    private TiledMap tiledMap;
+    private List<BenchmarkEntity> entities;
+    private OccupancyIndex occupancyIndex;
+
+    /**
+     * Generates the grid and places the entities on the corridors through the middle of the rooms, which are always open.
+     */
+    @Setup(Level.Trial)
+    public void setUp(){
+        grid = BenchmarkGrids.createKitchen(size, BenchmarkGrids.SEED);
+        tiledMap = BenchmarkGrids.createTiledMap(size);
+        NavigationGrid.of(grid);
+        occupancyIndex = OccupancyIndex.of(grid);
+        Random random = new Random(BenchmarkGrids.SEED);
+        entities = new ArrayList<>();
+        int rooms = Math.max(1, size / BenchmarkGrids.ROOM_SIZE);
+        for(int i = 0; i < entityCount; i++){
+            //Every entity walks along the horizontal corridor of a room, between its walls
+            int roomX = random.nextInt(rooms) * BenchmarkGrids.ROOM_SIZE;
+            int roomY = random.nextInt(rooms) * BenchmarkGrids.ROOM_SIZE;
+            int corridorY = Math.min(size - 2, roomY + BenchmarkGrids.ROOM_SIZE / 2);
+            int minX = roomX + 1;
+            int maxX = Math.min(size - 2, roomX + BenchmarkGrids.ROOM_SIZE - 1);
+            int startX = minX + random.nextInt(maxX - minX + 1);
+            BenchmarkEntity entity = new BenchmarkEntity(i % 2 == 0 ? NodeType.CHEF : NodeType.CUSTOMER,
+                    MapGeometry.of(tiledMap).toWorldX(minX), MapGeometry.of(tiledMap).toWorldX(maxX));
+            entity.getSprite().setPosition(MapGeometry.of(tiledMap).toWorldX(startX), MapGeometry.of(tiledMap).toWorldY(corridorY));
+            entities.add(entity);
+            occupancyIndex.place(entity, entity.nodeType, startX, corridorY);
+        }
+    }
+
+    /**
+     * Moves every entity and updates the grid.
+     *
+     * @return the grid, so the update isn't optimised away
+     */
+    @Benchmark
+    public Node[][] moveAndUpdate(){
+        MapGeometry mapGeometry = MapGeometry.of(tiledMap);
+        for(BenchmarkEntity entity : entities){
+            entity.move();
+            occupancyIndex.moveTo(entity, mapGeometry.toGridX(entity.getSprite().getX()), mapGeometry.toGridY(entity.getSprite().getY()));
+        }
+        return grid;
+    }
+
+    //A chef or customer walking back and forth between two points
+    private static class BenchmarkEntity implements IGridEntity {
+        private final NodeType nodeType;
+        private final Sprite sprite;
+        private final float minX;
+        private final float maxX;
+        private float direction;
+        private Vector2 gridPosition;
+
+        BenchmarkEntity(NodeType nodeType, float minX, float maxX){
+            this.nodeType = nodeType;
+            this.minX = minX;
+            this.maxX = maxX;
+            sprite = new Sprite();
+            direction = 1;
+            gridPosition = null;
+        }
+
+        void move(){
+            float x = sprite.getX() + STEP * direction;
+            if(x > maxX || x < minX) direction = -direction;
+            sprite.setX(Math.max(minX, Math.min(maxX, x)));
+        }
+
+        @Override
+        public Vector2 getPreviousGridPosition() {
+            return gridPosition;
+        }
+
+        @Override
+        public void setCurrentGridPosition(Vector2 gridPos) {
+            gridPosition = gridPos;
+        }
+
+        @Override
+        public Sprite getSprite() {
+            return sprite;
+        }
+    }
+}
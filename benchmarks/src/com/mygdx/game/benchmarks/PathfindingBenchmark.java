@@ -0,0 +1,98 @@
+package com.mygdx.game.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.PathfinderType;
+import com.mygdx.game.pathfinding.SearchContext;
+import com.mygdx.game.utils.PathfindingUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times single searches across the map with each pathfinder, on grids from the size of the test kitchen up to 1024 x 1024.
+ * Each call takes the next of a fixed set of routes, so every iteration does the same work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PathfindingBenchmark {
+
+    //Enough routes that no one route decides the result
+    private static final int ROUTE_COUNT = 32;
+
+    /**
+     * The width and height of the grid.
+     */
+    @Param({"16", "64", "256", "1024"})
+    public int size;
+
+    /**
+     * The pathfinder to search with.
+     */
+    @Param({"A_STAR", "JUMP_POINT", "HIERARCHICAL", "BIDIRECTIONAL"})
+    public String pathfinder;
+
+    private Node[][] grid;
+    private Node[][] routes;
+    private PathfinderType pathfinderType;
+    private SearchContext context;
+    private int nextRoute;
+
+    /**
+     * Generates the grid and routes, and runs every route once so anything built on first use (e.g. the cluster graph) is ready.
+     */
+    @Setup(Level.Trial)
+    public void setUp(){
+        grid = BenchmarkGrids.createKitchen(size, BenchmarkGrids.SEED);
+        routes = BenchmarkGrids.createRoutes(grid, ROUTE_COUNT, BenchmarkGrids.SEED);
+        pathfinderType = PathfinderType.valueOf(pathfinder);
+        context = new SearchContext();
+        nextRoute = 0;
+        for(Node[] route : routes){
+            PathfindingUtils.findPath(route[0], route[1], grid, pathfinderType);
+        }
+    }
+
+    /**
+     * Runs the search itself, without the path cache, which would otherwise answer every call after the first.
+     *
+     * @return the path, so it isn't optimised away
+     */
+    @Benchmark
+    public Vector2[] search(){
+        Node[] route = nextRoute();
+        return pathfinderType.getPathfinder().findPath(route[0], route[1], grid, context);
+    }
+
+    /**
+     * Runs the whole of PathfindingUtils.findPath() as actors call it, which is answered from the path cache once warmed up.
+     *
+     * @return the path, so it isn't optimised away
+     */
+    @Benchmark
+    public Vector2[] findPathCached(){
+        Node[] route = nextRoute();
+        return PathfindingUtils.findPath(route[0], route[1], grid, pathfinderType);
+    }
+
+    private Node[] nextRoute(){
+        Node[] route = routes[nextRoute];
+        nextRoute = (nextRoute + 1) % routes.length;
+        return route;
+    }
+}
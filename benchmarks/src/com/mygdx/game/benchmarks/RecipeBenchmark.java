@@ -0,0 +1,77 @@
+package com.mygdx.game.benchmarks;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.mygdx.game.foodClasses.Food;
+import com.mygdx.game.foodClasses.FoodItems;
+import com.mygdx.game.stations.FormingStation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the forming station checking its inventory against every recipe, which it does each time a chef adds a food to it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RecipeBenchmark {
+
+    /**
+     * The inventory to check - a whole burger, a whole salad, part of a salad or foods that make nothing.
+     */
+    @Param({"BURGER", "SALAD", "PARTIAL", "NO_MATCH"})
+    public String inventory;
+
+    private FormingStation formingStation;
+    private List<Food> foods;
+
+    /**
+     * Starts libGDX, as foods and stations load their textures, and builds the station and inventory.
+     */
+    @Setup(Level.Trial)
+    public void setUp(){
+        HeadlessGdx.start();
+        formingStation = new FormingStation(0, true, new TextureRegion(new Texture(new Pixmap(1, 1, Pixmap.Format.RGBA8888))));
+        switch(inventory){
+            case "BURGER":
+                foods = Arrays.asList(FoodItems.COOKED_PATTY, FoodItems.TOASTED_BUN);
+                break;
+            case "SALAD":
+                foods = Arrays.asList(FoodItems.CHOPPED_ONION, FoodItems.CHOPPED_LETTUCE, FoodItems.CHOPPED_TOMATO);
+                break;
+            case "PARTIAL":
+                foods = Arrays.asList(FoodItems.CHOPPED_LETTUCE, FoodItems.CHOPPED_TOMATO);
+                break;
+            default:
+                foods = Arrays.asList(FoodItems.SLICED_CHEESE, FoodItems.BUN, FoodItems.CHOPPED_ONION);
+        }
+    }
+
+    /**
+     * Finds the recipe the inventory makes.
+     *
+     * @return the finished food, or null, so the search isn't optimised away
+     */
+    @Benchmark
+    public Food findRecipe(){
+        return formingStation.findRecipe(foods);
+    }
+}
@@ -3,9 +3,9 @@ package com.mygdx.game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Camera;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.math.Vector2;
@@ -15,12 +15,17 @@ import com.mygdx.game.enums.NodeType;
 import com.mygdx.game.foodClasses.Food;
 import com.mygdx.game.interfaces.IGridEntity;
 import com.mygdx.game.interfaces.IInteractable;
+import com.mygdx.game.pathfinding.Path;
 import com.mygdx.game.screens.GameScreen;
 import com.mygdx.game.utils.CollisionHandler;
+import com.mygdx.game.utils.MapGeometry;
 import com.mygdx.game.utils.PathfindingUtils;
 import com.mygdx.game.utils.SoundUtils;
+import com.mygdx.game.utils.TextureAtlasUtils;
 import com.mygdx.game.utils.TileMapUtils;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Stack;
 import com.mygdx.game.enums.Facing;
 
@@ -46,7 +51,16 @@ public class Chef implements IInteractable, IGridEntity {
      * The Pathfinding actor.
      */
     PathfindingActor pathfindingActor;
-    private Texture[] movementTextures;
+    private TextureRegion[] movementTextures;
+    //Made the first time the chef is moved with the keyboard, then reused every frame
+    private CollisionHandler collisionHandler;
+    //The images of each chef facing up, left, down and right
+    private static final String[][] CHEF_TEXTURES = {{"Chef_Assets/Chef_Dark_Up.png","Chef_Assets/Chef_Dark_Left.png","Chef_Assets/Chef_Dark_Down.png","Chef_Assets/Chef_Dark_Right.png"},
+            {"Chef_Assets/Chef_Pink_Up.png","Chef_Assets/Chef_Pink_Left.png","Chef_Assets/Chef_Pink_Down.png","Chef_Assets/Chef_Pink_Right.png"}};
+    //The images the movement textures were acquired from, until they are released
+    private String[] texturePaths;
+    //Reused for every query of what is near the chef
+    private final List<IGridEntity> nearbyEntities = new ArrayList<>();
 
     /**
      * Instantiates a new Chef.
@@ -55,7 +69,7 @@ public class Chef implements IInteractable, IGridEntity {
      */
     public Chef(int textureSelecter){
         setMovementTextures(selectChefTexture(textureSelecter));
-        chefSprite = new Sprite(getMovementTextures()[0], 256, 256);
+        chefSprite = new Sprite(getMovementTextures()[0]);
         this.chefSprite.setScale(2f, 1.5f);
         foodStack = new Stack<>();
         pathfindingActor = new PathfindingActor(null, null, null,null);
@@ -66,10 +80,18 @@ public class Chef implements IInteractable, IGridEntity {
      * @param textureSelecter
      * @return the texture
      */
-    private Texture[] selectChefTexture(int textureSelecter){
-        Texture[][] chefTextures = new Texture[][] {{new Texture("Chef_Assets/Chef_Dark_Up.png"),new Texture("Chef_Assets/Chef_Dark_Left.png"),new Texture("Chef_Assets/Chef_Dark_Down.png"),new Texture("Chef_Assets/Chef_Dark_Right.png")},
-                {new Texture("Chef_Assets/Chef_Pink_Up.png"),new Texture("Chef_Assets/Chef_Pink_Left.png"),new Texture("Chef_Assets/Chef_Pink_Down.png"),new Texture("Chef_Assets/Chef_Pink_Right.png")}};
-        return chefTextures[textureSelecter];
+    private TextureRegion[] selectChefTexture(int textureSelecter){
+        texturePaths = CHEF_TEXTURES[textureSelecter];
+        return TextureAtlasUtils.acquireRegions(texturePaths);
+    }
+
+    /**
+     * Releases the chef's textures, once they are no longer drawn. Releasing them again does nothing.
+     */
+    public void releaseTextures(){
+        if(texturePaths == null) return;
+        TextureAtlasUtils.release(texturePaths);
+        texturePaths = null;
     }
 
     /**
@@ -102,19 +124,20 @@ public class Chef implements IInteractable, IGridEntity {
 
         if(!Gdx.input.isButtonJustPressed(Input.Buttons.LEFT)) keyBoardMovement(tiledMap, grid);
         else mouseMovement(tiledMap, grid, camera);
+        if(pathfindingActor.updatePath()) onPathFound(grid);
 
-        if(!pathfindingActor.getWorldPath().isEmpty()){
+        if(!pathfindingActor.getPath().isEmpty()){
             pathfindingActor.drawPath(camera, chefSprite);
             pathfindingActor.followPath(chefSprite, speed, getMovementTextures());
             //Interacts with anything at the end of the path
-            if(getPathfindingActor().getPathfindingCounter() == pathfindingActor.getWorldPath().size() && interactablePathEnd) {
+            if(getPathfindingActor().getPathfindingCounter() == pathfindingActor.getPath().getWaypointCount() && interactablePathEnd) {
                 System.out.println("Interactable Path End");
                 pathfindingActor.setFacing(chefSprite, getFinalFacing(), getMovementTextures());
                 interact(grid, tiledMap, match);
                 interactablePathEnd = false;
             }
         }
-        if(interactablePathEnd && pathfindingActor.getWorldPath().isEmpty()){
+        if(interactablePathEnd && pathfindingActor.getPath().isEmpty() && !pathfindingActor.isPathPending()){
             System.out.println("Interactable Path End");
             pathfindingActor.setFacing(chefSprite, getFinalFacing(), getMovementTextures());
             interact(grid, tiledMap, match);
@@ -137,18 +160,32 @@ public class Chef implements IInteractable, IGridEntity {
         //Convert world co-ords to grid co-ords
         Node start = setStartCoords(tiledMap, grid);
         Node end = setEndCoords(tiledMap, grid, camera);
+        pathfindingActor.dispose();
         pathfindingActor = new PathfindingActor(start, end, grid, tiledMap);
-        pathfindingActor.createThreadAndPathfind();
-        if(pathfindingActor.getWorldPath().size() == 0) return;
-        pathfindingActor.setPathfindingCounter(0);
-        //Check if there is something to interact with at the end of the path
+        pathfindingActor.setOwner(this);
+        pathfindingActor.requestPath();
+        interactablePathEnd = false;
+    }
+
+    /**
+     * Called on the frame a requested path is applied
+     * Checks if there is something to interact with at the end of the path
+     * @param grid
+     */
+    private void onPathFound(Node[][] grid){
+        if(pathfindingActor.getPath().isEmpty()) return;
+        Node end = pathfindingActor.getEnd();
         interactablePathEnd = end.isInteractable();
         if(interactablePathEnd){
-            //Fix for a path of 1
-            if(pathfindingActor.getWorldPath().size() > 0){
-                Node penultimateNode = PathfindingUtils.findBestInteractingNode(start, end, grid);
-                setFinalFacing(PathfindingUtils.calculateFinalFacing(penultimateNode, end));
+            //The path stops next to the interactable, on whichever side was closest, so that is the side to face it from.
+            //A cooperative plan may only be part of the way there yet, in which case the side it will most likely stop at is used
+            Path path = pathfindingActor.getPath();
+            int lastCell = path.getCellCount() - 1;
+            Node penultimateNode = grid[path.getCellX(lastCell)][path.getCellY(lastCell)];
+            if(Math.abs(penultimateNode.getGridX() - end.getGridX()) + Math.abs(penultimateNode.getGridY() - end.getGridY()) != 1){
+                penultimateNode = PathfindingUtils.findBestInteractingNode(pathfindingActor.getStart(), end, grid);
             }
+            setFinalFacing(PathfindingUtils.calculateFinalFacing(penultimateNode, end));
         }
     }
 
@@ -159,42 +196,48 @@ public class Chef implements IInteractable, IGridEntity {
      */
     private void keyBoardMovement(TiledMap tiledMap, Node[][] grid){
         float speed = 100f;
-        Vector2 oldPos = new Vector2(chefSprite.getX(), chefSprite.getY());
-        CollisionHandler collisionHandler = new CollisionHandler(grid, tiledMap, chefSprite, squareSize - 2);
+        float moveX = 0;
+        float moveY = 0;
+        if(collisionHandler == null) collisionHandler = new CollisionHandler(grid, tiledMap, squareSize - 2);
 
         if(Gdx.input.isKeyPressed(Input.Keys.W)){
-            chefSprite.translateY(speed * Gdx.graphics.getDeltaTime());
+            moveY = speed * Gdx.graphics.getDeltaTime();
             pathfindingActor.setFacing(chefSprite, Facing.UP, getMovementTextures());
-            pathfindingActor.getWorldPath().clear();
+            pathfindingActor.clearPath();
         }
         else if(Gdx.input.isKeyPressed(Input.Keys.S)){
-            chefSprite.translateY(-speed * Gdx.graphics.getDeltaTime());
+            moveY = -speed * Gdx.graphics.getDeltaTime();
             pathfindingActor.setFacing(chefSprite, Facing.DOWN, getMovementTextures());
-            pathfindingActor.getWorldPath().clear();
+            pathfindingActor.clearPath();
         }
         else if(Gdx.input.isKeyPressed(Input.Keys.A)){
-            chefSprite.translateX(-speed * Gdx.graphics.getDeltaTime());
+            moveX = -speed * Gdx.graphics.getDeltaTime();
             pathfindingActor.setFacing(chefSprite, Facing.LEFT, getMovementTextures());
-            pathfindingActor.getWorldPath().clear();
+            pathfindingActor.clearPath();
         }
         else if(Gdx.input.isKeyPressed(Input.Keys.D)) {
-            chefSprite.translateX(speed * Gdx.graphics.getDeltaTime());
+            moveX = speed * Gdx.graphics.getDeltaTime();
             pathfindingActor.setFacing(chefSprite, Facing.RIGHT, getMovementTextures());
-            pathfindingActor.getWorldPath().clear();
-        }
-
-        if(collisionHandler.hasCollision()){
-            chefSprite.setPosition(oldPos.x, oldPos.y);
+            pathfindingActor.clearPath();
         }
 
-
-        //  for testing purposes, pressing o will remove a customer from the list of active customers.
-        //  depending on whom the chef is interacting with, this will remove the corresponding customer from the list
-        else if(Gdx.input.isKeyJustPressed(Input.Keys.O)) {
-            // if(chef interaction is with customer
-            GameScreen.getCustomers().remove(0);   //  to be changed to remove correct customer from list
-            // else {interact with station}
+        boolean blocked = collisionHandler.move(chefSprite, moveX, moveY);
+
+        MapGeometry mapGeometry = MapGeometry.of(tiledMap);
+        int gridX = mapGeometry.toGridX(chefSprite.getX());
+        int gridY = mapGeometry.toGridY(chefSprite.getY());
+        //  for testing purposes, pressing o will remove a customer next to the chef from the list of active customers.
+        if(!blocked && Gdx.input.isKeyJustPressed(Input.Keys.O)) {
+            nearbyEntities.clear();
+            SpatialHash.of(grid).findInRadius(gridX, gridY, 1.5f, nearbyEntities);
+            for(IGridEntity nearbyEntity : nearbyEntities){
+                if(nearbyEntity instanceof Customer){
+                    ((Customer) nearbyEntity).remove();
+                    break;
+                }
+            }
         }
+        OccupancyIndex.of(grid).moveTo(this, gridX, gridY);
     }
 
     /**
@@ -207,10 +250,8 @@ public class Chef implements IInteractable, IGridEntity {
      */
     public void setTileMapPosition(int mapPosX, int mapPosY, Node[][] grid, TiledMap tiledMap){
         if(!PathfindingUtils.isValidNode(mapPosX, mapPosY, grid)) return;
-        grid[mapPosX][mapPosY].setNodeType(NodeType.CHEF);
-        grid[mapPosX][mapPosY].setGridEntity(this);
-        grid[mapPosX][mapPosY].setInteractable(this);
-        chefSprite.setPosition(TileMapUtils.coordToPosition(mapPosX, tiledMap), TileMapUtils.coordToPosition(mapPosY, tiledMap));
+        OccupancyIndex.of(grid).place(this, NodeType.CHEF, mapPosX, mapPosY);
+        chefSprite.setPosition(MapGeometry.of(tiledMap).toWorldX(mapPosX), MapGeometry.of(tiledMap).toWorldY(mapPosY));
     }
 
     /**
@@ -220,8 +261,8 @@ public class Chef implements IInteractable, IGridEntity {
      * @return the starting coords in the format (x,y)
      */
     private Node setStartCoords(TiledMap tiledMap, Node[][] grid){
-        int startGridX = TileMapUtils.positionToCoord(chefSprite.getX(), tiledMap);
-        int startGridY = TileMapUtils.positionToCoord(chefSprite.getY(), tiledMap);
+        int startGridX = MapGeometry.of(tiledMap).toGridX(chefSprite.getX());
+        int startGridY = MapGeometry.of(tiledMap).toGridY(chefSprite.getY());
         if (!PathfindingUtils.isValidNode(startGridX, startGridY, grid)) return null;
         return grid[startGridX][startGridY];
     }
@@ -237,8 +278,8 @@ public class Chef implements IInteractable, IGridEntity {
         Vector3 unprojectedCoord = camera.unproject(new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0));
         float endWorldX = unprojectedCoord.x - 128;
         float endWorldY = unprojectedCoord.y - 128;
-        int endGridX = TileMapUtils.positionToCoord(endWorldX, tiledMap);
-        int endGridY = TileMapUtils.positionToCoord(endWorldY, tiledMap);
+        int endGridX = MapGeometry.of(tiledMap).toGridX(endWorldX);
+        int endGridY = MapGeometry.of(tiledMap).toGridY(endWorldY);
         if (!PathfindingUtils.isValidNode(endGridX, endGridY, grid)) return null;
         return grid[endGridX][endGridY];
     }
@@ -265,8 +306,9 @@ public class Chef implements IInteractable, IGridEntity {
         }
         else{
             Food currentFood = new Food(this.getFoodStack().pop());
-            currentFood.getSprite().setPosition(TileMapUtils.coordToPosition(interactedNode.getGridX(), tiledMap), TileMapUtils.coordToPosition(interactedNode.getGridY(), tiledMap));
+            currentFood.getSprite().setPosition(MapGeometry.of(tiledMap).toWorldX(interactedNode.getGridX()), MapGeometry.of(tiledMap).toWorldY(interactedNode.getGridY()));
             GameScreen.getRenderedFoods().add(currentFood);
+            OccupancyIndex.of(grid).place(currentFood, NodeType.FOOD, interactedNode.getGridX(), interactedNode.getGridY());
             System.out.println("Interacting with Nothing");
             SoundUtils.getItemPickupSound().play();
         }
@@ -284,20 +326,20 @@ public class Chef implements IInteractable, IGridEntity {
         }
         switch (pathfindingActor.getFacing()){
             case UP:
-                batch.draw(getFoodStack().peek().getSprite().getTexture(), chefSprite.getX() + 96, chefSprite.getY() + 96);
+                batch.draw(getFoodStack().peek().getSprite(), chefSprite.getX() + 96, chefSprite.getY() + 96);
                 chefSprite.draw(batch);
                 break;
             case DOWN:
                 chefSprite.draw(batch);
-                batch.draw(getFoodStack().peek().getSprite().getTexture(), chefSprite.getX() + 96, chefSprite.getY() + 96);
+                batch.draw(getFoodStack().peek().getSprite(), chefSprite.getX() + 96, chefSprite.getY() + 96);
                 break;
             case RIGHT:
                 chefSprite.draw(batch);
-                batch.draw(getFoodStack().peek().getSprite().getTexture(), chefSprite.getX() + 111, chefSprite.getY() + 85);
+                batch.draw(getFoodStack().peek().getSprite(), chefSprite.getX() + 111, chefSprite.getY() + 85);
                 break;
             case LEFT:
                 chefSprite.draw(batch);
-                batch.draw(getFoodStack().peek().getSprite().getTexture(), chefSprite.getX() + 81, chefSprite.getY() + 85);
+                batch.draw(getFoodStack().peek().getSprite(), chefSprite.getX() + 81, chefSprite.getY() + 85);
                 break;
         }
     }
@@ -332,7 +374,7 @@ public class Chef implements IInteractable, IGridEntity {
      * @return
      */
     private Node getInteractedNode(Node[][] grid, TiledMap tiledMap){
-        return TileMapUtils.getNodeAtFacing(pathfindingActor.getFacing(), grid, grid[TileMapUtils.positionToCoord(chefSprite.getX(), tiledMap)][TileMapUtils.positionToCoord(chefSprite.getY(),tiledMap)]);
+        return TileMapUtils.getNodeAtFacing(pathfindingActor.getFacing(), grid, grid[MapGeometry.of(tiledMap).toGridX(chefSprite.getX())][MapGeometry.of(tiledMap).toGridY(chefSprite.getY())]);
     }
 
     /**
@@ -394,7 +436,7 @@ public class Chef implements IInteractable, IGridEntity {
      *
      * @return the texture [ ]
      */
-    public Texture[] getMovementTextures() {
+    public TextureRegion[] getMovementTextures() {
         return movementTextures;
     }
 
@@ -403,7 +445,7 @@ public class Chef implements IInteractable, IGridEntity {
      *
      * @param movementTextures the movement textures
      */
-    public void setMovementTextures(Texture[] movementTextures) {
+    public void setMovementTextures(TextureRegion[] movementTextures) {
         this.movementTextures = movementTextures;
     }
 }
@@ -1,7 +1,7 @@
 package com.mygdx.game;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.math.Vector2;
 import com.mygdx.game.enums.Facing;
@@ -9,10 +9,15 @@ import com.mygdx.game.enums.NodeType;
 import com.mygdx.game.foodClasses.Food;
 import com.mygdx.game.foodClasses.FoodItems;
 import com.mygdx.game.interfaces.IGridEntity;
+import com.mygdx.game.pathfinding.AccessPoints;
+import com.mygdx.game.pathfinding.DistanceFieldCache;
+import com.mygdx.game.pathfinding.NavigationGrid;
+import com.mygdx.game.pathfinding.Path;
 import com.mygdx.game.screens.GameScreen;
 import com.mygdx.game.stations.ServingStation;
-import com.mygdx.game.utils.PathfindingUtils;
-import com.mygdx.game.utils.TileMapUtils;
+import com.mygdx.game.stations.Stations;
+import com.mygdx.game.utils.MapGeometry;
+import com.mygdx.game.utils.TextureAtlasUtils;
 
 import java.util.Random;
 
@@ -34,7 +39,18 @@ public class Customer implements IGridEntity {
      */
     float orderTimer;
     private static int CUSTOMER_SIZE = 256;
+    //The images of each kind of customer facing up, left, down and right
+    private static final String[][] CUSTOMER_TEXTURES = {{"CustomerAssets/Customer_Blue_Up.png","CustomerAssets/Customer_Blue_Left.png","CustomerAssets/Customer_Blue_Down.png","CustomerAssets/Customer_Blue_Right.png"},
+            {"CustomerAssets/Customer_Orange_Up.png","CustomerAssets/Customer_Orange_Left.png","CustomerAssets/Customer_Orange_Down.png","CustomerAssets/Customer_Orange_Right.png"},
+            {"CustomerAssets/Customer_Pink_Up.png","CustomerAssets/Customer_Pink_Left.png","CustomerAssets/Customer_Pink_Down.png","CustomerAssets/Customer_Pink_Right.png"}};
+    //Where customers come in and leave from
+    private static final int DOOR_GRID_X = 8;
+    private static final int DOOR_GRID_Y = 1;
+    //Customers wait beside a serving station, never above or below it
+    private static final int[] SERVING_SIDES = {AccessPoints.LEFT, AccessPoints.RIGHT};
     private Vector2 gridPosition;
+    //The grid the customer was spawned on, which they are taken off once they have left
+    private Node[][] grid;
     /**
      * The Pathfinding actor.
      */
@@ -42,7 +58,9 @@ public class Customer implements IGridEntity {
     /**
      * The Movement textures.
      */
-    Texture[] movementTextures;
+    TextureRegion[] movementTextures;
+    //The images the movement textures were acquired from, until they are released
+    private String[] texturePaths;
     /**
      * The Final facing.
      */
@@ -55,7 +73,7 @@ public class Customer implements IGridEntity {
      */
     public Customer(float orderTimer){
         movementTextures = getRandomCustomerTextures();
-        customerSprite = new Sprite(movementTextures[0] ,256, 256);
+        customerSprite = new Sprite(movementTextures[0]);
         this.customerSprite.setScale(2f);
         beenServed = false;
         order = getRandomOrder();
@@ -66,13 +84,20 @@ public class Customer implements IGridEntity {
      * Returns a randomly chosen texture for the new customer
      * @return
      */
-    private Texture[] getRandomCustomerTextures(){
-        Texture[][] customerTextures = new Texture[][] {{new Texture("CustomerAssets/Customer_Blue_Up.png"),new Texture("CustomerAssets/Customer_Blue_Left.png"),new Texture("CustomerAssets/Customer_Blue_Down.png"),new Texture("CustomerAssets/Customer_Blue_Right.png")},
-        {new Texture("CustomerAssets/Customer_Orange_Up.png"),new Texture("CustomerAssets/Customer_Orange_Left.png"),new Texture("CustomerAssets/Customer_Orange_Down.png"),new Texture("CustomerAssets/Customer_Orange_Right.png")},
-        {new Texture("CustomerAssets/Customer_Pink_Up.png"),new Texture("CustomerAssets/Customer_Pink_Left.png"),new Texture("CustomerAssets/Customer_Pink_Down.png"),new Texture("CustomerAssets/Customer_Pink_Right.png")}};
+    private TextureRegion[] getRandomCustomerTextures(){
         Random rnd = new Random();
-        int textureChoice = rnd.nextInt(customerTextures.length);
-        return customerTextures[textureChoice];
+        int textureChoice = rnd.nextInt(CUSTOMER_TEXTURES.length);
+        texturePaths = CUSTOMER_TEXTURES[textureChoice];
+        return TextureAtlasUtils.acquireRegions(texturePaths);
+    }
+
+    /**
+     * Releases the customer's textures, once they are no longer drawn. Releasing them again does nothing.
+     */
+    public void releaseTextures(){
+        if(texturePaths == null) return;
+        TextureAtlasUtils.release(texturePaths);
+        texturePaths = null;
     }
 
     /**
@@ -109,12 +134,13 @@ public class Customer implements IGridEntity {
      */
 
     public void customerLeave(Node[][] grid, TiledMap tiledMap){
-        Node start = grid[TileMapUtils.positionToCoord(customerSprite.getX(), tiledMap)]
-                [TileMapUtils.positionToCoord(customerSprite.getY(), tiledMap)];
-        Node end = grid[8][1];
+        Node start = grid[MapGeometry.of(tiledMap).toGridX(customerSprite.getX())]
+                [MapGeometry.of(tiledMap).toGridY(customerSprite.getY())];
+        Node end = grid[DOOR_GRID_X][DOOR_GRID_Y];
 
-        pathfindingActor = new PathfindingActor(start, end, grid, tiledMap);
-        pathfindingActor.createThreadAndPathfind();
+        //The customer may still be waiting on the path to the serving station
+        if(pathfindingActor != null) pathfindingActor.dispose();
+        walkTo(start, end, grid, tiledMap);
     }
 
     /**
@@ -123,11 +149,56 @@ public class Customer implements IGridEntity {
      * @param tiledMap the tiled map
      */
     public void onSpawn(Node[][] grid, TiledMap tiledMap){
-        Node start = grid[8][1];
+        Node start = grid[DOOR_GRID_X][DOOR_GRID_Y];
         Node end = getAvailableServingStation(grid, tiledMap);
 
+        walkTo(start, end, grid, tiledMap);
+        this.grid = grid;
+        OccupancyIndex.of(grid).place(this, NodeType.CUSTOMER, DOOR_GRID_X, DOOR_GRID_Y);
+    }
+
+    /**
+     * Builds the distance fields customers walk along - to the door and to every spot next to a serving station.
+     * Should be called once the stations have been placed on the grid.
+     *
+     * @param grid     the grid
+     * @param tiledMap the tiled map
+     */
+    public static void buildDistanceFields(Node[][] grid, TiledMap tiledMap){
+        DistanceFieldCache distanceFields = NavigationGrid.of(grid).getDistanceFields();
+        distanceFields.getField(grid[DOOR_GRID_X][DOOR_GRID_Y]);
+        AccessPoints accessPoints = NavigationGrid.of(grid).getAccessPoints();
+        for(ServingStation servingStation : Stations.servingStations){
+            int xPos = MapGeometry.of(tiledMap).toGridX(servingStation.getSprite().getX());
+            int yPos = MapGeometry.of(tiledMap).toGridY(servingStation.getSprite().getY());
+            //The same sides a spawning customer picks from, so none of their fields is left to be built at spawn time
+            int freeSides = accessPoints.getFreeSides(grid[xPos][yPos]);
+            for(int side : SERVING_SIDES){
+                if((freeSides & 1 << side) == 0) continue;
+                distanceFields.getField(accessPoints.getAccessNode(grid[xPos][yPos], side));
+            }
+        }
+    }
+
+    //Customers only ever walk to the door or a serving spot, so the path is read off the distance field for it.
+    //The field doesn't know about other customers or chefs, so if one is in the way a normal search is done instead.
+    //On a cooperative grid the cooperative pathfinder already walks the field around everyone else
+    private void walkTo(Node start, Node end, Node[][] grid, TiledMap tiledMap){
         pathfindingActor = new PathfindingActor(start, end, grid, tiledMap);
-        pathfindingActor.createThreadAndPathfind();
+        pathfindingActor.setOwner(this);
+        if(NavigationGrid.of(grid).isCooperative()){
+            pathfindingActor.requestPath();
+            return;
+        }
+        pathfindingActor.setFieldPath(NavigationGrid.of(grid).getDistanceFields().getField(end));
+        Path path = pathfindingActor.getPath();
+        for(int i = 0; i < path.getCellCount(); i++){
+            if(grid[path.getCellX(i)][path.getCellY(i)].isCollidable()){
+                pathfindingActor.clearPath();
+                pathfindingActor.requestPath();
+                return;
+            }
+        }
     }
 
     /**
@@ -144,15 +215,15 @@ public class Customer implements IGridEntity {
         GameScreen.getAvailableServingStations().remove(stationIndex);
         servingStation.setCurrentCustomer(this);
         //Get grid position of serving station
-        int xPos = TileMapUtils.positionToCoord(servingStation.getSprite().getX(), tiledMap);
-        int yPos = TileMapUtils.positionToCoord(servingStation.getSprite().getY(), tiledMap);
-        //Choose a free node around the serving station
-        int[] xMod = {-1, 1};
-        for(int i = 0; i < xMod.length; i++){
-            if(!PathfindingUtils.isValidNode(xPos + xMod[i], yPos, grid)) continue;
-            if(grid[xPos + xMod[i]][yPos].getNodeType() != NodeType.EMPTY) continue;
-            finalFacing = PathfindingUtils.calculateFinalFacing(grid[xPos + xMod[i]][yPos], grid[xPos][yPos]);
-            return grid[xPos + xMod[i]][yPos];
+        int xPos = MapGeometry.of(tiledMap).toGridX(servingStation.getSprite().getX());
+        int yPos = MapGeometry.of(tiledMap).toGridY(servingStation.getSprite().getY());
+        //Choose a free node either side of the serving station, from the sides kept for every station
+        AccessPoints accessPoints = NavigationGrid.of(grid).getAccessPoints();
+        int freeSides = accessPoints.getFreeSides(grid[xPos][yPos]);
+        for(int side : SERVING_SIDES){
+            if((freeSides & 1 << side) == 0) continue;
+            finalFacing = AccessPoints.getFacing(side);
+            return accessPoints.getAccessNode(grid[xPos][yPos], side);
         }
         //Can't find a node to go
         //We should stop the customer spawning
@@ -165,21 +236,35 @@ public class Customer implements IGridEntity {
      * Move customer.
      */
     public void moveCustomer(){
-        if(pathfindingActor.getWorldPath().isEmpty()) return;
+        pathfindingActor.updatePath();
+        if(pathfindingActor.getPath().isEmpty()) return;
         pathfindingActor.followPath(customerSprite, 100f, movementTextures);
-        if(pathfindingActor.getPathfindingCounter() == pathfindingActor.getWorldPath().size()){
-            if(beenServed){
-                GameScreen.getCustomers().remove(this);
-                customerSprite.setPosition(1000,1000);
-            }
+        if(pathfindingActor.getPathfindingCounter() == pathfindingActor.getPath().getWaypointCount()){
+            if(beenServed) remove();
             else{
                 pathfindingActor.setFacing(customerSprite,finalFacing, movementTextures);
-                pathfindingActor.getWorldPath().clear();
+                pathfindingActor.getPath().clear();
                 pathfindingActor.setPathfindingCounter(0);
             }
         }
     }
 
+    /**
+     * Remove.
+     * Takes the customer out of the game - off the list of active customers and off the grid,
+     * and gives up its path and textures. Removing it again does nothing.
+     */
+    public void remove(){
+        GameScreen.getCustomers().remove(this);
+        if(grid != null) OccupancyIndex.of(grid).remove(this);
+        if(pathfindingActor != null){
+            pathfindingActor.dispose();
+            pathfindingActor = null;
+        }
+        customerSprite.setPosition(1000,1000);
+        releaseTextures();
+    }
+
     /**
      * Return previous grid position
      * @return
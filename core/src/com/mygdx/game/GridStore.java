@@ -0,0 +1,368 @@
+package com.mygdx.game;
+
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.interfaces.IGridEntity;
+import com.mygdx.game.interfaces.IGridListener;
+import com.mygdx.game.interfaces.IInteractable;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The cells of one grid, stored as flat arrays indexed by x * height + y rather than one object per cell.
+ * Each cell has its type, a bitmask of what that type means (collidable, interactable, static obstacle),
+ * and the ids of the entity and interactable on it. The Node objects of the grid are views onto these arrays,
+ * so the rest of the game can carry on using Node[][], while searches and collision checks read the arrays directly.
+ * A cell has two layers - the static layer of walls and stations, and the chefs, customers and food standing on it, kept by the OccupancyIndex.
+ * The type of a cell is the two put together: a wall or station always shows, otherwise whoever moved onto the cell last, otherwise the static layer.
+ * Neither layer can overwrite the other, so someone walking off a cell hands it back to whatever is under them rather than emptying it.
+ * Cells are only changed from the render thread, through the nodes.
+ * A store is handed to other threads through its grid field, which is written last once every node views the store, and read before anything else.
+ */
+public class GridStore {
+
+    /**
+     * The flag of cells that can't be walked through.
+     */
+    public static final byte COLLIDABLE = 1;
+    /**
+     * The flag of cells that can be interacted with.
+     */
+    public static final byte INTERACTABLE = 2;
+    /**
+     * The flag of cells that never move - walls and stations. Chefs and customers move too often to be treated as part of the map.
+     */
+    public static final byte STATIC_OBSTACLE = 4;
+    /**
+     * The flag of cells taken by a chef, customer or food, which are kept on their own layer above the walls and stations.
+     */
+    public static final byte OCCUPANT = 8;
+    //The id of no entity
+    private static final int NO_ENTITY = 0;
+
+    private static final NodeType[] NODE_TYPES = NodeType.values();
+    private static final byte[] TYPE_FLAGS = new byte[NODE_TYPES.length];
+
+    static {
+        TYPE_FLAGS[NodeType.WALL.ordinal()] = COLLIDABLE | STATIC_OBSTACLE;
+        TYPE_FLAGS[NodeType.STATION.ordinal()] = COLLIDABLE | INTERACTABLE | STATIC_OBSTACLE;
+        TYPE_FLAGS[NodeType.CUSTOMER.ordinal()] = COLLIDABLE | OCCUPANT;
+        TYPE_FLAGS[NodeType.CHEF.ordinal()] = INTERACTABLE | OCCUPANT;
+        TYPE_FLAGS[NodeType.FOOD.ordinal()] = INTERACTABLE | OCCUPANT;
+    }
+
+    private final int width;
+    private final int height;
+    private final byte[] types;
+    private final byte[] flags;
+    //The wall, station or nothing under each cell
+    private final byte[] staticTypes;
+    private final int[] entityIds;
+    private final int[] interactableIds;
+    //The entities and interactables on the grid, looked up by id. An id is handed back once nothing on the grid refers to it
+    private Object[] entities;
+    private int[] entityReferences;
+    private final Map<Object, Integer> entityIdLookup;
+    private int[] freeIds;
+    private int freeIdCount;
+    private int nextId;
+    //Volatile so a NavigationGrid set as the listener is seen whole by the pathfinding threads that find it here
+    private volatile IGridListener gridListener;
+    private OccupancyIndex occupancyIndex;
+    private SpatialHash spatialHash;
+    //The grid whose nodes view this store, if it was made for a whole grid.
+    //Volatile, so a thread that sees it set also sees every node already moved onto the store
+    private volatile Node[][] grid;
+
+    /**
+     * Instantiates a new Grid store with every cell empty.
+     *
+     * @param width  the width
+     * @param height the height
+     */
+    public GridStore(int width, int height){
+        this.width = width;
+        this.height = height;
+        types = new byte[width * height];
+        flags = new byte[width * height];
+        staticTypes = new byte[width * height];
+        entityIds = new int[width * height];
+        interactableIds = new int[width * height];
+        entities = new Object[8];
+        entityReferences = new int[8];
+        entityIdLookup = new IdentityHashMap<>();
+        freeIds = new int[8];
+        freeIdCount = 0;
+        nextId = NO_ENTITY + 1;
+        gridListener = null;
+        grid = null;
+    }
+
+    /**
+     * Creates a grid of empty nodes that are all views onto one new store.
+     *
+     * @param width  the width
+     * @param height the height
+     * @return the grid
+     */
+    public static Node[][] createGrid(int width, int height){
+        GridStore store = new GridStore(width, height);
+        Node[][] grid = new Node[width][height];
+        for(int x = 0; x < width; x++){
+            for(int y = 0; y < height; y++){
+                grid[x][y] = new Node(store, x, y);
+            }
+        }
+        store.grid = grid;
+        return grid;
+    }
+
+    /**
+     * Gets the store of a grid. Nodes that were made on their own are moved onto one new store the first time, keeping their state.
+     * Safe to call from any thread, and every search calls it before reading the grid.
+     *
+     * @param grid the grid
+     * @return the store
+     */
+    public static GridStore of(Node[][] grid){
+        GridStore store = grid[0][0].getGridStore();
+        if(store != null && store.grid == grid) return store;
+        synchronized (grid){
+            store = grid[0][0].getGridStore();
+            if(store != null && store.grid == grid) return store;
+            store = new GridStore(grid.length, grid[0].length);
+            for(Node[] column : grid){
+                for(Node node : column){
+                    store.copyFrom(node);
+                }
+            }
+            store.gridListener = grid[0][0].getGridListener();
+            for(Node[] column : grid){
+                for(Node node : column){
+                    node.attach(store, store.toIndex(node.getGridX(), node.getGridY()));
+                }
+            }
+            store.grid = grid;
+            return store;
+        }
+    }
+
+    /**
+     * Gets the flags of a node type.
+     *
+     * @param nodeType the node type
+     * @return the COLLIDABLE, INTERACTABLE, STATIC_OBSTACLE and OCCUPANT bits that apply to it
+     */
+    public static byte getFlags(NodeType nodeType){
+        return TYPE_FLAGS[nodeType.ordinal()];
+    }
+
+    /**
+     * Gets width.
+     *
+     * @return the width
+     */
+    public int getWidth(){
+        return width;
+    }
+
+    /**
+     * Gets height.
+     *
+     * @return the height
+     */
+    public int getHeight(){
+        return height;
+    }
+
+    /**
+     * Gets the flat index of a cell.
+     *
+     * @param x the x
+     * @param y the y
+     * @return the index
+     */
+    public int toIndex(int x, int y){
+        return x * height + y;
+    }
+
+    /**
+     * Gets the type of a cell.
+     *
+     * @param index the index
+     * @return the node type
+     */
+    public NodeType getNodeType(int index){
+        return NODE_TYPES[types[index]];
+    }
+
+    /**
+     * Gets the type of the static layer of a cell, whatever is standing on it.
+     *
+     * @param index the index
+     * @return the node type, which is never a chef, customer or food
+     */
+    public NodeType getStaticType(int index){
+        return NODE_TYPES[staticTypes[index]];
+    }
+
+    /**
+     * Gets the flags of a cell.
+     *
+     * @param index the index
+     * @return the COLLIDABLE, INTERACTABLE, STATIC_OBSTACLE and OCCUPANT bits of the cell's type
+     */
+    public byte getFlags(int index){
+        return flags[index];
+    }
+
+    /**
+     * Is collidable boolean.
+     *
+     * @param index the index
+     * @return whether the cell can't be walked through
+     */
+    public boolean isCollidable(int index){
+        return (flags[index] & COLLIDABLE) != 0;
+    }
+
+    /**
+     * Is interactable boolean.
+     *
+     * @param index the index
+     * @return whether the cell can be interacted with
+     */
+    public boolean isInteractable(int index){
+        return (flags[index] & INTERACTABLE) != 0;
+    }
+
+    /**
+     * Is static obstacle boolean.
+     *
+     * @param index the index
+     * @return whether the cell is a wall or station
+     */
+    public boolean isStaticObstacle(int index){
+        return (flags[index] & STATIC_OBSTACLE) != 0;
+    }
+
+    /**
+     * Is walkable boolean.
+     *
+     * @param x the x
+     * @param y the y
+     * @return whether the cell is on the grid and can be walked through
+     */
+    public boolean isWalkable(int x, int y){
+        return x >= 0 && x < width && y >= 0 && y < height && (flags[x * height + y] & COLLIDABLE) == 0;
+    }
+
+    /**
+     * Gets the entity on a cell.
+     *
+     * @param index the index
+     * @return the grid entity, or null
+     */
+    public IGridEntity getGridEntity(int index){
+        return (IGridEntity) entities[entityIds[index]];
+    }
+
+    /**
+     * Gets the interactable on a cell.
+     *
+     * @param index the index
+     * @return the interactable, or null
+     */
+    public IInteractable getInteractable(int index){
+        return (IInteractable) entities[interactableIds[index]];
+    }
+
+    /**
+     * Gets the listener told about every change to a cell's type.
+     *
+     * @return the grid listener
+     */
+    public IGridListener getGridListener(){
+        return gridListener;
+    }
+
+    void setGridListener(IGridListener gridListener){
+        this.gridListener = gridListener;
+    }
+
+    //Made the first time it is asked for, so grids nothing stands on don't pay for one
+    OccupancyIndex getOccupancyIndex(){
+        if(occupancyIndex == null) occupancyIndex = new OccupancyIndex(grid);
+        return occupancyIndex;
+    }
+
+    SpatialHash getSpatialHash(){
+        if(spatialHash == null) spatialHash = new SpatialHash(getWidth(), getHeight());
+        return spatialHash;
+    }
+
+    //Returns the old type, the node tells the listener as it is the one passed to it.
+    //Chefs, customers and food are written straight over the cell, anything else goes on the static layer
+    //and only shows if it is a wall or station or nothing is standing on the cell
+    NodeType setNodeType(int index, NodeType nodeType){
+        NodeType oldType = NODE_TYPES[types[index]];
+        byte typeFlags = TYPE_FLAGS[nodeType.ordinal()];
+        if((typeFlags & OCCUPANT) == 0){
+            staticTypes[index] = (byte) nodeType.ordinal();
+            IGridEntity occupant = occupancyIndex == null || (typeFlags & STATIC_OBSTACLE) != 0 ? null : occupancyIndex.getOccupant(index);
+            if(occupant != null){
+                nodeType = occupancyIndex.getOccupantType(index);
+                setGridEntity(index, occupant);
+                setInteractable(index, (TYPE_FLAGS[nodeType.ordinal()] & INTERACTABLE) != 0 ? (IInteractable) occupant : null);
+            }
+        }
+        types[index] = (byte) nodeType.ordinal();
+        flags[index] = TYPE_FLAGS[nodeType.ordinal()];
+        return oldType;
+    }
+
+    void setGridEntity(int index, IGridEntity gridEntity){
+        int oldId = entityIds[index];
+        entityIds[index] = acquireId(gridEntity);
+        releaseId(oldId);
+    }
+
+    void setInteractable(int index, IInteractable interactable){
+        int oldId = interactableIds[index];
+        interactableIds[index] = acquireId(interactable);
+        releaseId(oldId);
+    }
+
+    private void copyFrom(Node node){
+        int index = toIndex(node.getGridX(), node.getGridY());
+        setNodeType(index, node.getStaticNodeType());
+        setNodeType(index, node.getNodeType());
+        setGridEntity(index, node.getGridEntity());
+        setInteractable(index, node.getInteractable());
+    }
+
+    private int acquireId(Object entity){
+        if(entity == null) return NO_ENTITY;
+        Integer id = entityIdLookup.get(entity);
+        if(id == null){
+            id = freeIdCount > 0 ? freeIds[--freeIdCount] : nextId++;
+            if(id >= entities.length){
+                entities = Arrays.copyOf(entities, entities.length * 2);
+                entityReferences = Arrays.copyOf(entityReferences, entityReferences.length * 2);
+            }
+            entities[id] = entity;
+            entityIdLookup.put(entity, id);
+        }
+        entityReferences[id]++;
+        return id;
+    }
+
+    private void releaseId(int id){
+        if(id == NO_ENTITY || --entityReferences[id] > 0) return;
+        entityIdLookup.remove(entities[id]);
+        entities[id] = null;
+        if(freeIdCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        freeIds[freeIdCount++] = id;
+    }
+}
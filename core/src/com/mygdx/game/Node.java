@@ -2,29 +2,34 @@ package com.mygdx.game;
 
 import com.mygdx.game.enums.NodeType;
 import com.mygdx.game.interfaces.IGridEntity;
+import com.mygdx.game.interfaces.IGridListener;
 import com.mygdx.game.interfaces.IInteractable;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * The type Node.
+ * A view onto one cell of a GridStore - the type and entities of the cell are kept in the store's flat arrays, not here.
+ * A node made on its own keeps its cell in a few fields instead, until GridStore.of() moves it onto the store of its grid.
  */
 public class Node implements Comparable<Node>{
 
+    //Searches keep their costs in a SearchContext, these are only kept for comparing nodes by cost
     private float g, h;
     private Node parent;
-    private NodeType nodeType;
     private final int gridX;
     private final int gridY;
-    private IGridEntity gridEntity;
-    private IInteractable interactable;
-    private static final Set<NodeType> INTERACTABLE_NODE_TYPES = new HashSet<>(Arrays.asList(NodeType.CHEF, NodeType.STATION, NodeType.FOOD));
-    private static final Set<NodeType> COLLIDABLE_NODE_TYPES = new HashSet<>(Arrays.asList(NodeType.WALL, NodeType.STATION, NodeType.CUSTOMER));
+    //Only changed by GridStore.of(), which publishes it to other threads through the store
+    private GridStore store;
+    private int index;
+    //The cell of a node made on its own, until it is moved onto a store
+    private NodeType detachedType;
+    private NodeType detachedStaticType;
+    private IGridEntity detachedEntity;
+    private IInteractable detachedInteractable;
+    private IGridListener detachedListener;
 
     /**
-     * Instantiates a new Node.
+     * Instantiates a new Node on its own. It is moved onto the store of its grid by GridStore.of().
+     * Grids made with GridStore.createGrid() skip the move, so they are the better way to make a whole grid.
      *
      * @param gridX    the grid x
      * @param gridY    the grid y
@@ -34,11 +39,30 @@ public class Node implements Comparable<Node>{
         g = 0;
         h = 0;
         parent = null;
-        this.nodeType = nodeType;
         this.gridX = gridX;
         this.gridY = gridY;
-        gridEntity = null;
-        interactable = null;
+        store = null;
+        index = -1;
+        detachedType = NodeType.EMPTY;
+        detachedStaticType = NodeType.EMPTY;
+        setNodeType(nodeType);
+    }
+
+    /**
+     * Instantiates a new Node that views a cell of a store.
+     *
+     * @param store the store
+     * @param gridX the grid x
+     * @param gridY the grid y
+     */
+    Node(GridStore store, int gridX, int gridY){
+        g = 0;
+        h = 0;
+        parent = null;
+        this.gridX = gridX;
+        this.gridY = gridY;
+        this.store = store;
+        index = store.toIndex(gridX, gridY);
     }
 
     /**
@@ -51,6 +75,35 @@ public class Node implements Comparable<Node>{
         this(gridX, gridY, NodeType.EMPTY);
     }
 
+    //Moves the node onto the store of its grid, which has already copied its cell
+    void attach(GridStore store, int index){
+        this.store = store;
+        this.index = index;
+        detachedType = null;
+        detachedStaticType = null;
+        detachedEntity = null;
+        detachedInteractable = null;
+        detachedListener = null;
+    }
+
+    /**
+     * Gets the store holding this node's cell.
+     *
+     * @return the grid store, or null if the node was made on its own and hasn't been moved onto one yet
+     */
+    public GridStore getGridStore(){
+        return store;
+    }
+
+    /**
+     * Gets the index of this node's cell in its store.
+     *
+     * @return the index, or -1 if the node isn't on a store yet
+     */
+    public int getIndex(){
+        return index;
+    }
+
     /**
      * Gets f.
      *
@@ -129,16 +182,57 @@ public class Node implements Comparable<Node>{
      * @return the node type
      */
     public NodeType getNodeType(){
-        return nodeType;
+        if(store == null) return detachedType;
+        return store.getNodeType(index);
+    }
+
+    /**
+     * Gets the type of the static layer of the node - the wall or station under whatever is standing on it.
+     *
+     * @return the static node type
+     */
+    public NodeType getStaticNodeType(){
+        if(store == null) return detachedStaticType;
+        return store.getStaticType(index);
     }
 
     /**
      * Set node type.
+     * Walls, stations and empty go on the static layer, so if someone is still standing on a node that is emptied it becomes theirs instead.
      *
      * @param nodeType the node type
      */
     public void setNodeType(NodeType nodeType){
-        this.nodeType = nodeType;
+        NodeType oldType;
+        if(store != null) oldType = store.setNodeType(index, nodeType);
+        else{
+            //Nothing can be standing on a node on its own, so the static layer always shows unless it is given a chef, customer or food
+            oldType = detachedType;
+            if((GridStore.getFlags(nodeType) & GridStore.OCCUPANT) == 0) detachedStaticType = nodeType;
+            detachedType = nodeType;
+        }
+        IGridListener gridListener = getGridListener();
+        if(gridListener != null && oldType != getNodeType()) gridListener.onNodeTypeChanged(this, oldType);
+    }
+
+    /**
+     * Gets grid listener.
+     *
+     * @return the listener told about changes to this node's type
+     */
+    public IGridListener getGridListener(){
+        if(store == null) return detachedListener;
+        return store.getGridListener();
+    }
+
+    /**
+     * Sets grid listener. Every node on the same grid shares one listener, so this sets it for all of them.
+     *
+     * @param gridListener the listener told about changes to this node's type
+     */
+    public void setGridListener(IGridListener gridListener){
+        if(store == null) detachedListener = gridListener;
+        else store.setGridListener(gridListener);
     }
 
     /**
@@ -147,7 +241,8 @@ public class Node implements Comparable<Node>{
      * @return the boolean
      */
     public boolean isInteractable(){
-        return INTERACTABLE_NODE_TYPES.contains(nodeType);
+        if(store == null) return (GridStore.getFlags(detachedType) & GridStore.INTERACTABLE) != 0;
+        return store.isInteractable(index);
     }
 
     /**
@@ -156,7 +251,18 @@ public class Node implements Comparable<Node>{
      * @return the boolean
      */
     public boolean isCollidable(){
-        return COLLIDABLE_NODE_TYPES.contains(nodeType);
+        if(store == null) return isCollidable(detachedType);
+        return store.isCollidable(index);
+    }
+
+    /**
+     * Is collidable boolean.
+     *
+     * @param nodeType the node type
+     * @return whether nodes of this type can't be walked through
+     */
+    public static boolean isCollidable(NodeType nodeType){
+        return (GridStore.getFlags(nodeType) & GridStore.COLLIDABLE) != 0;
     }
 
     /**
@@ -165,7 +271,8 @@ public class Node implements Comparable<Node>{
      * @return the grid entity
      */
     public IGridEntity getGridEntity() {
-        return gridEntity;
+        if(store == null) return detachedEntity;
+        return store.getGridEntity(index);
     }
 
     /**
@@ -173,7 +280,10 @@ public class Node implements Comparable<Node>{
      *
      * @return the interactable
      */
-    public IInteractable getInteractable(){return interactable;}
+    public IInteractable getInteractable(){
+        if(store == null) return detachedInteractable;
+        return store.getInteractable(index);
+    }
 
     /**
      * Set interactable.
@@ -181,7 +291,8 @@ public class Node implements Comparable<Node>{
      * @param interactable the interactable
      */
     public void setInteractable(IInteractable interactable){
-        this.interactable = interactable;
+        if(store == null) detachedInteractable = interactable;
+        else store.setInteractable(index, interactable);
     }
 
     /**
@@ -190,7 +301,8 @@ public class Node implements Comparable<Node>{
      * @param gridEntity the grid entity
      */
     public void setGridEntity(IGridEntity gridEntity) {
-        this.gridEntity = gridEntity;
+        if(store == null) detachedEntity = gridEntity;
+        else store.setGridEntity(index, gridEntity);
     }
 
     /**
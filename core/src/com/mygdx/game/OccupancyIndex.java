@@ -0,0 +1,244 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.interfaces.IGridEntity;
+import com.mygdx.game.interfaces.IInteractable;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which chefs, foods and customers are on which node of a grid.
+ * An entity is placed once, and after that only tells the index when it has moved - the index does nothing unless it is on a new node,
+ * so the grid is only written to when something crosses from one node to another and a frame costs nothing for everything standing still.
+ * This is the layer of the grid above the walls and stations - the node an entity is on takes its type, unless it is a wall or station,
+ * and goes back to whatever is under it when the last entity on it leaves, e.g. a chef walking over dropped food hands the node back to the food.
+ * Each node has a few slots for the entities on it in one flat array, so finding them is a single lookup. If a node ever runs out,
+ * every node gets twice as many slots. Every move onto a new node is passed on to the grid's SpatialHash.
+ * Only to be used from the render thread, which is also where node types are changed.
+ */
+public class OccupancyIndex {
+
+    //The slot or node of nothing
+    private static final int NONE = -1;
+    //Two chefs and some food is the most a node usually holds
+    private static final int NODE_CAPACITY = 4;
+
+    private final Node[][] grid;
+    private final GridStore store;
+    private final SpatialHash spatialHash;
+    //The slots of the entities on each node, the last to move onto it last
+    private int[] nodeSlots;
+    private final byte[] nodeCounts;
+    private int nodeCapacity;
+    private IGridEntity[] slotEntities;
+    private NodeType[] slotTypes;
+    private int[] slotNodes;
+    private final Map<IGridEntity, Integer> slotLookup;
+    private int[] freeSlots;
+    private int freeSlotCount;
+    private int nextSlot;
+
+    /**
+     * Instantiates a new Occupancy index with nothing on the grid.
+     *
+     * @param grid the grid
+     */
+    OccupancyIndex(Node[][] grid){
+        this.grid = grid;
+        store = GridStore.of(grid);
+        spatialHash = store.getSpatialHash();
+        nodeCapacity = NODE_CAPACITY;
+        nodeSlots = new int[grid.length * grid[0].length * nodeCapacity];
+        nodeCounts = new byte[grid.length * grid[0].length];
+        slotEntities = new IGridEntity[8];
+        slotTypes = new NodeType[8];
+        slotNodes = new int[8];
+        slotLookup = new IdentityHashMap<>();
+        freeSlots = new int[8];
+        freeSlotCount = 0;
+        nextSlot = 0;
+    }
+
+    /**
+     * Gets the occupancy index of a grid, creating it the first time it is asked for.
+     *
+     * @param grid the grid
+     * @return the occupancy index
+     */
+    public static OccupancyIndex of(Node[][] grid){
+        return GridStore.of(grid).getOccupancyIndex();
+    }
+
+    /**
+     * Puts an entity on a node, or moves it there if it is already on the grid.
+     *
+     * @param gridEntity the entity
+     * @param nodeType   the type its node takes, e.g. CHEF
+     * @param gridX      the grid x
+     * @param gridY      the grid y
+     */
+    public void place(IGridEntity gridEntity, NodeType nodeType, int gridX, int gridY){
+        Integer slot = slotLookup.get(gridEntity);
+        if(slot == null){
+            slot = obtainSlot();
+            slotEntities[slot] = gridEntity;
+            slotNodes[slot] = NONE;
+            slotLookup.put(gridEntity, slot);
+        }
+        slotTypes[slot] = nodeType;
+        moveSlot(slot, gridX, gridY);
+    }
+
+    /**
+     * Tells the index an entity has moved, which only changes the grid if it is now on a different node.
+     * Entities that haven't been placed are ignored.
+     *
+     * @param gridEntity the entity
+     * @param gridX      the grid x it is now on
+     * @param gridY      the grid y it is now on
+     */
+    public void moveTo(IGridEntity gridEntity, int gridX, int gridY){
+        Integer slot = slotLookup.get(gridEntity);
+        if(slot == null) return;
+        moveSlot(slot, gridX, gridY);
+    }
+
+    /**
+     * Takes an entity off the grid, e.g. a food that has been picked up.
+     *
+     * @param gridEntity the entity
+     * @return whether the entity was on the grid
+     */
+    public boolean remove(IGridEntity gridEntity){
+        Integer slot = slotLookup.remove(gridEntity);
+        if(slot == null) return false;
+        leaveNode(slot);
+        spatialHash.remove(gridEntity);
+        slotEntities[slot] = null;
+        slotTypes[slot] = null;
+        if(freeSlotCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        freeSlots[freeSlotCount++] = slot;
+        return true;
+    }
+
+    /**
+     * Gets the entity that most recently moved onto a node.
+     *
+     * @param gridX the grid x
+     * @param gridY the grid y
+     * @return the entity, or null if there is nothing on the node
+     */
+    public IGridEntity getEntity(int gridX, int gridY){
+        return getOccupant(store.toIndex(gridX, gridY));
+    }
+
+    /**
+     * Adds every entity on a node to a list, the most recent to move onto it first.
+     *
+     * @param gridX      the grid x
+     * @param gridY      the grid y
+     * @param gridEntities the list to add them to
+     * @return the number of entities added
+     */
+    public int getEntities(int gridX, int gridY, List<IGridEntity> gridEntities){
+        int node = store.toIndex(gridX, gridY);
+        for(int i = nodeCounts[node] - 1; i >= 0; i--){
+            gridEntities.add(slotEntities[nodeSlots[node * nodeCapacity + i]]);
+        }
+        return nodeCounts[node];
+    }
+
+    /**
+     * Gets the number of entities on the grid.
+     *
+     * @return the entity count
+     */
+    public int getEntityCount(){
+        return slotLookup.size();
+    }
+
+    //The entity that shows on a node if there is no wall or station, for the GridStore
+    IGridEntity getOccupant(int node){
+        int slot = getTopSlot(node);
+        return slot == NONE ? null : slotEntities[slot];
+    }
+
+    NodeType getOccupantType(int node){
+        int slot = getTopSlot(node);
+        return slot == NONE ? null : slotTypes[slot];
+    }
+
+    private int getTopSlot(int node){
+        int count = nodeCounts[node];
+        return count == 0 ? NONE : nodeSlots[node * nodeCapacity + count - 1];
+    }
+
+    private void moveSlot(int slot, int gridX, int gridY){
+        boolean onGrid = gridX >= 0 && gridX < store.getWidth() && gridY >= 0 && gridY < store.getHeight();
+        int node = onGrid ? store.toIndex(gridX, gridY) : NONE;
+        if(node == slotNodes[slot]) return;
+        leaveNode(slot);
+        spatialHash.put(slotEntities[slot], gridX, gridY);
+        if(node == NONE) return;
+        if(nodeCounts[node] == nodeCapacity) growNodes();
+        slotNodes[slot] = node;
+        nodeSlots[node * nodeCapacity + nodeCounts[node]++] = slot;
+        applyNode(node);
+        slotEntities[slot].setCurrentGridPosition(new Vector2(gridX, gridY));
+    }
+
+    //Unlinks an entity from the node it is on and hands the node to whatever is left on it
+    private void leaveNode(int slot){
+        int node = slotNodes[slot];
+        if(node == NONE) return;
+        int first = node * nodeCapacity;
+        int last = first + nodeCounts[node] - 1;
+        int i = first;
+        while(nodeSlots[i] != slot) i++;
+        System.arraycopy(nodeSlots, i + 1, nodeSlots, i, last - i);
+        nodeCounts[node]--;
+        slotNodes[slot] = NONE;
+        applyNode(node);
+    }
+
+    //Gives a node the type of the last entity to move onto it, or hands it back to the static layer.
+    //Walls and stations are never covered up, anything on one only shows once it is gone
+    private void applyNode(int node){
+        NodeType staticType = store.getStaticType(node);
+        if((GridStore.getFlags(staticType) & GridStore.STATIC_OBSTACLE) != 0) return;
+        Node gridNode = grid[node / store.getHeight()][node % store.getHeight()];
+        int slot = getTopSlot(node);
+        if(slot == NONE){
+            gridNode.setGridEntity(null);
+            gridNode.setInteractable(null);
+            gridNode.setNodeType(staticType);
+            return;
+        }
+        gridNode.setNodeType(slotTypes[slot]);
+        gridNode.setGridEntity(slotEntities[slot]);
+        gridNode.setInteractable(gridNode.isInteractable() ? (IInteractable) slotEntities[slot] : null);
+    }
+
+    private int obtainSlot(){
+        if(freeSlotCount > 0) return freeSlots[--freeSlotCount];
+        if(nextSlot == slotEntities.length){
+            slotEntities = Arrays.copyOf(slotEntities, slotEntities.length * 2);
+            slotTypes = Arrays.copyOf(slotTypes, slotTypes.length * 2);
+            slotNodes = Arrays.copyOf(slotNodes, slotNodes.length * 2);
+        }
+        return nextSlot++;
+    }
+
+    private void growNodes(){
+        int[] grown = new int[nodeSlots.length * 2];
+        for(int node = 0; node < nodeCounts.length; node++){
+            System.arraycopy(nodeSlots, node * nodeCapacity, grown, node * nodeCapacity * 2, nodeCounts[node]);
+        }
+        nodeSlots = grown;
+        nodeCapacity *= 2;
+    }
+}
@@ -3,27 +3,48 @@ package com.mygdx.game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.math.Vector2;
 import com.mygdx.game.enums.Facing;
-import com.mygdx.game.threads.PathfindingRunnable;
+import com.mygdx.game.enums.PathfinderType;
+import com.mygdx.game.interfaces.IGridEntity;
+import com.mygdx.game.pathfinding.CooperativePathfinder;
+import com.mygdx.game.pathfinding.DStarLitePlanner;
+import com.mygdx.game.pathfinding.DistanceField;
+import com.mygdx.game.pathfinding.DistanceFieldCache;
+import com.mygdx.game.pathfinding.NavigationGrid;
+import com.mygdx.game.pathfinding.Path;
+import com.mygdx.game.pathfinding.PathSmoother;
+import com.mygdx.game.pathfinding.ReservationTable;
+import com.mygdx.game.threads.PathfindingService;
+import com.mygdx.game.threads.PathfindingTicket;
+import com.mygdx.game.utils.MapGeometry;
 import com.mygdx.game.utils.PathfindingUtils;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * The type Pathfinding actor.
  */
 public class PathfindingActor {
 
-    private List<Vector2> worldPath;
+    //The path being followed, refilled in place for every new path
+    private final Path path;
     private int pathfindingCounter;
     private Facing facing;
+    private PathfindingTicket pendingPath;
+    private IGridEntity owner;
+    private PathfinderType pathfinderType;
+    private DStarLitePlanner replanner;
+    //The path the replanner writes into, only kept if it finds one
+    private Path repairedPath;
+    //The grid's change log sequence the path was last checked against, so it is only checked again once something has changed
+    private long checkedSequence;
+    private DistanceField cooperativeField;
+    private boolean pathReady;
+    private int replanCounter;
+    private float waitTime;
     /**
      * The Start.
      */
@@ -54,18 +75,28 @@ public class PathfindingActor {
         this.end = end;
         this.grid = grid;
         this.tiledMap = tiledMap;
-        worldPath = new ArrayList<>();
+        path = Path.obtain();
         pathfindingCounter = 0;
         facing = Facing.UP;
+        pendingPath = null;
+        owner = null;
+        pathfinderType = null;
+        replanner = null;
+        repairedPath = null;
+        checkedSequence = -1;
+        cooperativeField = null;
+        pathReady = false;
+        replanCounter = Integer.MAX_VALUE;
+        waitTime = 0;
     }
 
     /**
-     * Get world path list.
+     * Gets the path being followed, its waypoints are the points steered towards in world co-ordinates.
      *
-     * @return the list
+     * @return the path
      */
-    public List<Vector2> getWorldPath(){
-        return worldPath;
+    public Path getPath(){
+        return path;
     }
 
     /**
@@ -93,9 +124,9 @@ public class PathfindingActor {
      * @param direction        the direction
      * @param movementTextures the movement textures
      */
-    public void setFacing(Sprite sprite, Facing direction, Texture[] movementTextures){
+    public void setFacing(Sprite sprite, Facing direction, TextureRegion[] movementTextures){
         facing = direction;
-        sprite.setTexture(movementTextures[facing.ordinal()]);
+        sprite.setRegion(movementTextures[facing.ordinal()]);
         //sprite.setRotation(90f * facing.ordinal());
     }
 
@@ -109,23 +140,272 @@ public class PathfindingActor {
     }
 
     /**
-     * Create thread and pathfind list.
+     * Get start node.
+     *
+     * @return the start
+     */
+    public Node getStart(){
+        return start;
+    }
+
+    /**
+     * Get end node.
+     *
+     * @return the end
+     */
+    public Node getEnd(){
+        return end;
+    }
+
+    /**
+     * Sets the pathfinder used for this actor's requests, e.g. BIDIRECTIONAL for an actor that mostly walks long routes across the map.
+     *
+     * @param pathfinderType the pathfinder type, or null for the one set for the grid
+     */
+    public void setPathfinderType(PathfinderType pathfinderType){
+        this.pathfinderType = pathfinderType;
+    }
+
+    /**
+     * Gets the pathfinder used for this actor's requests.
+     *
+     * @return the pathfinder type, or null if the one set for the grid is used
+     */
+    public PathfinderType getPathfinderType(){
+        return pathfinderType;
+    }
+
+    /**
+     * Sets owner.
+     *
+     * @param owner the entity following the path, its own node never counts as blocking the path
+     */
+    public void setOwner(IGridEntity owner){
+        this.owner = owner;
+    }
+
+    /**
+     * Request path.
+     * Queues a search from start to end on the PathfindingService, any request still pending is cancelled.
+     * The result is picked up by updatePath() on a later frame.
+     * If the grid is cooperative the path is planned straight away with the cooperative pathfinder instead,
+     * as it has to be planned in turn with everyone else's, but it is still picked up by updatePath().
+     */
+    public void requestPath(){
+        cancelPath();
+        //If the start or end is invalid, there is nothing to search for
+        if(start == null || end == null) return;
+        if(NavigationGrid.of(grid).isCooperative()) requestCooperativePath();
+        else pendingPath = PathfindingService.submit(start, end, grid, pathfinderType);
+    }
+
+    //Plans along the distance field to the goal, building the field first if no one has asked for it before
+    private void requestCooperativePath(){
+        Node goal = PathfindingUtils.resolveEnd(start, end, grid);
+        if(goal == null){
+            path.clear();
+            applyPath();
+        }
+        else{
+            DistanceFieldCache distanceFields = NavigationGrid.of(grid).getDistanceFields();
+            cooperativeField = distanceFields.getField(goal);
+            planCooperatively(start);
+        }
+        pathReady = true;
+    }
+
+    private void planCooperatively(Node from){
+        CooperativePathfinder cooperativePathfinder = NavigationGrid.of(grid).getCooperativePathfinder();
+        start = from;
+        cooperativePathfinder.findPath(this, from, cooperativeField, path);
+        //Plans again half way through the window, so there are always reserved steps ahead
+        int window = cooperativePathfinder.getWindow();
+        replanCounter = path.getCellCount() > window ? window / 2 : Integer.MAX_VALUE;
+        waitTime = 0;
+        applyPath();
+    }
+
+    //Follows the new cells of the path from its first node, steering only towards its waypoints if the grid smooths paths.
+    //Searches write straight into the actor's own path, so nothing is allocated however often the path changes
+    private void applyPath(){
+        checkedSequence = -1;
+        path.clearWaypoints();
+        findWaypoints();
+        MapGeometry mapGeometry = MapGeometry.of(tiledMap);
+        for(int i = 0; i < path.getWaypointCount(); i++){
+            int cell = path.getWaypoint(i);
+            path.setWorldPosition(i, mapGeometry.toWorldX(path.getCellX(cell)), mapGeometry.toWorldY(path.getCellY(cell)));
+        }
+        pathfindingCounter = 0;
+    }
+
+    private void findWaypoints(){
+        if(!NavigationGrid.of(grid).isPathSmoothing()){
+            for(int i = 0; i < path.getCellCount(); i++){
+                path.addWaypoint(i);
+            }
+        }
+        else if(cooperativeField == null) PathSmoother.smooth(start.getGridX(), start.getGridY(), path, GridStore.of(grid));
+        else{
+            //Cutting corners would walk over nodes that weren't reserved, but a straight run takes the same time in one go or step by step.
+            //The node it plans again from is kept so the next plan starts on time
+            int replanIndex = replanCounter > path.getCellCount() ? -1 : replanCounter - 1;
+            PathSmoother.compress(start.getGridX(), start.getGridY(), path, replanIndex);
+        }
+    }
+
+    /**
+     * Sets field path.
+     * Follows the path down a distance field from the start node instead of searching for one, written straight into the actor's own path.
+     * Any request still pending is cancelled.
+     *
+     * @param field the distance field to the end node
+     */
+    public void setFieldPath(DistanceField field){
+        cancelPath();
+        path.clear();
+        field.getPath(start, path);
+        applyPath();
+    }
+
+    /**
+     * Update path.
+     * Polls the pending request, should be called once per frame.
+     *
+     * @return true on the frame the finished path is applied to the world path
+     */
+    public boolean updatePath(){
+        repairPath();
+        if(pathReady){
+            pathReady = false;
+            return true;
+        }
+        replanCooperatively();
+        if(pendingPath == null || !pendingPath.isDone()) return false;
+        //Only a few paths are applied per frame so that a burst of requests doesn't land on the same frame
+        if(!PathfindingService.tryClaimCompletion()) return false;
+        //Copies the path from the ticket into the one being followed
+        pendingPath.getPath(path);
+        applyPath();
+        pendingPath = null;
+        return true;
+    }
+
+    /**
+     * Is path pending boolean.
      *
-     * @return the list
+     * @return whether a requested path has not been applied yet
+     */
+    public boolean isPathPending(){
+        return pendingPath != null || pathReady;
+    }
+
+    /**
+     * Cancels the pending request, if there is one, and gives up any nodes reserved by the cooperative pathfinder
+     * and the planner used to repair the path.
+     */
+    public void cancelPath(){
+        pathReady = false;
+        releasePlanner();
+        if(cooperativeField != null){
+            NavigationGrid.of(grid).getReservationTable().release(this);
+            cooperativeField = null;
+            replanCounter = Integer.MAX_VALUE;
+        }
+        if(pendingPath == null) return;
+        pendingPath.cancel();
+        pendingPath = null;
+    }
+
+    /**
+     * Clear path.
+     * Cancels the pending request and stops following the current path.
+     */
+    public void clearPath(){
+        cancelPath();
+        path.clear();
+    }
+
+    /**
+     * Dispose.
+     * Cancels the pending request and hands the path back to the pool, the actor must not be used again.
      */
-    public List<Vector2> createThreadAndPathfind(){
-        //If the start or end is invalid, return an empty list
-        if(start == null || end == null) return Collections.emptyList();
+    public void dispose(){
+        cancelPath();
+        Path.free(path);
+        if(repairedPath != null) Path.free(repairedPath);
+    }
 
-        //Set up thread to do pathfinding
-        PathfindingRunnable pathfindingObj = new PathfindingRunnable(start, end, grid);
-        Thread pathfindingThread = new Thread(pathfindingObj);
-        pathfindingThread.start();
-        //Stalls the main thread until the pathfinding is complete
-        while (pathfindingThread.isAlive()){}
-        //Gets the path from the thread in grid co-ordinates
-        worldPath = PathfindingUtils.convertGridPathToWorld(pathfindingObj.getGridPath(), tiledMap);
-        return worldPath;
+    //Plans the next window from the node just reached, before the reserved steps run out
+    private void replanCooperatively(){
+        if(cooperativeField == null || getGridCounter() < replanCounter || pathfindingCounter >= path.getWaypointCount()) return;
+        planCooperatively(getLastReachedNode());
+    }
+
+    //Replans around a customer that has stepped onto the rest of the path, using the D* Lite planner so only the change is searched.
+    //The goal itself being taken is left alone, whoever is on it is usually only passing through.
+    //Cooperative paths already plan around everyone, so they are left alone too
+    private void repairPath(){
+        if(cooperativeField != null || pendingPath != null) return;
+        //Once the path has been walked there is nothing left to repair, so the planner can go to someone else
+        if(pathfindingCounter >= path.getWaypointCount()){
+            releasePlanner();
+            return;
+        }
+        //Nothing has become or stopped being collidable since the last check, so the path is as clear as it was
+        long sequence = NavigationGrid.of(grid).getChangeLog().getSequence();
+        if(sequence == checkedSequence) return;
+        checkedSequence = sequence;
+        if(replanner != null) replanner.applyChanges();
+        int lastCell = path.getCellCount() - 1;
+        if(!isPathBlocked(getGridCounter(), lastCell)) return;
+
+        //Carry on from the waypoint being walked to, or go back to the last one reached if the way there is blocked
+        int next = path.getWaypoint(pathfindingCounter);
+        Node from = isPathBlocked(getGridCounter(), next + 1) ? getLastReachedNode() : toNode(next);
+        Node goal = toNode(lastCell);
+        if(replanner == null) replanner = NavigationGrid.of(grid).obtainPlanner(owner);
+        if(repairedPath == null) repairedPath = Path.obtain();
+        //The repaired path starts by stepping back onto the node it is planned from
+        repairedPath.clear();
+        repairedPath.addCell(from.getGridX(), from.getGridY());
+        //Boxed in, so keep walking the old path as before
+        if(!replanner.plan(from, goal, repairedPath)) return;
+
+        start = from;
+        path.setCells(repairedPath);
+        applyPath();
+    }
+
+    //The planner is kept while the path it repaired is followed, so the next repair only searches what has changed
+    private void releasePlanner(){
+        if(replanner == null) return;
+        NavigationGrid.of(grid).freePlanner(replanner);
+        replanner = null;
+    }
+
+    private boolean isPathBlocked(int from, int to){
+        for(int i = from; i < to; i++){
+            if(isBlocked(toNode(i))) return true;
+        }
+        return false;
+    }
+
+    private boolean isBlocked(Node node){
+        return node.isCollidable() && (owner == null || node.getGridEntity() != owner);
+    }
+
+    private Node getLastReachedNode(){
+        return pathfindingCounter == 0 ? start : toNode(path.getWaypoint(pathfindingCounter - 1));
+    }
+
+    //The index of the first grid path node after the last waypoint reached
+    private int getGridCounter(){
+        return pathfindingCounter == 0 ? 0 : path.getWaypoint(pathfindingCounter - 1) + 1;
+    }
+
+    private Node toNode(int cell){
+        return grid[path.getCellX(cell)][path.getCellY(cell)];
     }
 
     /**
@@ -136,37 +416,63 @@ public class PathfindingActor {
      * @param movementTextures the movement textures
      */
 //Makes the sprite follow the path
-    public void followPath(Sprite sprite, float speed, Texture[] movementTextures){
+    public void followPath(Sprite sprite, float speed, TextureRegion[] movementTextures){
 
-        if(pathfindingCounter >= worldPath.size()) return;
+        if(pathfindingCounter >= path.getWaypointCount()) return;
         int pointBuffer = 2;
+        float deltaTime = Gdx.graphics.getDeltaTime();
+        if(isWaitStep()){
+            //Stands still for as long as one step takes, while someone else goes past
+            waitTime += deltaTime;
+            if(waitTime < ReservationTable.STEP_TIME) return;
+            waitTime = 0;
+            pathfindingCounter++;
+            return;
+        }
 
-        //The direction from point a to point b = atan(bY-aY,bX-aX)
-        float angle = (float) Math.atan2(worldPath.get(pathfindingCounter).y - sprite.getY(), worldPath.get(pathfindingCounter).x - sprite.getX());
-        Vector2 movementDir = new Vector2((float)Math.cos(angle) * speed, (float)Math.sin(angle) * speed);
-        setPathfinderFacing(movementDir, sprite, movementTextures);
-        sprite.setPosition(sprite.getX() + movementDir.x * Gdx.graphics.getDeltaTime(), sprite.getY() + movementDir.y * Gdx.graphics.getDeltaTime());
+        //Steps straight towards the waypoint, never past it
+        float waypointX = path.getWorldX(pathfindingCounter);
+        float waypointY = path.getWorldY(pathfindingCounter);
+        float distanceX = waypointX - sprite.getX();
+        float distanceY = waypointY - sprite.getY();
+        float distance = (float)Math.sqrt(distanceX * distanceX + distanceY * distanceY);
+        if(distance > 0){
+            float step = Math.min(speed * deltaTime, distance) / distance;
+            setPathfinderFacing(distanceX, distanceY, sprite, movementTextures);
+            sprite.setPosition(sprite.getX() + distanceX * step, sprite.getY() + distanceY * step);
+            if(owner != null){
+                MapGeometry mapGeometry = MapGeometry.of(tiledMap);
+                OccupancyIndex.of(grid).moveTo(owner, mapGeometry.toGridX(sprite.getX()), mapGeometry.toGridY(sprite.getY()));
+            }
+        }
 
-        if(Math.abs(worldPath.get(pathfindingCounter).x - sprite.getX()) <= pointBuffer && Math.abs(worldPath.get(pathfindingCounter).y - sprite.getY()) <= pointBuffer){
+        if(Math.abs(waypointX - sprite.getX()) <= pointBuffer && Math.abs(waypointY - sprite.getY()) <= pointBuffer){
             pathfindingCounter++;
         }
     }
 
+    //Cooperative paths stay on a node for a step by repeating it
+    private boolean isWaitStep(){
+        if(cooperativeField == null) return false;
+        return getLastReachedNode() == toNode(path.getWaypoint(pathfindingCounter));
+    }
+
     /**
      * This function controls the direction the sprite is facing during its pathfinding
-     * @param movementDir
+     * @param movementX
+     * @param movementY
      * @param sprite
      * @param movementTextures
      */
 
-    private void setPathfinderFacing(Vector2 movementDir, Sprite sprite, Texture[] movementTextures){
+    private void setPathfinderFacing(float movementX, float movementY, Sprite sprite, TextureRegion[] movementTextures){
         //check which movement direction is the largest and face that way
-        if(Math.abs(movementDir.x) > Math.abs(movementDir.y)){
-            if(movementDir.x > 0) setFacing(sprite, Facing.RIGHT, movementTextures);
+        if(Math.abs(movementX) > Math.abs(movementY)){
+            if(movementX > 0) setFacing(sprite, Facing.RIGHT, movementTextures);
             else setFacing(sprite, Facing.LEFT, movementTextures);
         }
         else{
-            if(movementDir.y > 0) setFacing(sprite, Facing.UP, movementTextures);
+            if(movementY > 0) setFacing(sprite, Facing.UP, movementTextures);
             else setFacing(sprite, Facing.DOWN, movementTextures);
         }
     }
@@ -179,20 +485,20 @@ public class PathfindingActor {
      */
 
     public void drawPath(Camera camera, Sprite sprite){
-        if(worldPath.isEmpty()) return;
+        if(path.isEmpty()) return;
         ShapeRenderer shapeRenderer = new ShapeRenderer();
         shapeRenderer.setProjectionMatrix(camera.combined);
         shapeRenderer.setColor(Color.RED);
         shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
 
-        for(int i = pathfindingCounter; i < worldPath.size() - 1; i++){
+        for(int i = pathfindingCounter; i < path.getWaypointCount() - 1; i++){
 
             if(i == 0){
                 shapeRenderer.line(modifyVectorForDrawing(sprite.getX(),sprite.getY()),
-                        modifyVectorForDrawing(worldPath.get(0)));
+                        modifyVectorForDrawing(path.getWorldX(0), path.getWorldY(0)));
             }
-            shapeRenderer.line(modifyVectorForDrawing(worldPath.get(i)),
-                    modifyVectorForDrawing(worldPath.get(i + 1)));
+            shapeRenderer.line(modifyVectorForDrawing(path.getWorldX(i), path.getWorldY(i)),
+                    modifyVectorForDrawing(path.getWorldX(i + 1), path.getWorldY(i + 1)));
         }
         shapeRenderer.end();
         shapeRenderer.dispose();
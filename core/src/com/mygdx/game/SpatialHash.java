@@ -0,0 +1,204 @@
+package com.mygdx.game;
+
+import com.mygdx.game.interfaces.IGridEntity;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every entity on a grid - chefs, customers, food and stations - sorted into square buckets of nodes, so finding what is near a node
+ * only looks through the buckets around it rather than every entity in the game.
+ * Each bucket keeps its entities in a list threaded through flat arrays, so moving an entity from one bucket to another is a few writes.
+ * Chefs, customers and food are kept up to date by the OccupancyIndex as they move, and stations add themselves when they are placed.
+ * Only to be used from the render thread.
+ */
+public class SpatialHash {
+
+    /**
+     * The width and height of a bucket in nodes.
+     */
+    public static final int BUCKET_SIZE = 4;
+    //The slot or bucket of nothing
+    private static final int NONE = -1;
+
+    private final int width;
+    private final int height;
+    private final int bucketsHigh;
+    private final int[] bucketHeads;
+    private IGridEntity[] slotEntities;
+    private int[] slotXs;
+    private int[] slotYs;
+    private int[] slotBuckets;
+    private int[] nextSlots;
+    private int[] previousSlots;
+    private final Map<IGridEntity, Integer> slotLookup;
+    private int[] freeSlots;
+    private int freeSlotCount;
+    private int nextSlot;
+
+    /**
+     * Instantiates a new Spatial hash with nothing in it.
+     *
+     * @param width  the width of the grid
+     * @param height the height of the grid
+     */
+    public SpatialHash(int width, int height){
+        this.width = width;
+        this.height = height;
+        int bucketsWide = (width + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        bucketsHigh = (height + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        bucketHeads = new int[bucketsWide * bucketsHigh];
+        Arrays.fill(bucketHeads, NONE);
+        slotEntities = new IGridEntity[16];
+        slotXs = new int[16];
+        slotYs = new int[16];
+        slotBuckets = new int[16];
+        nextSlots = new int[16];
+        previousSlots = new int[16];
+        slotLookup = new IdentityHashMap<>();
+        freeSlots = new int[16];
+        freeSlotCount = 0;
+        nextSlot = 0;
+    }
+
+    /**
+     * Gets the spatial hash of a grid, creating it the first time it is asked for.
+     *
+     * @param grid the grid
+     * @return the spatial hash
+     */
+    public static SpatialHash of(Node[][] grid){
+        return GridStore.of(grid).getSpatialHash();
+    }
+
+    /**
+     * Adds an entity on a node, or moves it there if it is already in the hash. Entities off the grid are kept but never found.
+     *
+     * @param gridEntity the entity
+     * @param gridX      the grid x
+     * @param gridY      the grid y
+     */
+    public void put(IGridEntity gridEntity, int gridX, int gridY){
+        Integer slot = slotLookup.get(gridEntity);
+        if(slot == null){
+            slot = obtainSlot();
+            slotEntities[slot] = gridEntity;
+            slotBuckets[slot] = NONE;
+            slotLookup.put(gridEntity, slot);
+        }
+        slotXs[slot] = gridX;
+        slotYs[slot] = gridY;
+        boolean onGrid = gridX >= 0 && gridX < width && gridY >= 0 && gridY < height;
+        int bucket = onGrid ? (gridX / BUCKET_SIZE) * bucketsHigh + gridY / BUCKET_SIZE : NONE;
+        if(bucket == slotBuckets[slot]) return;
+        unlink(slot);
+        if(bucket == NONE) return;
+        slotBuckets[slot] = bucket;
+        previousSlots[slot] = NONE;
+        nextSlots[slot] = bucketHeads[bucket];
+        if(bucketHeads[bucket] != NONE) previousSlots[bucketHeads[bucket]] = slot;
+        bucketHeads[bucket] = slot;
+    }
+
+    /**
+     * Takes an entity out of the hash.
+     *
+     * @param gridEntity the entity
+     * @return whether the entity was in the hash
+     */
+    public boolean remove(IGridEntity gridEntity){
+        Integer slot = slotLookup.remove(gridEntity);
+        if(slot == null) return false;
+        unlink(slot);
+        slotEntities[slot] = null;
+        if(freeSlotCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        freeSlots[freeSlotCount++] = slot;
+        return true;
+    }
+
+    /**
+     * Adds every entity on a node inside a rectangle to a list, in no particular order.
+     *
+     * @param minX         the lowest grid x
+     * @param minY         the lowest grid y
+     * @param maxX         the highest grid x
+     * @param maxY         the highest grid y
+     * @param gridEntities the list to add them to
+     * @return the number of entities added
+     */
+    public int findInRectangle(int minX, int minY, int maxX, int maxY, List<IGridEntity> gridEntities){
+        return find(minX, minY, maxX, maxY, 0, 0, -1, gridEntities);
+    }
+
+    /**
+     * Adds every entity within a distance of a node to a list, in no particular order. Distances are measured between node centres.
+     *
+     * @param gridX        the grid x
+     * @param gridY        the grid y
+     * @param radius       the distance in nodes
+     * @param gridEntities the list to add them to
+     * @return the number of entities added
+     */
+    public int findInRadius(int gridX, int gridY, float radius, List<IGridEntity> gridEntities){
+        int reach = (int) radius;
+        if(radius < 0) return 0;
+        return find(gridX - reach, gridY - reach, gridX + reach, gridY + reach, gridX, gridY, radius * radius, gridEntities);
+    }
+
+    /**
+     * Gets the number of entities in the hash, including any off the grid.
+     *
+     * @return the entity count
+     */
+    public int getEntityCount(){
+        return slotLookup.size();
+    }
+
+    //Looks through the buckets over the rectangle, and if there is a radius only keeps the entities within it of the centre
+    private int find(int minX, int minY, int maxX, int maxY, int centreX, int centreY, float radiusSquared, List<IGridEntity> gridEntities){
+        minX = Math.max(minX, 0);
+        minY = Math.max(minY, 0);
+        maxX = Math.min(maxX, width - 1);
+        maxY = Math.min(maxY, height - 1);
+        if(minX > maxX || minY > maxY) return 0;
+        int count = 0;
+        for(int bucketX = minX / BUCKET_SIZE; bucketX <= maxX / BUCKET_SIZE; bucketX++){
+            for(int bucketY = minY / BUCKET_SIZE; bucketY <= maxY / BUCKET_SIZE; bucketY++){
+                for(int slot = bucketHeads[bucketX * bucketsHigh + bucketY]; slot != NONE; slot = nextSlots[slot]){
+                    int x = slotXs[slot];
+                    int y = slotYs[slot];
+                    if(x < minX || x > maxX || y < minY || y > maxY) continue;
+                    if(radiusSquared >= 0 && (x - centreX) * (x - centreX) + (y - centreY) * (y - centreY) > radiusSquared) continue;
+                    gridEntities.add(slotEntities[slot]);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void unlink(int slot){
+        int bucket = slotBuckets[slot];
+        if(bucket == NONE) return;
+        if(previousSlots[slot] == NONE) bucketHeads[bucket] = nextSlots[slot];
+        else nextSlots[previousSlots[slot]] = nextSlots[slot];
+        if(nextSlots[slot] != NONE) previousSlots[nextSlots[slot]] = previousSlots[slot];
+        slotBuckets[slot] = NONE;
+    }
+
+    private int obtainSlot(){
+        if(freeSlotCount > 0) return freeSlots[--freeSlotCount];
+        if(nextSlot == slotEntities.length){
+            int length = slotEntities.length * 2;
+            slotEntities = Arrays.copyOf(slotEntities, length);
+            slotXs = Arrays.copyOf(slotXs, length);
+            slotYs = Arrays.copyOf(slotYs, length);
+            slotBuckets = Arrays.copyOf(slotBuckets, length);
+            nextSlots = Arrays.copyOf(nextSlots, length);
+            previousSlots = Arrays.copyOf(previousSlots, length);
+        }
+        return nextSlot++;
+    }
+}
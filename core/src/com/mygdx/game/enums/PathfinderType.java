@@ -0,0 +1,45 @@
+package com.mygdx.game.enums;
+
+import com.mygdx.game.interfaces.IPathfinder;
+import com.mygdx.game.pathfinding.AStarPathfinder;
+import com.mygdx.game.pathfinding.BidirectionalAStarPathfinder;
+import com.mygdx.game.pathfinding.HierarchicalPathfinder;
+import com.mygdx.game.pathfinding.JumpPointPathfinder;
+
+/**
+ * The enum Pathfinder type - the search algorithms that can be used to pathfind on a grid.
+ * A map picks one with its "pathfinder" property, e.g. value="JUMP_POINT".
+ */
+public enum PathfinderType {
+    /**
+     * A* pathfinder - expands every node it reaches, works on any grid.
+     */
+    A_STAR(new AStarPathfinder()),
+    /**
+     * Jump Point Search pathfinder - skips along straight lines of open nodes, for grids where every move costs the same.
+     */
+    JUMP_POINT(new JumpPointPathfinder()),
+    /**
+     * Hierarchical pathfinder - routes through the entrances between clusters of the grid first, for large maps with several rooms.
+     */
+    HIERARCHICAL(new HierarchicalPathfinder()),
+    /**
+     * Bidirectional A* pathfinder - searches from both ends at once until the two meet, for long routes across a large map.
+     */
+    BIDIRECTIONAL(new BidirectionalAStarPathfinder());
+
+    private final IPathfinder pathfinder;
+
+    PathfinderType(IPathfinder pathfinder){
+        this.pathfinder = pathfinder;
+    }
+
+    /**
+     * Gets the pathfinder, which is shared by every search.
+     *
+     * @return the pathfinder
+     */
+    public IPathfinder getPathfinder(){
+        return pathfinder;
+    }
+}
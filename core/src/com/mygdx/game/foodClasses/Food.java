@@ -1,6 +1,5 @@
 package com.mygdx.game.foodClasses;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
@@ -9,12 +8,13 @@ import com.mygdx.game.Chef;
 import com.mygdx.game.Match;
 import com.mygdx.game.screens.GameScreen;
 import com.mygdx.game.Node;
+import com.mygdx.game.OccupancyIndex;
 import com.mygdx.game.enums.NodeType;
 import com.mygdx.game.interfaces.IGridEntity;
 import com.mygdx.game.interfaces.IInteractable;
+import com.mygdx.game.utils.MapGeometry;
 import com.mygdx.game.utils.PathfindingUtils;
 import com.mygdx.game.utils.SoundUtils;
-import com.mygdx.game.utils.TileMapUtils;
 
 /**
  * The type Food.
@@ -25,18 +25,18 @@ public class Food implements IInteractable, IGridEntity {
     private Sprite foodSprite; //The sprite of the food
     private boolean isFormable; //Whether the food can be used in the FormingStation
     private int reward; //The monetary reward for making the food
-    private Vector2 gridPosition; //Used to keep track of the gridPosition of the food for the updateGridEntities() method in PiazzaPanic
+    private Vector2 gridPosition; //The node the food was last placed on, kept up to date by the OccupancyIndex
 
     /**
      * Instantiates a new Food.
      *
      * @param name        the name of the food, e.g. Pizza
-     * @param foodTexture the Texture of the food
+     * @param foodTexture the texture region of the food
      * @param isFormable  Whether the food can be used in a forming station
      * @param reward      the monetary reward the player gets for serving a customer the food.
      *                    If the food has a monetary reward, it is automatically added to the list of foodItems that the customers can used
      */
-    public Food(String name, Texture foodTexture, boolean isFormable, int reward){
+    public Food(String name, TextureRegion foodTexture, boolean isFormable, int reward){
         this.setName(name);
         foodSprite = new Sprite(foodTexture);
         this.setFormable(isFormable);
@@ -55,8 +55,7 @@ public class Food implements IInteractable, IGridEntity {
      */
     public Food(Food foodSettings){
         setName(foodSettings.getName());
-        TextureRegion textureRegion = new TextureRegion(foodSettings.foodSprite.getTexture(), 0,0,64,64);
-        foodSprite = new Sprite(textureRegion.getTexture());
+        foodSprite = new Sprite((TextureRegion) foodSettings.foodSprite);
         foodSprite.setSize(64,64);
         foodSprite.setScale(0.75f);
         setFormable(foodSettings.isFormable());
@@ -85,13 +84,16 @@ public class Food implements IInteractable, IGridEntity {
         SoundUtils.getItemPickupSound().play();
         GameScreen.getRenderedFoods().remove(this);
         chef.getFoodStack().push(this);
-        interactedNode.setGridEntity(null);
-        interactedNode.setInteractable(null);
-        interactedNode.setNodeType(NodeType.EMPTY);
+        //Food that was never placed through the occupancy index is cleared off its node by hand
+        if(!OccupancyIndex.of(grid).remove(this)){
+            interactedNode.setGridEntity(null);
+            interactedNode.setInteractable(null);
+            interactedNode.setNodeType(NodeType.EMPTY);
+        }
         System.out.println("Interacting with Food");
     }
 
-    //Two helper functions for the updateGridEntities() method in PiazzaPanic
+    //Two helper functions for the OccupancyIndex
     @Override
     public Vector2 getPreviousGridPosition() {
         return gridPosition;
@@ -113,9 +115,8 @@ public class Food implements IInteractable, IGridEntity {
 //Places the foodItems down on the grid
     public void setTileMapPosition(int mapPosX, int mapPosY, Node[][] grid, TiledMap tiledMap)    {
         if(!PathfindingUtils.isValidNode(mapPosX, mapPosY, grid)) return;
-        grid[mapPosX][mapPosY].setNodeType(NodeType.FOOD);
-        grid[mapPosX][mapPosY].setGridEntity(this);
-        foodSprite.setPosition(TileMapUtils.coordToPosition(mapPosX, tiledMap), TileMapUtils.coordToPosition(mapPosY, tiledMap));
+        OccupancyIndex.of(grid).place(this, NodeType.FOOD, mapPosX, mapPosY);
+        foodSprite.setPosition(MapGeometry.of(tiledMap).toWorldX(mapPosX), MapGeometry.of(tiledMap).toWorldY(mapPosY));
     }
 
     /**
@@ -0,0 +1,17 @@
+package com.mygdx.game.interfaces;
+
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+
+/**
+ * The interface Grid listener - told whenever a node on the grid changes type, so anything cached about the grid can be kept up to date.
+ */
+public interface IGridListener {
+    /**
+     * Called after a node's type has changed.
+     *
+     * @param node    the node that changed, its type is already the new one
+     * @param oldType the type the node had before
+     */
+    void onNodeTypeChanged(Node node, NodeType oldType);
+}
@@ -0,0 +1,25 @@
+package com.mygdx.game.interfaces;
+
+import com.mygdx.game.Node;
+import com.mygdx.game.pathfinding.Path;
+import com.mygdx.game.pathfinding.SearchContext;
+
+/**
+ * The interface Pathfinder - a search algorithm that can be used by PathfindingUtils.findPath().
+ * Implementations keep no state of their own, everything a search needs is kept in the SearchContext it is given,
+ * so a single instance can be shared between every thread.
+ */
+public interface IPathfinder {
+    /**
+     * Finds the shortest path between two nodes.
+     * PathfindingUtils has already resolved interactable end nodes, so the end is never collidable and never the start.
+     * The path is written straight into the one given, so a search allocates nothing for its result.
+     *
+     * @param start   the start node
+     * @param end     the end node
+     * @param grid    the grid to pathfind on
+     * @param context the search context to keep the search state in
+     * @param path    the path to write the cells into, not including the start node, left empty if there is no path
+     */
+    void findPath(Node start, Node end, Node[][] grid, SearchContext context, Path path);
+}
@@ -0,0 +1,17 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.Node;
+import com.mygdx.game.interfaces.IPathfinder;
+
+/**
+ * The A* pathfinder - expands nodes one neighbour at a time in order of their estimated total cost.
+ * The search itself is an IncrementalAStarSearch run without a limit, so a time-sliced search always finds the same path.
+ */
+public class AStarPathfinder implements IPathfinder {
+
+    @Override
+    public void findPath(Node start, Node end, Node[][] grid, SearchContext context, Path path){
+        IncrementalAStarSearch search = new IncrementalAStarSearch(start, end, grid, context, path);
+        search.step(Integer.MAX_VALUE);
+    }
+}
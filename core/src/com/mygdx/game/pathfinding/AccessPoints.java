@@ -0,0 +1,157 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.Facing;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.interfaces.IGridListener;
+
+/**
+ * The nodes every station on a grid can be used from - the free nodes on each of its four sides - and which side is its front.
+ * A station with something collidable on one side is used from the opposite side, e.g. a station against a wall is walked up to from the front
+ * and a serving station with a customer at it is served from the other side. A station with nothing in the way can be used from any free side.
+ * It is kept up to date as walls, stations and customers come and go, so a request never has to look around the station again.
+ * Searches run on the pathfinding threads, so every method is synchronized.
+ */
+public class AccessPoints implements IGridListener {
+
+    /**
+     * The side above a station.
+     */
+    public static final int ABOVE = 0;
+    /**
+     * The side below a station.
+     */
+    public static final int BELOW = 1;
+    /**
+     * The side to the left of a station.
+     */
+    public static final int LEFT = 2;
+    /**
+     * The side to the right of a station.
+     */
+    public static final int RIGHT = 3;
+    /**
+     * The front of a station that can be used from any free side.
+     */
+    public static final int NO_SIDE = -1;
+
+    //Each side is next to its opposite, so side ^ 1 is the opposite side
+    private static final int[] SIDE_X_MOD = {0,0,-1,1};
+    private static final int[] SIDE_Y_MOD = {1,-1,0,0};
+    //The way to face from each side to look at the station
+    private static final Facing[] SIDE_FACINGS = {Facing.DOWN, Facing.UP, Facing.RIGHT, Facing.LEFT};
+
+    private final Node[][] grid;
+    private final GridStore store;
+    private final int width;
+    private final int height;
+    //A bit for each free side of every station
+    private final byte[] freeSides;
+    private final byte[] frontSides;
+    private boolean indexed;
+
+    /**
+     * Instantiates new Access points. Nothing is worked out until the first time it is asked about.
+     *
+     * @param grid the grid
+     */
+    public AccessPoints(Node[][] grid){
+        this.grid = grid;
+        store = GridStore.of(grid);
+        width = grid.length;
+        height = grid[0].length;
+        freeSides = new byte[width * height];
+        frontSides = new byte[width * height];
+        indexed = false;
+    }
+
+    /**
+     * Gets the free sides of a station.
+     *
+     * @param station the station node
+     * @return a bit (1 << side) for each side with a node on the grid that isn't collidable, 0 if the node isn't a station
+     */
+    public synchronized int getFreeSides(Node station){
+        checkIndexed();
+        return freeSides[store.toIndex(station.getGridX(), station.getGridY())];
+    }
+
+    /**
+     * Gets the front of a station, the side opposite the first collidable side found looking above, below, left and then right.
+     * The front isn't always free, e.g. a station boxed in on both sides can't be used.
+     *
+     * @param station the station node
+     * @return the front side, or NO_SIDE if every side is free or the node isn't a station
+     */
+    public synchronized int getFrontSide(Node station){
+        checkIndexed();
+        return frontSides[store.toIndex(station.getGridX(), station.getGridY())];
+    }
+
+    /**
+     * Gets the node on one side of a station.
+     *
+     * @param station the station node
+     * @param side    the side
+     * @return the node, or null if it is off the grid
+     */
+    public Node getAccessNode(Node station, int side){
+        int x = station.getGridX() + SIDE_X_MOD[side];
+        int y = station.getGridY() + SIDE_Y_MOD[side];
+        if(!isOnGrid(x, y)) return null;
+        return grid[x][y];
+    }
+
+    /**
+     * Gets the way to face from one side of a station to use it.
+     *
+     * @param side the side
+     * @return the facing
+     */
+    public static Facing getFacing(int side){
+        return SIDE_FACINGS[side];
+    }
+
+    @Override
+    public synchronized void onNodeTypeChanged(Node node, NodeType oldType) {
+        if(!indexed) return;
+        boolean stationChanged = oldType == NodeType.STATION || node.getNodeType() == NodeType.STATION;
+        if(!stationChanged && Node.isCollidable(oldType) == node.isCollidable()) return;
+        update(node.getGridX(), node.getGridY());
+        for(int side = 0; side < SIDE_X_MOD.length; side++){
+            update(node.getGridX() + SIDE_X_MOD[side], node.getGridY() + SIDE_Y_MOD[side]);
+        }
+    }
+
+    private void checkIndexed(){
+        if(indexed) return;
+        for(int x = 0; x < width; x++){
+            for(int y = 0; y < height; y++){
+                update(x, y);
+            }
+        }
+        indexed = true;
+    }
+
+    //Works out the sides of a node again, if it is a station
+    private void update(int x, int y){
+        if(!isOnGrid(x, y)) return;
+        int index = store.toIndex(x, y);
+        freeSides[index] = 0;
+        frontSides[index] = NO_SIDE;
+        if(store.getNodeType(index) != NodeType.STATION) return;
+        for(int side = 0; side < SIDE_X_MOD.length; side++){
+            boolean free = store.isWalkable(x + SIDE_X_MOD[side], y + SIDE_Y_MOD[side]);
+            if(free) freeSides[index] |= 1 << side;
+            //The front has to be on the grid, or the next side is tried
+            int front = side ^ 1;
+            boolean frontOnGrid = isOnGrid(x + SIDE_X_MOD[front], y + SIDE_Y_MOD[front]);
+            if(!free && frontOnGrid && frontSides[index] == NO_SIDE) frontSides[index] = (byte) front;
+        }
+    }
+
+    private boolean isOnGrid(int x, int y){
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+}
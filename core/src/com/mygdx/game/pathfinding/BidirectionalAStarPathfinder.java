@@ -0,0 +1,96 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.interfaces.IPathfinder;
+
+/**
+ * The bidirectional A* pathfinder - runs one A* search forwards from the start and another backwards from the end, until their frontiers meet.
+ * Each turn goes to whichever side has the smaller open list, and ties are broken towards the target. Every node reached by both sides is a possible meeting point,
+ * and the search stops once nothing left on either open list could lead to a shorter path than the best meeting point so far.
+ * Nodes already expanded by the other side aren't expanded again, and nodes estimated to be no better than the best path aren't queued.
+ * On long routes across a large map the two frontiers cover far less of it than one search fanning out across the whole way.
+ */
+public class BidirectionalAStarPathfinder implements IPathfinder {
+
+    //The offsets of the four neighbours of a node
+    private static final int[] NEIGHBOUR_X_MOD = {1,-1,0,0};
+    private static final int[] NEIGHBOUR_Y_MOD = {0,0,1,-1};
+    //Breaks ties between equal estimates in favour of the node nearer its target, so each side heads straight for the other
+    //instead of filling in every node with the same estimate. Small enough that it never outweighs a whole step on grids up to 4096 wide
+    private static final double TIE_BREAK = 1.0 / 8192;
+
+    @Override
+    public void findPath(Node start, Node end, Node[][] grid, SearchContext context, Path path){
+        path.clear();
+        //The backwards search keeps its state in a second context that belongs to the first
+        SearchContext forward = context;
+        SearchContext backward = context.getReverseContext();
+        forward.beginSearch(grid.length, grid[0].length);
+        backward.beginSearch(grid.length, grid[0].length);
+        GridStore store = GridStore.of(grid);
+        int startIndex = forward.toIndex(start.getGridX(), start.getGridY());
+        int endIndex = forward.toIndex(end.getGridX(), end.getGridY());
+
+        forward.setCost(startIndex, 0, -1);
+        forward.getOpenList().add(startIndex, calculateKey(0, start.getGridX(), start.getGridY(), end));
+        backward.setCost(endIndex, 0, -1);
+        backward.getOpenList().add(endIndex, calculateKey(0, end.getGridX(), end.getGridY(), start));
+
+        float bestCost = Float.POSITIVE_INFINITY;
+        int meetingIndex = -1;
+        while(!forward.getOpenList().isEmpty() && !backward.getOpenList().isEmpty()){
+            //Every path still to be found is at least as long as the smallest estimate on either side
+            if(Math.max(forward.getOpenList().peekKey(), backward.getOpenList().peekKey()) >= bestCost) break;
+            boolean isForward = forward.getOpenList().size() <= backward.getOpenList().size();
+            SearchContext expanding = isForward ? forward : backward;
+            SearchContext other = isForward ? backward : forward;
+            Node target = isForward ? end : start;
+
+            int currentIndex = expanding.getOpenList().poll();
+            expanding.setClosed(currentIndex);
+            //Everything past a node the other side has already expanded has been found from that side
+            if(other.isClosed(currentIndex)) continue;
+            int currentX = expanding.toX(currentIndex);
+            int currentY = expanding.toY(currentIndex);
+            float g = 1 + expanding.getCost(currentIndex);
+            for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+                int neighbourX = currentX + NEIGHBOUR_X_MOD[i];
+                int neighbourY = currentY + NEIGHBOUR_Y_MOD[i];
+                if(neighbourX < 0 || neighbourX >= store.getWidth() || neighbourY < 0 || neighbourY >= store.getHeight()) continue;
+                int neighbourIndex = expanding.toIndex(neighbourX, neighbourY);
+                if(expanding.isClosed(neighbourIndex)) continue;
+                //The start can be collidable, as it's the node of whoever is asking, but it can still be walked back to
+                if(store.isCollidable(neighbourIndex) && neighbourIndex != startIndex && neighbourIndex != endIndex) continue;
+                if(expanding.getCost(neighbourIndex) <= g) continue;
+                expanding.setCost(neighbourIndex, g, currentIndex);
+                //Nodes that can't lead to a shorter path than the best so far are never added to the open list
+                double key = calculateKey(g, neighbourX, neighbourY, target);
+                if(key < bestCost) expanding.getOpenList().add(neighbourIndex, key);
+                //Check if the other side has reached this node too
+                float throughCost = g + other.getCost(neighbourIndex);
+                if(throughCost < bestCost){
+                    bestCost = throughCost;
+                    meetingIndex = neighbourIndex;
+                }
+            }
+        }
+        //Path not found
+        if(meetingIndex == -1) return;
+        joinPaths(forward, backward, meetingIndex, path);
+    }
+
+    //Joins the path from the start to the meeting node with the path the backwards search found from there to the end
+    private static void joinPaths(SearchContext forward, SearchContext backward, int meetingIndex, Path path){
+        forward.backTrackPath(meetingIndex, path);
+        for(int current = backward.getParent(meetingIndex); current != -1; current = backward.getParent(current)){
+            path.addCell(backward.toX(current), backward.toY(current));
+        }
+    }
+
+    //The estimated total cost, with the tie break added on
+    private static double calculateKey(float g, int gridX, int gridY, Node target){
+        float h = (float)Math.abs(target.getGridX() - gridX) + (float)Math.abs(target.getGridY() - gridY);
+        return g + h + h * TIE_BREAK;
+    }
+}
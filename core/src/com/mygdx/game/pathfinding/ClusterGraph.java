@@ -0,0 +1,365 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.interfaces.IGridListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The abstract graph used by the HierarchicalPathfinder.
+ * The grid is split into square clusters. Wherever two clusters touch, each run of open nodes along the border gets one or two entrances,
+ * and the distances between the entrances of a cluster are worked out with a search that stays inside it.
+ * Like the distance fields, only walls and stations are part of it. When one changes, the clusters it touches are marked dirty
+ * and only those are worked out again, the next time a route is asked for.
+ * Routes are searched for on the pathfinding threads. Any number of them can search at once, each with its own SearchContext for scratch space,
+ * while marking clusters dirty and working them out again takes the graph to itself.
+ */
+public class ClusterGraph implements IGridListener {
+
+    /**
+     * The width and height of a cluster, in nodes.
+     */
+    public static final int DEFAULT_CLUSTER_SIZE = 8;
+    //Runs of open border nodes at least this long get an entrance at each end rather than one in the middle
+    private static final int LONG_ENTRANCE_LENGTH = 6;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final int[] NEIGHBOUR_X_MOD = {1,-1,0,0};
+    private static final int[] NEIGHBOUR_Y_MOD = {0,0,1,-1};
+
+    private final Node[][] grid;
+    private final GridStore store;
+    private final int width;
+    private final int height;
+    private final int clusterSize;
+    private final int clustersY;
+    private final Cluster[] clusters;
+    //The position of each node in its cluster's entrances, or -1 if it isn't one
+    private final int[] entranceSlot;
+    private int dirtyClusterCount;
+    //Read while searching for a route, written while clusters are marked dirty or worked out again
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    //One cluster and the entrances along its borders
+    private static class Cluster {
+        int minX;
+        int minY;
+        int maxX;
+        int maxY;
+        int[] entrances = new int[0];
+        //The nodes in the neighbouring clusters each entrance leads to
+        int[][] partners = new int[0][];
+        //The distances between each pair of entrances, inside the cluster
+        int[][] distances = new int[0][];
+        boolean dirty = true;
+    }
+
+    /**
+     * Instantiates a new Cluster graph. Nothing is worked out until the first route is asked for.
+     *
+     * @param grid        the grid
+     * @param clusterSize the width and height of a cluster, in nodes
+     */
+    public ClusterGraph(Node[][] grid, int clusterSize){
+        this.grid = grid;
+        store = GridStore.of(grid);
+        this.clusterSize = clusterSize;
+        width = grid.length;
+        height = grid[0].length;
+        int clustersX = (width + clusterSize - 1) / clusterSize;
+        clustersY = (height + clusterSize - 1) / clusterSize;
+        clusters = new Cluster[clustersX * clustersY];
+        for(int cx = 0; cx < clustersX; cx++){
+            for(int cy = 0; cy < clustersY; cy++){
+                Cluster cluster = new Cluster();
+                cluster.minX = cx * clusterSize;
+                cluster.minY = cy * clusterSize;
+                cluster.maxX = Math.min(width, cluster.minX + clusterSize) - 1;
+                cluster.maxY = Math.min(height, cluster.minY + clusterSize) - 1;
+                clusters[cx * clustersY + cy] = cluster;
+            }
+        }
+        entranceSlot = new int[width * height];
+        Arrays.fill(entranceSlot, -1);
+        dirtyClusterCount = clusters.length;
+    }
+
+    /**
+     * Gets cluster size.
+     *
+     * @return the width and height of a cluster, in nodes
+     */
+    public int getClusterSize(){
+        return clusterSize;
+    }
+
+    /**
+     * Gets the number of clusters that need working out again before the next route.
+     *
+     * @return the number of dirty clusters
+     */
+    public int getDirtyClusterCount(){
+        lock.readLock().lock();
+        try{
+            return dirtyClusterCount;
+        }
+        finally{
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the route between two nodes through the entrances of the clusters between them.
+     *
+     * @param start   the start node
+     * @param end     the end node
+     * @param context the search context to keep the search state in
+     * @return the nodes of the route as grid indexes, from the start to the end, or null if there isn't one
+     */
+    public int[] findRoute(Node start, Node end, SearchContext context){
+        lock.readLock().lock();
+        //Working out dirty clusters needs the graph to itself, then it is handed back for reading without letting go of it
+        if(dirtyClusterCount > 0){
+            lock.readLock().unlock();
+            lock.writeLock().lock();
+            try{
+                refresh(context);
+                lock.readLock().lock();
+            }
+            finally{
+                lock.writeLock().unlock();
+            }
+        }
+        try{
+            return searchRoute(start, end, context);
+        }
+        finally{
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] searchRoute(Node start, Node end, SearchContext context){
+        int[] clusterDistances = context.getClusterDistances(clusterSize * clusterSize);
+        int startIndex = toIndex(start.getGridX(), start.getGridY());
+        int endIndex = toIndex(end.getGridX(), end.getGridY());
+        Cluster startCluster = clusterOf(startIndex);
+        Cluster endCluster = clusterOf(endIndex);
+
+        //The start and end are joined to the entrances of their clusters, and to each other if they share one
+        searchCluster(startCluster, startIndex, context);
+        int[] startDistances = entranceDistances(startCluster, clusterDistances);
+        int directDistance = startCluster == endCluster ? clusterDistances[toClusterIndex(startCluster, endIndex)] : UNREACHABLE;
+        searchCluster(endCluster, endIndex, context);
+        int[] endDistances = entranceDistances(endCluster, clusterDistances);
+
+        context.beginSearch(width, height);
+        IndexedMinHeap openList = context.getOpenList();
+        context.setCost(startIndex, 0, -1);
+        openList.add(startIndex, calculateHeuristic(startIndex, endIndex));
+        while(!openList.isEmpty()){
+            int current = openList.poll();
+            if(current == endIndex) return backTrackRoute(endIndex, context);
+            context.setClosed(current);
+            if(current == startIndex){
+                for(int i = 0; i < startCluster.entrances.length; i++){
+                    relax(current, startCluster.entrances[i], startDistances[i], endIndex, context);
+                }
+                relax(current, endIndex, directDistance, endIndex, context);
+            }
+            int slot = entranceSlot[current];
+            if(slot == -1) continue;
+            Cluster cluster = clusterOf(current);
+            for(int i = 0; i < cluster.entrances.length; i++){
+                relax(current, cluster.entrances[i], cluster.distances[slot][i], endIndex, context);
+            }
+            for(int partner : cluster.partners[slot]){
+                relax(current, partner, 1, endIndex, context);
+            }
+            if(cluster == endCluster) relax(current, endIndex, endDistances[slot], endIndex, context);
+        }
+        return null;
+    }
+
+    //Works out every dirty cluster again, only while holding the write lock
+    private void refresh(SearchContext context){
+        for(Cluster cluster : clusters){
+            if(cluster.dirty) rebuildCluster(cluster, context);
+        }
+        dirtyClusterCount = 0;
+    }
+
+    @Override
+    public void onNodeTypeChanged(Node node, NodeType oldType) {
+        if(DistanceField.isStaticObstacle(oldType) == DistanceField.isStaticObstacle(node.getNodeType())) return;
+        lock.writeLock().lock();
+        try{
+            //A node on a border also changes the entrances of the cluster on the other side
+            for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+                int x = node.getGridX() + NEIGHBOUR_X_MOD[i];
+                int y = node.getGridY() + NEIGHBOUR_Y_MOD[i];
+                if(x < 0 || x >= width || y < 0 || y >= height) continue;
+                markDirty(clusterOf(toIndex(x, y)));
+            }
+            markDirty(clusterOf(toIndex(node.getGridX(), node.getGridY())));
+        }
+        finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markDirty(Cluster cluster){
+        if(cluster.dirty) return;
+        cluster.dirty = true;
+        dirtyClusterCount++;
+    }
+
+    private void rebuildCluster(Cluster cluster, SearchContext context){
+        for(int entrance : cluster.entrances){
+            entranceSlot[entrance] = -1;
+        }
+        //Each entrance and the nodes across the border it leads to, corners can lead two ways
+        Map<Integer, List<Integer>> entrances = new LinkedHashMap<>();
+        int clusterWidth = cluster.maxX - cluster.minX + 1;
+        int clusterHeight = cluster.maxY - cluster.minY + 1;
+        scanBorder(cluster.minX, cluster.minY, 1, 0, clusterWidth, 0, -1, entrances);
+        scanBorder(cluster.minX, cluster.maxY, 1, 0, clusterWidth, 0, 1, entrances);
+        scanBorder(cluster.minX, cluster.minY, 0, 1, clusterHeight, -1, 0, entrances);
+        scanBorder(cluster.maxX, cluster.minY, 0, 1, clusterHeight, 1, 0, entrances);
+
+        int count = entrances.size();
+        cluster.entrances = new int[count];
+        cluster.partners = new int[count][];
+        cluster.distances = new int[count][count];
+        int slot = 0;
+        for(Map.Entry<Integer, List<Integer>> entry : entrances.entrySet()){
+            cluster.entrances[slot] = entry.getKey();
+            cluster.partners[slot] = new int[entry.getValue().size()];
+            for(int i = 0; i < cluster.partners[slot].length; i++){
+                cluster.partners[slot][i] = entry.getValue().get(i);
+            }
+            entranceSlot[entry.getKey()] = slot;
+            slot++;
+        }
+        int[] clusterDistances = context.getClusterDistances(clusterSize * clusterSize);
+        for(int i = 0; i < count; i++){
+            searchCluster(cluster, cluster.entrances[i], context);
+            cluster.distances[i] = entranceDistances(cluster, clusterDistances);
+        }
+        cluster.dirty = false;
+    }
+
+    //Walks along one border of a cluster and adds an entrance for each run of nodes that are open on both sides.
+    //The cluster on the other side walks the same pairs of nodes in the same order, so both agree on where the entrances are
+    private void scanBorder(int x, int y, int stepX, int stepY, int length, int outX, int outY, Map<Integer, List<Integer>> entrances){
+        int runStart = -1;
+        for(int i = 0; i <= length; i++){
+            boolean open = i < length && isOpen(x + i * stepX, y + i * stepY) && isOpen(x + i * stepX + outX, y + i * stepY + outY);
+            if(open && runStart == -1) runStart = i;
+            if(open || runStart == -1) continue;
+            int runEnd = i - 1;
+            if(runEnd - runStart + 1 >= LONG_ENTRANCE_LENGTH){
+                addEntrance(x + runStart * stepX, y + runStart * stepY, outX, outY, entrances);
+                addEntrance(x + runEnd * stepX, y + runEnd * stepY, outX, outY, entrances);
+            }
+            else{
+                int middle = (runStart + runEnd) / 2;
+                addEntrance(x + middle * stepX, y + middle * stepY, outX, outY, entrances);
+            }
+            runStart = -1;
+        }
+    }
+
+    private void addEntrance(int x, int y, int outX, int outY, Map<Integer, List<Integer>> entrances){
+        int index = toIndex(x, y);
+        List<Integer> partners = entrances.get(index);
+        if(partners == null){
+            partners = new ArrayList<>();
+            entrances.put(index, partners);
+        }
+        partners.add(toIndex(x + outX, y + outY));
+    }
+
+    //Breadth first search from a node that stays inside its cluster, leaving the distances in the context's cluster distances
+    private void searchCluster(Cluster cluster, int fromIndex, SearchContext context){
+        int[] clusterQueue = context.getClusterQueue(clusterSize * clusterSize);
+        int[] clusterDistances = context.getClusterDistances(clusterSize * clusterSize);
+        Arrays.fill(clusterDistances, 0, clusterSize * clusterSize, UNREACHABLE);
+        int clusterHeight = cluster.maxY - cluster.minY + 1;
+        clusterDistances[toClusterIndex(cluster, fromIndex)] = 0;
+        clusterQueue[0] = fromIndex;
+        int head = 0;
+        int tail = 1;
+        while(head < tail){
+            int current = clusterQueue[head++];
+            int distance = clusterDistances[toClusterIndex(cluster, current)] + 1;
+            int currentX = current / height;
+            int currentY = current % height;
+            for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+                int x = currentX + NEIGHBOUR_X_MOD[i];
+                int y = currentY + NEIGHBOUR_Y_MOD[i];
+                if(x < cluster.minX || x > cluster.maxX || y < cluster.minY || y > cluster.maxY || !isOpen(x, y)) continue;
+                int clusterIndex = (x - cluster.minX) * clusterHeight + (y - cluster.minY);
+                if(clusterDistances[clusterIndex] != UNREACHABLE) continue;
+                clusterDistances[clusterIndex] = distance;
+                clusterQueue[tail++] = toIndex(x, y);
+            }
+        }
+    }
+
+    private int[] entranceDistances(Cluster cluster, int[] clusterDistances){
+        int[] distances = new int[cluster.entrances.length];
+        for(int i = 0; i < distances.length; i++){
+            distances[i] = clusterDistances[toClusterIndex(cluster, cluster.entrances[i])];
+        }
+        return distances;
+    }
+
+    private void relax(int current, int next, int distance, int endIndex, SearchContext context){
+        if(distance == UNREACHABLE || context.isClosed(next)) return;
+        float g = context.getCost(current) + distance;
+        if(context.getCost(next) <= g) return;
+        context.setCost(next, g, current);
+        context.getOpenList().add(next, g + calculateHeuristic(next, endIndex));
+    }
+
+    private int[] backTrackRoute(int endIndex, SearchContext context){
+        int length = 0;
+        for(int current = endIndex; current != -1; current = context.getParent(current)){
+            length++;
+        }
+        int[] route = new int[length];
+        int current = endIndex;
+        for(int i = length - 1; i >= 0; i--){
+            route[i] = current;
+            current = context.getParent(current);
+        }
+        return route;
+    }
+
+    private float calculateHeuristic(int index, int endIndex){
+        return Math.abs(index / height - endIndex / height) + Math.abs(index % height - endIndex % height);
+    }
+
+    private boolean isOpen(int x, int y){
+        return x >= 0 && x < width && y >= 0 && y < height && !store.isStaticObstacle(x * height + y);
+    }
+
+    private Cluster clusterOf(int index){
+        return clusters[(index / height / clusterSize) * clustersY + (index % height / clusterSize)];
+    }
+
+    private int toClusterIndex(Cluster cluster, int index){
+        return (index / height - cluster.minX) * (cluster.maxY - cluster.minY + 1) + (index % height - cluster.minY);
+    }
+
+    private int toIndex(int x, int y){
+        return x * height + y;
+    }
+}
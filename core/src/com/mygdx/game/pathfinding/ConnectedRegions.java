@@ -0,0 +1,281 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.interfaces.IGridListener;
+
+import java.util.Arrays;
+
+/**
+ * Labels every walkable node of a grid with the region it belongs to, two nodes being in the same region if one can be walked to from the other.
+ * A search between two regions can't succeed, so it can be turned down before it explores the whole of the start's region.
+ * Nodes joining a region are merged straight away, with a union-find over the region labels. A node leaving can split its region,
+ * but only if its walkable neighbours aren't joined up around it, so most changes - e.g. a customer stepping across an open floor - cost nothing.
+ * When one might have split, its region is marked dirty and only that region is labelled again, the next time it is asked about.
+ * Walls, stations and customers all block, the same as for the searches. Searches run on the pathfinding threads, so every method is synchronized.
+ */
+public class ConnectedRegions implements IGridListener {
+
+    /**
+     * The region of a node that can't be walked through.
+     */
+    public static final int NO_REGION = -1;
+
+    private static final int[] NEIGHBOUR_X_MOD = {1,-1,0,0};
+    private static final int[] NEIGHBOUR_Y_MOD = {0,0,1,-1};
+    //The nodes around a node in order, each next to the one before, starting above it and going clockwise
+    private static final int[] RING_X_MOD = {0,1,1,1,0,-1,-1,-1};
+    private static final int[] RING_Y_MOD = {1,1,0,-1,-1,-1,0,1};
+
+    private final GridStore store;
+    private final int width;
+    private final int height;
+    //The label of each node, or NO_REGION if it is collidable. Labels that have been merged point at each other through parents
+    private final int[] labels;
+    private int[] parents;
+    private boolean[] dirty;
+    private int nextLabel;
+    //Nodes next to ones that became collidable, each region a dirty region splits into has at least one of them
+    private int[] seeds;
+    private int seedCount;
+    private final int[] queue;
+    private boolean labelled;
+    private int relabelCount;
+
+    /**
+     * Instantiates new Connected regions. Nothing is labelled until the first time it is asked about.
+     *
+     * @param grid the grid
+     */
+    public ConnectedRegions(Node[][] grid){
+        store = GridStore.of(grid);
+        width = grid.length;
+        height = grid[0].length;
+        labels = new int[width * height];
+        parents = new int[64];
+        dirty = new boolean[64];
+        nextLabel = 0;
+        seeds = new int[16];
+        seedCount = 0;
+        queue = new int[width * height];
+        labelled = false;
+        relabelCount = 0;
+    }
+
+    /**
+     * Is reachable boolean.
+     * The start may be collidable, e.g. a customer pathing from where they stand, in which case it can leave through any walkable neighbour.
+     *
+     * @param start the start node
+     * @param end   the end node
+     * @return whether the end can be walked to from the start
+     */
+    public synchronized boolean isReachable(Node start, Node end){
+        if(start == end) return true;
+        checkLabelled();
+        int endRegion = getRegion(end.getGridX(), end.getGridY());
+        if(endRegion == NO_REGION) return false;
+        int startRegion = getRegion(start.getGridX(), start.getGridY());
+        if(startRegion != NO_REGION) return startRegion == endRegion;
+        for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+            int x = start.getGridX() + NEIGHBOUR_X_MOD[i];
+            int y = start.getGridY() + NEIGHBOUR_Y_MOD[i];
+            if(store.isWalkable(x, y) && getRegion(x, y) == endRegion) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Is reachable boolean.
+     *
+     * @param start the start node
+     * @param ends  the end nodes
+     * @return whether any of the end nodes can be walked to from the start
+     */
+    public synchronized boolean isReachable(Node start, Node[] ends){
+        for(Node end : ends){
+            if(isReachable(start, end)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the region of a node. Region numbers are only comparable until the next change to the grid.
+     *
+     * @param node the node
+     * @return the region, or NO_REGION if the node is collidable
+     */
+    public synchronized int getRegion(Node node){
+        checkLabelled();
+        return getRegion(node.getGridX(), node.getGridY());
+    }
+
+    /**
+     * Gets the number of times a dirty region has been labelled again, or the whole grid labelled.
+     *
+     * @return the relabel count
+     */
+    public synchronized int getRelabelCount(){
+        return relabelCount;
+    }
+
+    @Override
+    public synchronized void onNodeTypeChanged(Node node, NodeType oldType) {
+        if(!labelled || Node.isCollidable(oldType) == node.isCollidable()) return;
+        int x = node.getGridX();
+        int y = node.getGridY();
+        if(node.isCollidable()) removeNode(x, y);
+        else addNode(x, y);
+        //If nothing has asked in a long time the seeds would keep growing, so the whole grid is labelled again instead
+        if(seedCount > labels.length) labelled = false;
+    }
+
+    //Labels are only ever added, so every so often they are all handed out again from 0
+    private void checkLabelled(){
+        if(!labelled || nextLabel > 2 * labels.length) labelAll();
+    }
+
+    //Labelling a dirty region again leaves the labels of every other region as they were
+    private int getRegion(int x, int y){
+        int index = store.toIndex(x, y);
+        if(labels[index] == NO_REGION) return NO_REGION;
+        int region = find(labels[index]);
+        if(dirty[region]){
+            relabelDirty();
+            region = find(labels[index]);
+        }
+        return region;
+    }
+
+    //A node that became walkable joins every region next to it together
+    private void addNode(int x, int y){
+        int index = store.toIndex(x, y);
+        int region = NO_REGION;
+        for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+            int neighbourX = x + NEIGHBOUR_X_MOD[i];
+            int neighbourY = y + NEIGHBOUR_Y_MOD[i];
+            if(!store.isWalkable(neighbourX, neighbourY)) continue;
+            int neighbourRegion = find(labels[store.toIndex(neighbourX, neighbourY)]);
+            if(region == NO_REGION) region = neighbourRegion;
+            else if(neighbourRegion != region){
+                //A region made from a dirty one might still be split, so it stays dirty
+                parents[neighbourRegion] = region;
+                dirty[region] |= dirty[neighbourRegion];
+            }
+        }
+        labels[index] = region == NO_REGION ? newLabel() : region;
+    }
+
+    //A node that became collidable might split its region, which is only checked when it is next asked about
+    private void removeNode(int x, int y){
+        int index = store.toIndex(x, y);
+        //Already left out if the grid was labelled between the node changing and being told about it
+        if(labels[index] == NO_REGION) return;
+        int region = find(labels[index]);
+        labels[index] = NO_REGION;
+        if(!dirty[region] && isJoinedAround(x, y)) return;
+        dirty[region] = true;
+        for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+            int neighbourX = x + NEIGHBOUR_X_MOD[i];
+            int neighbourY = y + NEIGHBOUR_Y_MOD[i];
+            if(store.isWalkable(neighbourX, neighbourY)) addSeed(store.toIndex(neighbourX, neighbourY));
+        }
+    }
+
+    //Whether the walkable neighbours of a node are all joined by walkable nodes in the ring around it, so taking the node away can't split them
+    private boolean isJoinedAround(int x, int y){
+        int firstBlocked = -1;
+        for(int i = 0; i < RING_X_MOD.length; i++){
+            if(!store.isWalkable(x + RING_X_MOD[i], y + RING_Y_MOD[i])){
+                firstBlocked = i;
+                break;
+            }
+        }
+        if(firstBlocked == -1) return true;
+        //Counts the runs of walkable ring nodes that hold a neighbour, starting just after a blocked one so no run is cut in two
+        int runs = 0;
+        boolean inRun = false;
+        boolean runHasNeighbour = false;
+        for(int step = 1; step <= RING_X_MOD.length; step++){
+            int i = (firstBlocked + step) % RING_X_MOD.length;
+            if(store.isWalkable(x + RING_X_MOD[i], y + RING_Y_MOD[i])){
+                inRun = true;
+                //The even ring positions are the ones above, beside and below
+                if(i % 2 == 0) runHasNeighbour = true;
+            }
+            else if(inRun){
+                if(runHasNeighbour) runs++;
+                inRun = false;
+                runHasNeighbour = false;
+            }
+        }
+        return runs <= 1;
+    }
+
+    private void labelAll(){
+        Arrays.fill(labels, NO_REGION);
+        nextLabel = 0;
+        seedCount = 0;
+        for(int index = 0; index < labels.length; index++){
+            if(labels[index] == NO_REGION && !store.isCollidable(index)) flood(index, newLabel());
+        }
+        labelled = true;
+        relabelCount++;
+    }
+
+    //Gives every region grown from a seed a new label, which covers every node of every dirty region
+    private void relabelDirty(){
+        for(int i = 0; i < seedCount; i++){
+            int seed = seeds[i];
+            if(labels[seed] == NO_REGION || !dirty[find(labels[seed])]) continue;
+            flood(seed, newLabel());
+        }
+        seedCount = 0;
+        relabelCount++;
+    }
+
+    private void flood(int from, int label){
+        int head = 0;
+        int tail = 0;
+        labels[from] = label;
+        queue[tail++] = from;
+        while(head < tail){
+            int current = queue[head++];
+            int currentX = current / height;
+            int currentY = current % height;
+            for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+                int neighbourX = currentX + NEIGHBOUR_X_MOD[i];
+                int neighbourY = currentY + NEIGHBOUR_Y_MOD[i];
+                if(!store.isWalkable(neighbourX, neighbourY)) continue;
+                int neighbour = store.toIndex(neighbourX, neighbourY);
+                if(labels[neighbour] == label) continue;
+                labels[neighbour] = label;
+                queue[tail++] = neighbour;
+            }
+        }
+    }
+
+    private int newLabel(){
+        if(nextLabel == parents.length){
+            parents = Arrays.copyOf(parents, parents.length * 2);
+            dirty = Arrays.copyOf(dirty, dirty.length * 2);
+        }
+        parents[nextLabel] = nextLabel;
+        dirty[nextLabel] = false;
+        return nextLabel++;
+    }
+
+    private int find(int label){
+        while(parents[label] != label){
+            parents[label] = parents[parents[label]];
+            label = parents[label];
+        }
+        return label;
+    }
+
+    private void addSeed(int index){
+        if(seedCount == seeds.length) seeds = Arrays.copyOf(seeds, seeds.length * 2);
+        seeds[seedCount++] = index;
+    }
+}
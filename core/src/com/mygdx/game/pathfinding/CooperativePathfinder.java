@@ -0,0 +1,223 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.Node;
+
+import java.util.Arrays;
+
+/**
+ * The windowed cooperative A* (WHCA*) pathfinder.
+ * Agents plan one after another through a space-time grid, where each step they can move to a neighbour or wait, and any node and step
+ * another agent has already reserved in the ReservationTable is avoided. Only the first few steps (the window) are planned this way
+ * and reserved, the rest of the path just follows the distance field to the goal, and the agent plans again part way through the window.
+ * The distance field is also the heuristic, so the search goes almost straight to the goal unless another agent is in the way.
+ * The search state lives in arrays kept between plans, sized to the most states a search may hold rather than to the grid,
+ * and the path is written straight into the agent's own Path, so planning allocates nothing once they are big enough.
+ * Not thread safe - only to be used from the render thread.
+ */
+public class CooperativePathfinder {
+
+    /**
+     * The number of steps planned and reserved at a time.
+     */
+    public static final int DEFAULT_WINDOW = 8;
+    //Searches that get this big are given up on, the agent waits a step and tries again
+    private static final int MAX_STATES = 1 << 16;
+
+    //The offsets of the moves an agent can make each step, the first one is waiting
+    private static final int[] MOVE_X_MOD = {0,1,-1,0,0};
+    private static final int[] MOVE_Y_MOD = {0,0,0,1,-1};
+
+    private final Node[][] grid;
+    private final int height;
+    private final ReservationTable reservationTable;
+    private final int window;
+    //The states of the last search, a state being a node at a step of the window.
+    //The slot of each node and step is found by its key, node * (window + 1) + step, in an open addressing table,
+    //where an entry only counts if it was stamped by this search, so the table is never cleared
+    private final int[] stateKeys;
+    private final int[] stateSlots;
+    private final int[] stateStamps;
+    private final int stateMask;
+    private int stateGeneration;
+    private final IndexedMinHeap openList;
+    private int[] stateCells;
+    private int[] stateTimes;
+    private int[] stateCosts;
+    private int[] stateParents;
+    private boolean[] stateClosed;
+    private int stateCount;
+
+    /**
+     * Instantiates a new Cooperative pathfinder.
+     *
+     * @param grid             the grid
+     * @param reservationTable the reservation table shared by every agent on the grid
+     * @param window           the number of steps planned and reserved at a time
+     */
+    public CooperativePathfinder(Node[][] grid, ReservationTable reservationTable, int window){
+        this.grid = grid;
+        this.reservationTable = reservationTable;
+        this.window = window;
+        height = grid[0].length;
+        //There is at most one state for each node and step, and never more than a search is allowed
+        int stateLimit = (int) Math.min((long) grid.length * height * (window + 1), MAX_STATES);
+        //Kept at most half full so probes stay short
+        int capacity = Integer.highestOneBit(stateLimit * 2 - 1) << 1;
+        stateKeys = new int[capacity];
+        stateSlots = new int[capacity];
+        stateStamps = new int[capacity];
+        stateMask = capacity - 1;
+        stateGeneration = 0;
+        openList = new IndexedMinHeap(stateLimit);
+        stateCells = new int[64];
+        stateTimes = new int[64];
+        stateCosts = new int[64];
+        stateParents = new int[64];
+        stateClosed = new boolean[64];
+    }
+
+    /**
+     * Gets window.
+     *
+     * @return the number of steps planned and reserved at a time
+     */
+    public int getWindow(){
+        return window;
+    }
+
+    /**
+     * Plans a path for an agent from the current step and reserves the first window of it.
+     * Whatever the agent had reserved before is released first.
+     *
+     * @param agent the agent, any object that stays the same between its plans
+     * @param start the node the agent is on
+     * @param field the distance field to the goal
+     * @param path  the path to write the cells into, not including the start node, where a node repeated from the one before
+     * (or the start node itself first) is a step spent waiting. Left empty if the goal can't be reached
+     */
+    public void findPath(Object agent, Node start, DistanceField field, Path path){
+        path.clear();
+        reservationTable.release(agent);
+        int startIndex = toIndex(start.getGridX(), start.getGridY());
+        int goalIndex = toIndex(field.getTarget().getGridX(), field.getTarget().getGridY());
+        if(field.getDistance(start.getGridX(), start.getGridY()) == DistanceField.UNREACHABLE) return;
+        int startStep = reservationTable.getCurrentStep();
+        if(startIndex == goalIndex){
+            reservationTable.reserveResting(goalIndex, startStep, agent);
+            path.addCell(start.getGridX(), start.getGridY());
+            return;
+        }
+
+        int last = search(agent, startIndex, goalIndex, startStep, field);
+        //Nowhere to go this step, so wait where we are and try again next time
+        if(last == -1) last = addState(startIndex, 1, 1, 0);
+
+        //The planned steps, backwards from the last one
+        int steps = stateTimes[last];
+        path.setCellCount(steps);
+        reservationTable.reserve(startIndex, startStep, agent);
+        for(int slot = last; stateParents[slot] != -1; slot = stateParents[slot]){
+            int cell = stateCells[slot];
+            path.setCell(stateTimes[slot] - 1, cell / height, cell % height);
+            reservationTable.reserve(cell, startStep + stateTimes[slot], agent);
+        }
+
+        //The rest of the way just follows the field
+        int lastCell = stateCells[last];
+        if(lastCell == goalIndex) reservationTable.reserveResting(goalIndex, startStep + steps, agent);
+        else field.getPath(grid[lastCell / height][lastCell % height], path);
+    }
+
+    //A* through space-time, stopping at the goal or the end of the window. Returns the slot of the last state, or -1
+    private int search(Object agent, int startIndex, int goalIndex, int startStep, DistanceField field){
+        stateGeneration++;
+        openList.clear();
+        stateCount = 0;
+        int startSlot = addState(startIndex, 0, 0, -1);
+        push(startSlot, field);
+        while(!openList.isEmpty()){
+            int slot = openList.poll();
+            stateClosed[slot] = true;
+            int cell = stateCells[slot];
+            int time = stateTimes[slot];
+            if(cell == goalIndex || time == window) return slot;
+
+            int x = cell / height;
+            int y = cell % height;
+            for(int i = 0; i < MOVE_X_MOD.length; i++){
+                int nextX = x + MOVE_X_MOD[i];
+                int nextY = y + MOVE_Y_MOD[i];
+                if(field.getDistance(nextX, nextY) == DistanceField.UNREACHABLE) continue;
+                int next = toIndex(nextX, nextY);
+                int step = startStep + time + 1;
+                if(!reservationTable.isFree(next, step, agent)) continue;
+                if(next != cell && reservationTable.isSwap(cell, next, step - 1, agent)) continue;
+
+                int cost = stateCosts[slot] + 1;
+                int nextSlot = findState(toStateKey(next, time + 1));
+                if(nextSlot == -1){
+                    if(stateCount >= MAX_STATES) return -1;
+                    nextSlot = addState(next, time + 1, cost, slot);
+                }
+                else if(stateClosed[nextSlot] || stateCosts[nextSlot] <= cost) continue;
+                stateCosts[nextSlot] = cost;
+                stateParents[nextSlot] = slot;
+                push(nextSlot, field);
+            }
+        }
+        return -1;
+    }
+
+    //Open list keys are the estimated total cost, then later steps first. A state already in the open list has its key lowered
+    private void push(int slot, DistanceField field){
+        int cell = stateCells[slot];
+        double estimate = stateCosts[slot] + field.getDistance(cell / height, cell % height);
+        openList.add(slot, estimate * (window + 1) + (window - stateTimes[slot]));
+    }
+
+    private int addState(int cell, int time, int cost, int parent){
+        if(stateCount == stateCells.length){
+            int capacity = stateCells.length * 2;
+            stateCells = Arrays.copyOf(stateCells, capacity);
+            stateTimes = Arrays.copyOf(stateTimes, capacity);
+            stateCosts = Arrays.copyOf(stateCosts, capacity);
+            stateParents = Arrays.copyOf(stateParents, capacity);
+            stateClosed = Arrays.copyOf(stateClosed, capacity);
+        }
+        int slot = stateCount++;
+        stateCells[slot] = cell;
+        stateTimes[slot] = time;
+        stateCosts[slot] = cost;
+        stateParents[slot] = parent;
+        stateClosed[slot] = false;
+        int key = toStateKey(cell, time);
+        int entry = toEntry(key);
+        while(stateStamps[entry] == stateGeneration && stateKeys[entry] != key) entry = (entry + 1) & stateMask;
+        stateKeys[entry] = key;
+        stateSlots[entry] = slot;
+        stateStamps[entry] = stateGeneration;
+        return slot;
+    }
+
+    //The slot of a state in this search, or -1 if it hasn't been reached
+    private int findState(int key){
+        for(int entry = toEntry(key); stateStamps[entry] == stateGeneration; entry = (entry + 1) & stateMask){
+            if(stateKeys[entry] == key) return stateSlots[entry];
+        }
+        return -1;
+    }
+
+    //Neighbouring keys are spread over the table so runs of them don't make long probes
+    private int toEntry(int key){
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & stateMask;
+    }
+
+    private int toStateKey(int cell, int time){
+        return cell * (window + 1) + time;
+    }
+
+    private int toIndex(int x, int y){
+        return x * height + y;
+    }
+}
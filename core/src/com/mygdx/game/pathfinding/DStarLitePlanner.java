@@ -0,0 +1,265 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.interfaces.IGridEntity;
+
+/**
+ * A D* Lite planner for one actor, used to repair its path when chefs or customers step onto it.
+ * It searches backwards from the goal, so every node keeps its distance to the goal (g) and a one step look ahead (rhs).
+ * The changed nodes are read from the grid's GridChangeLog, and only the nodes whose distance they actually change are expanded again,
+ * so keeping the plan up to date costs as much as the change rather than a new search over the map.
+ * Starting again for a new goal doesn't clear the arrays either, values only count if they were stamped since the last start,
+ * and planners are handed out from a pool kept by the NavigationGrid so there are only as many as actors repairing a path at once.
+ * Not thread safe - only to be used from the render thread.
+ */
+public class DStarLitePlanner {
+
+    //Keys are compared by their first part and then by their second. Both are whole numbers well under this, so they pack into one double exactly
+    private static final double KEY_SCALE = 1 << 26;
+    private static final float INFINITY = Float.POSITIVE_INFINITY;
+
+    private static final int[] NEIGHBOUR_X_MOD = {1,-1,0,0};
+    private static final int[] NEIGHBOUR_Y_MOD = {0,0,1,-1};
+
+    private final GridStore store;
+    private final int width;
+    private final int height;
+    private IGridEntity owner;
+    private final GridChangeLog changeLog;
+    private long readSequence;
+    //The distances, only counted if stamped since the planner last started again, and infinite otherwise
+    private final float[] g;
+    private final float[] rhs;
+    private final int[] valueStamp;
+    private int valueGeneration;
+    private final IndexedMinHeap openList;
+    private final int[] changeStamp;
+    private int changeGeneration;
+    private int goalIndex;
+    private int startIndex;
+    private int lastStartIndex;
+    private float keyModifier;
+    private int expandedCount;
+
+    /**
+     * Instantiates a new D* Lite planner. Nothing is searched until the first plan.
+     *
+     * @param grid  the grid
+     * @param owner the entity that will follow the plan, its own node never blocks it. Can be null
+     */
+    public DStarLitePlanner(Node[][] grid, IGridEntity owner){
+        store = GridStore.of(grid);
+        this.owner = owner;
+        width = grid.length;
+        height = grid[0].length;
+        changeLog = NavigationGrid.of(grid).getChangeLog();
+        g = new float[width * height];
+        rhs = new float[width * height];
+        valueStamp = new int[width * height];
+        valueGeneration = 0;
+        openList = new IndexedMinHeap(width * height);
+        changeStamp = new int[width * height];
+        goalIndex = -1;
+    }
+
+    /**
+     * Plans a path, reusing as much of the last plan as it can if the goal is the same.
+     *
+     * @param start the node to plan from
+     * @param goal  the goal node, it should not be collidable
+     * @param path  the path to add the cells to, after any already in it and not including the start node
+     * @return whether there is a path, the path is left as it was if there isn't
+     */
+    public boolean plan(Node start, Node goal, Path path){
+        int newStartIndex = toIndex(start.getGridX(), start.getGridY());
+        int newGoalIndex = toIndex(goal.getGridX(), goal.getGridY());
+        if(newGoalIndex != goalIndex || changeLog.hasLost(readSequence)){
+            initialise(newStartIndex, newGoalIndex);
+        }
+        else{
+            //The start has moved, so every key in the open list is now too big by up to the distance moved
+            keyModifier += calculateHeuristic(lastStartIndex, newStartIndex);
+            lastStartIndex = newStartIndex;
+            startIndex = newStartIndex;
+            applyChanges();
+        }
+        computeShortestPath();
+        return extractPath(path);
+    }
+
+    /**
+     * Reads the changes made to the grid since the last time, should be called every frame while the plan is being used
+     * so that the change log doesn't overwrite changes before they are read.
+     */
+    public void applyChanges(){
+        if(goalIndex == -1) return;
+        if(changeLog.hasLost(readSequence)){
+            //Too far behind, the next plan will start again
+            goalIndex = -1;
+            return;
+        }
+        changeGeneration++;
+        long sequence = changeLog.getSequence();
+        for(long i = readSequence; i < sequence; i++){
+            int changed = changeLog.getChange(i);
+            if(changeStamp[changed] == changeGeneration) continue;
+            changeStamp[changed] = changeGeneration;
+            //Only the cost of moving into the changed node is different, so only its neighbours need their look ahead redone
+            for(int j = 0; j < NEIGHBOUR_X_MOD.length; j++){
+                int neighbour = neighbourIndex(changed, j);
+                if(neighbour != -1) updateNode(neighbour);
+            }
+        }
+        readSequence = sequence;
+    }
+
+    /**
+     * Forgets the plan and hands the planner to another entity, the next plan starts again.
+     *
+     * @param owner the entity that will follow the plan, can be null
+     */
+    void reset(IGridEntity owner){
+        this.owner = owner;
+        goalIndex = -1;
+    }
+
+    /**
+     * Gets the number of nodes expanded since the planner was made, for checking how much a replan costs.
+     *
+     * @return the expanded count
+     */
+    public int getExpandedCount(){
+        return expandedCount;
+    }
+
+    private void initialise(int newStartIndex, int newGoalIndex){
+        //Every distance goes back to infinite without touching the arrays
+        valueGeneration++;
+        openList.clear();
+        keyModifier = 0;
+        goalIndex = newGoalIndex;
+        startIndex = newStartIndex;
+        lastStartIndex = newStartIndex;
+        readSequence = changeLog.getSequence();
+        setRhs(goalIndex, 0);
+        openList.add(goalIndex, calculateKey(goalIndex));
+    }
+
+    private void computeShortestPath(){
+        while(!openList.isEmpty() && (openList.peekKey() < calculateKey(startIndex) || getRhs(startIndex) != getG(startIndex))){
+            int current = openList.peek();
+            double oldKey = openList.peekKey();
+            double newKey = calculateKey(current);
+            if(oldKey < newKey){
+                openList.remove(current);
+                openList.add(current, newKey);
+                continue;
+            }
+            expandedCount++;
+            openList.poll();
+            if(getG(current) > getRhs(current)){
+                setG(current, getRhs(current));
+            }
+            else{
+                setG(current, INFINITY);
+                updateNode(current);
+            }
+            for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+                int neighbour = neighbourIndex(current, i);
+                if(neighbour != -1) updateNode(neighbour);
+            }
+        }
+    }
+
+    //Works out a node's look ahead again and puts it in the open list if it no longer matches its distance
+    private void updateNode(int index){
+        if(index != goalIndex){
+            float best = INFINITY;
+            for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+                int neighbour = neighbourIndex(index, i);
+                if(neighbour == -1 || isBlocked(neighbour)) continue;
+                best = Math.min(best, getG(neighbour) + 1);
+            }
+            setRhs(index, best);
+        }
+        if(openList.contains(index)) openList.remove(index);
+        if(getG(index) != getRhs(index)) openList.add(index, calculateKey(index));
+    }
+
+    //Follows the distances down from the start to the goal
+    private boolean extractPath(Path path){
+        if(getG(startIndex) == INFINITY) return false;
+        int offset = path.getCellCount();
+        int length = (int)getG(startIndex);
+        int current = startIndex;
+        for(int i = 0; i < length; i++){
+            int next = -1;
+            float best = INFINITY;
+            for(int j = 0; j < NEIGHBOUR_X_MOD.length; j++){
+                int neighbour = neighbourIndex(current, j);
+                if(neighbour == -1 || isBlocked(neighbour) || getG(neighbour) + 1 >= best) continue;
+                best = getG(neighbour) + 1;
+                next = neighbour;
+            }
+            if(next == -1){
+                path.setCellCount(offset);
+                return false;
+            }
+            path.addCell(next / height, next % height);
+            current = next;
+        }
+        return true;
+    }
+
+    private double calculateKey(int index){
+        float distance = Math.min(getG(index), getRhs(index));
+        if(distance == INFINITY) return Double.POSITIVE_INFINITY;
+        return (distance + calculateHeuristic(startIndex, index) + keyModifier) * KEY_SCALE + distance;
+    }
+
+    private float getG(int index){
+        return valueStamp[index] == valueGeneration ? g[index] : INFINITY;
+    }
+
+    private float getRhs(int index){
+        return valueStamp[index] == valueGeneration ? rhs[index] : INFINITY;
+    }
+
+    private void setG(int index, float distance){
+        stamp(index);
+        g[index] = distance;
+    }
+
+    private void setRhs(int index, float distance){
+        stamp(index);
+        rhs[index] = distance;
+    }
+
+    //A node first touched since starting again has both its distances made infinite before one is set
+    private void stamp(int index){
+        if(valueStamp[index] == valueGeneration) return;
+        valueStamp[index] = valueGeneration;
+        g[index] = INFINITY;
+        rhs[index] = INFINITY;
+    }
+
+    private boolean isBlocked(int index){
+        return store.isCollidable(index) && (owner == null || store.getGridEntity(index) != owner);
+    }
+
+    private float calculateHeuristic(int from, int to){
+        return Math.abs(from / height - to / height) + Math.abs(from % height - to % height);
+    }
+
+    private int neighbourIndex(int index, int direction){
+        int x = index / height + NEIGHBOUR_X_MOD[direction];
+        int y = index % height + NEIGHBOUR_Y_MOD[direction];
+        if(x < 0 || x >= width || y < 0 || y >= height) return -1;
+        return toIndex(x, y);
+    }
+
+    private int toIndex(int x, int y){
+        return x * height + y;
+    }
+}
@@ -0,0 +1,267 @@
+package com.mygdx.game.pathfinding;
+
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+
+import java.util.Arrays;
+
+/**
+ * The number of steps from every node of a grid to one destination, worked out once with a breadth first search from the destination.
+ * Only walls and stations are treated as obstacles, chefs and customers move too often to be part of it.
+ * Once built, the next step towards the destination from any node is a look at its four neighbours,
+ * and when a wall or station is added or removed only the nodes whose distance actually changes are worked out again.
+ */
+public class DistanceField {
+
+    /**
+     * The distance of a node the destination cannot be reached from.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    //The offsets of the four neighbours of a node
+    private static final int[] NEIGHBOUR_X_MOD = {1,-1,0,0};
+    private static final int[] NEIGHBOUR_Y_MOD = {0,0,1,-1};
+
+    private final Node[][] grid;
+    private final GridStore store;
+    private final Node target;
+    private final int width;
+    private final int height;
+    private final int targetIndex;
+    private final int[] distances;
+    //Scratch space for building and updating the field
+    private final int[] queue;
+    private final int[] affectedGeneration;
+    private int generation;
+    private final IndexedMinHeap repairList;
+
+    /**
+     * Instantiates a new Distance field and builds it.
+     *
+     * @param target the destination node
+     * @param grid   the grid
+     */
+    public DistanceField(Node target, Node[][] grid){
+        this.grid = grid;
+        store = GridStore.of(grid);
+        this.target = target;
+        width = grid.length;
+        height = grid[0].length;
+        targetIndex = toIndex(target.getGridX(), target.getGridY());
+        distances = new int[width * height];
+        queue = new int[width * height];
+        affectedGeneration = new int[width * height];
+        repairList = new IndexedMinHeap(width * height);
+        rebuild();
+    }
+
+    /**
+     * Is static obstacle boolean.
+     *
+     * @param nodeType the node type
+     * @return whether nodes of this type block distance fields
+     */
+    public static boolean isStaticObstacle(NodeType nodeType){
+        return (GridStore.getFlags(nodeType) & GridStore.STATIC_OBSTACLE) != 0;
+    }
+
+    /**
+     * Works the whole field out again from scratch.
+     */
+    public void rebuild(){
+        Arrays.fill(distances, UNREACHABLE);
+        distances[targetIndex] = 0;
+        queue[0] = targetIndex;
+        spread(0, 1);
+    }
+
+    /**
+     * Gets target.
+     *
+     * @return the destination node
+     */
+    public Node getTarget(){
+        return target;
+    }
+
+    /**
+     * Gets the number of steps from a node to the destination.
+     *
+     * @param x the x
+     * @param y the y
+     * @return the distance, or UNREACHABLE
+     */
+    public int getDistance(int x, int y){
+        if(x < 0 || x >= width || y < 0 || y >= height) return UNREACHABLE;
+        return distances[toIndex(x, y)];
+    }
+
+    /**
+     * Gets the neighbour of a node that is one step closer to the destination.
+     *
+     * @param from the node to step from
+     * @return the next node, or null if the destination cannot be reached or has already been
+     */
+    public Node getNextStep(Node from){
+        int distance = getDistance(from.getGridX(), from.getGridY());
+        if(distance == UNREACHABLE || distance == 0) return null;
+        for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+            int neighbourX = from.getGridX() + NEIGHBOUR_X_MOD[i];
+            int neighbourY = from.getGridY() + NEIGHBOUR_Y_MOD[i];
+            if(getDistance(neighbourX, neighbourY) == distance - 1) return grid[neighbourX][neighbourY];
+        }
+        return null;
+    }
+
+    /**
+     * Gets the path from a node to the destination by following the field down.
+     * Chefs and customers are not part of the field, so the caller should check that the path is clear if that matters.
+     *
+     * @param from the node to start from
+     * @return the path in grid co-ordinates in the same form as PathfindingUtils.findPath() gives,
+     * or an empty array if the destination cannot be reached
+     */
+    public Vector2[] getPath(Node from){
+        Path path = new Path();
+        getPath(from, path);
+        return path.toGridPath();
+    }
+
+    /**
+     * Gets the path from a node to the destination by following the field down, adding it after any cells already in the path.
+     *
+     * @param from the node to start from
+     * @param path the path to add the cells to, nothing is added if the destination cannot be reached
+     */
+    public void getPath(Node from, Path path){
+        int distance = getDistance(from.getGridX(), from.getGridY());
+        if(distance == UNREACHABLE) return;
+        if(distance == 0){
+            path.addCell(from.getGridX(), from.getGridY());
+            return;
+        }
+        Node current = from;
+        for(int i = 0; i < distance; i++){
+            current = getNextStep(current);
+            path.addCell(current.getGridX(), current.getGridY());
+        }
+    }
+
+    /**
+     * Updates the field after a node has turned into or out of a wall or station.
+     *
+     * @param node       the node that changed
+     * @param isObstacle whether the node is now an obstacle
+     */
+    public void updateNode(Node node, boolean isObstacle){
+        int index = toIndex(node.getGridX(), node.getGridY());
+        //The destination is always where the field starts from, whatever is on it
+        if(index == targetIndex) return;
+        if(isObstacle) removeNode(index);
+        else addNode(index);
+    }
+
+    //A node that has opened up can only make distances shorter, so spread out from it for as long as it does
+    private void addNode(int index){
+        int best = UNREACHABLE;
+        for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+            int neighbour = neighbourIndex(index, i);
+            if(neighbour != -1 && distances[neighbour] != UNREACHABLE) best = Math.min(best, distances[neighbour] + 1);
+        }
+        if(best >= distances[index]) return;
+        distances[index] = best;
+        queue[0] = index;
+        spread(0, 1);
+    }
+
+    //A node that has been blocked makes every node whose shortest way went through it longer.
+    //Those nodes are found level by level from the blocked node: a node one step further away is affected unless it has
+    //another neighbour one step closer that isn't affected. They are then worked out again from the nodes around them.
+    private void removeNode(int index){
+        if(distances[index] == UNREACHABLE) return;
+        generation++;
+        affectedGeneration[index] = generation;
+        queue[0] = index;
+        int head = 0;
+        int tail = 1;
+        while(head < tail){
+            int current = queue[head++];
+            for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+                int neighbour = neighbourIndex(current, i);
+                if(neighbour == -1 || isAffected(neighbour) || distances[neighbour] != distances[current] + 1) continue;
+                if(hasUnaffectedParent(neighbour)) continue;
+                affectedGeneration[neighbour] = generation;
+                queue[tail++] = neighbour;
+            }
+        }
+        for(int i = 0; i < tail; i++){
+            distances[queue[i]] = UNREACHABLE;
+        }
+
+        //Seed the affected nodes from their unaffected neighbours, then settle them in order of distance
+        repairList.clear();
+        for(int i = 1; i < tail; i++){
+            int affected = queue[i];
+            int best = UNREACHABLE;
+            for(int j = 0; j < NEIGHBOUR_X_MOD.length; j++){
+                int neighbour = neighbourIndex(affected, j);
+                if(neighbour != -1 && !isAffected(neighbour) && distances[neighbour] != UNREACHABLE){
+                    best = Math.min(best, distances[neighbour] + 1);
+                }
+            }
+            if(best != UNREACHABLE) repairList.add(affected, best);
+        }
+        while(!repairList.isEmpty()){
+            int distance = (int)repairList.peekKey();
+            int current = repairList.poll();
+            distances[current] = distance;
+            for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+                int neighbour = neighbourIndex(current, i);
+                if(neighbour == -1 || neighbour == index || !isAffected(neighbour) || distances[neighbour] != UNREACHABLE) continue;
+                repairList.add(neighbour, distance + 1);
+            }
+        }
+    }
+
+    private boolean hasUnaffectedParent(int index){
+        for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+            int neighbour = neighbourIndex(index, i);
+            if(neighbour != -1 && !isAffected(neighbour) && distances[neighbour] == distances[index] - 1) return true;
+        }
+        return false;
+    }
+
+    private boolean isAffected(int index){
+        return affectedGeneration[index] == generation;
+    }
+
+    //Breadth first search from the nodes already in the queue, lowering any distance it can
+    private void spread(int head, int tail){
+        while(head < tail){
+            int current = queue[head++];
+            int distance = distances[current] + 1;
+            for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+                int neighbour = neighbourIndex(current, i);
+                if(neighbour == -1 || distances[neighbour] <= distance) continue;
+                distances[neighbour] = distance;
+                queue[tail++] = neighbour;
+            }
+        }
+    }
+
+    //Gets the index of a neighbour that is on the grid and isn't an obstacle, or -1. The destination always counts as open
+    private int neighbourIndex(int index, int direction){
+        int x = index / height + NEIGHBOUR_X_MOD[direction];
+        int y = index % height + NEIGHBOUR_Y_MOD[direction];
+        if(x < 0 || x >= width || y < 0 || y >= height) return -1;
+        int neighbour = toIndex(x, y);
+        if(neighbour != targetIndex && store.isStaticObstacle(neighbour)) return -1;
+        return neighbour;
+    }
+
+    private int toIndex(int x, int y){
+        return x * height + y;
+    }
+}
@@ -0,0 +1,74 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.interfaces.IGridListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The distance fields of one grid, one per fixed destination, e.g. the customer door or the spots next to the serving stations.
+ * A field is built the first time its destination is asked for and then kept up to date as walls and stations change.
+ * Not thread safe - only to be used from the render thread, which is also where node types are changed.
+ */
+public class DistanceFieldCache implements IGridListener {
+
+    private final Node[][] grid;
+    private final Map<Node, DistanceField> fields;
+
+    /**
+     * Instantiates a new Distance field cache.
+     *
+     * @param grid the grid
+     */
+    public DistanceFieldCache(Node[][] grid){
+        this.grid = grid;
+        fields = new HashMap<>();
+    }
+
+    /**
+     * Gets the distance field to a destination, building it if this is the first time it has been asked for.
+     *
+     * @param target the destination node
+     * @return the distance field
+     */
+    public DistanceField getField(Node target){
+        DistanceField field = fields.get(target);
+        if(field == null){
+            field = new DistanceField(target, grid);
+            fields.put(target, field);
+        }
+        return field;
+    }
+
+    /**
+     * Has field boolean.
+     *
+     * @param target the destination node
+     * @return whether a field to the destination has been built
+     */
+    public boolean hasField(Node target){
+        return fields.containsKey(target);
+    }
+
+    /**
+     * Removes the field to a destination so it is no longer kept up to date.
+     *
+     * @param target the destination node
+     */
+    public void removeField(Node target){
+        fields.remove(target);
+    }
+
+    //Only a node turning into or out of a wall or station changes the fields
+    @Override
+    public void onNodeTypeChanged(Node node, NodeType oldType) {
+        boolean wasObstacle = DistanceField.isStaticObstacle(oldType);
+        boolean isObstacle = DistanceField.isStaticObstacle(node.getNodeType());
+        if(wasObstacle == isObstacle) return;
+        for(DistanceField field : fields.values()){
+            field.updateNode(node, isObstacle);
+        }
+    }
+}
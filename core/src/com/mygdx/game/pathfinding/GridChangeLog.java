@@ -0,0 +1,71 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.interfaces.IGridListener;
+
+/**
+ * A ring buffer of the nodes on one grid that have become collidable or stopped being collidable, for planners that repair their paths.
+ * Every change gets the next sequence number, and a reader keeps the sequence number it has read up to.
+ * Only the latest changes are kept, so a reader that falls too far behind has to start again from scratch.
+ * Not thread safe - only to be used from the render thread, which is also where node types are changed.
+ */
+public class GridChangeLog implements IGridListener {
+
+    /**
+     * The number of changes kept if no capacity is given.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final int height;
+    private final int[] changes;
+    private long sequence;
+
+    /**
+     * Instantiates a new Grid change log.
+     *
+     * @param grid     the grid
+     * @param capacity the number of changes to keep
+     */
+    public GridChangeLog(Node[][] grid, int capacity){
+        height = grid[0].length;
+        changes = new int[capacity];
+        sequence = 0;
+    }
+
+    /**
+     * Gets sequence.
+     *
+     * @return the sequence number the next change will get, so also the number of changes so far
+     */
+    public long getSequence(){
+        return sequence;
+    }
+
+    /**
+     * Has lost boolean.
+     *
+     * @param fromSequence the sequence number a reader has read up to
+     * @return whether some of the changes since then have already been overwritten
+     */
+    public boolean hasLost(long fromSequence){
+        return sequence - fromSequence > changes.length;
+    }
+
+    /**
+     * Gets a change.
+     *
+     * @param changeSequence the sequence number of the change, which must not have been lost
+     * @return the grid index (x * height + y) of the node that changed
+     */
+    public int getChange(long changeSequence){
+        return changes[(int)(changeSequence % changes.length)];
+    }
+
+    @Override
+    public void onNodeTypeChanged(Node node, NodeType oldType) {
+        if(Node.isCollidable(oldType) == node.isCollidable()) return;
+        changes[(int)(sequence % changes.length)] = node.getGridX() * height + node.getGridY();
+        sequence++;
+    }
+}
@@ -0,0 +1,88 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.interfaces.IPathfinder;
+
+/**
+ * The hierarchical (HPA*) pathfinder for large maps.
+ * It first finds a route through the entrances between clusters using the grid's ClusterGraph, then fills in each leg of the route
+ * with an A* search that is only allowed inside the leg's cluster, so only the clusters on the route are ever searched node by node.
+ * Paths are nearly, but not always, as short as the A* ones.
+ * The cluster graph doesn't know about chefs and customers, so if one of them blocks a leg the whole path is found with A* instead.
+ */
+public class HierarchicalPathfinder implements IPathfinder {
+
+    private static final int[] NEIGHBOUR_X_MOD = {1,-1,0,0};
+    private static final int[] NEIGHBOUR_Y_MOD = {0,0,1,-1};
+
+    private final AStarPathfinder fallback = new AStarPathfinder();
+
+    @Override
+    public void findPath(Node start, Node end, Node[][] grid, SearchContext context, Path path){
+        path.clear();
+        //A start inside a wall or station isn't joined to the cluster graph
+        GridStore store = GridStore.of(grid);
+        if(store.isStaticObstacle(start.getIndex())){
+            fallback.findPath(start, end, grid, context, path);
+            return;
+        }
+        ClusterGraph clusterGraph = NavigationGrid.of(grid).getClusterGraph();
+        int[] route = clusterGraph.findRoute(start, end, context);
+        //Walls and stations already block every way there
+        if(route == null) return;
+
+        int height = grid[0].length;
+        int clusterSize = clusterGraph.getClusterSize();
+        for(int i = 1; i < route.length; i++){
+            int fromX = route[i - 1] / height;
+            int fromY = route[i - 1] % height;
+            int toX = route[i] / height;
+            int toY = route[i] % height;
+            //Legs between clusters are a single step over the border, the rest stay inside the cluster they start in
+            int minX = fromX / clusterSize * clusterSize;
+            int minY = fromY / clusterSize * clusterSize;
+            if(!findLeg(fromX, fromY, toX, toY, minX, minY, minX + clusterSize - 1, minY + clusterSize - 1, store, context, path)){
+                fallback.findPath(start, end, grid, context, path);
+                return;
+            }
+        }
+    }
+
+    //A* between two nodes that never leaves the given bounds, adding the leg to the end of the path if one is found
+    private static boolean findLeg(int fromX, int fromY, int toX, int toY, int minX, int minY, int maxX, int maxY, GridStore store, SearchContext context, Path path){
+        context.beginSearch(store.getWidth(), store.getHeight());
+        IndexedMinHeap openList = context.getOpenList();
+        int startIndex = context.toIndex(fromX, fromY);
+        int endIndex = context.toIndex(toX, toY);
+        if(store.isCollidable(endIndex)) return false;
+
+        context.setCost(startIndex, 0, -1);
+        openList.add(startIndex, Math.abs(toX - fromX) + Math.abs(toY - fromY));
+        while(!openList.isEmpty()){
+            int currentIndex = openList.poll();
+            context.setClosed(currentIndex);
+            int currentX = context.toX(currentIndex);
+            int currentY = context.toY(currentIndex);
+            float g = context.getCost(currentIndex) + 1;
+            for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+                int neighbourX = currentX + NEIGHBOUR_X_MOD[i];
+                int neighbourY = currentY + NEIGHBOUR_Y_MOD[i];
+                //The end of a leg between clusters is just over the border, so it is checked for before the bounds
+                if(neighbourX == toX && neighbourY == toY){
+                    context.setCost(endIndex, g, currentIndex);
+                    context.backTrackPath(endIndex, path);
+                    return true;
+                }
+                if(neighbourX < minX || neighbourX > maxX || neighbourY < minY || neighbourY > maxY) continue;
+                if(neighbourX >= store.getWidth() || neighbourY >= store.getHeight()) continue;
+                int neighbourIndex = context.toIndex(neighbourX, neighbourY);
+                if(context.isClosed(neighbourIndex) || store.isCollidable(neighbourIndex)) continue;
+                if(context.getCost(neighbourIndex) <= g) continue;
+                context.setCost(neighbourIndex, g, currentIndex);
+                openList.add(neighbourIndex, g + Math.abs(toX - neighbourX) + Math.abs(toY - neighbourY));
+            }
+        }
+        return false;
+    }
+}
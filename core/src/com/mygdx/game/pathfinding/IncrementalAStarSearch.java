@@ -0,0 +1,169 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+
+/**
+ * A single A* search that can be paused and carried on later.
+ * Each call to step() expands at most the given number of nodes, and the open list, costs and parents are left in the
+ * search context between calls, so one long search can be spread over as many frames as it needs.
+ * The context belongs to the search until it has finished, so it can't be a thread's shared context if anything else searches in between.
+ * The path found is written straight into the Path the search was given.
+ */
+public class IncrementalAStarSearch {
+
+    //The offsets of the four neighbours of a node
+    private static final int[] NEIGHBOUR_X_MOD = {1,-1,0,0};
+    private static final int[] NEIGHBOUR_Y_MOD = {0,0,1,-1};
+
+    private final GridStore store;
+    private final SearchContext context;
+    //The search stops at whichever of these it reaches first, which is the closest
+    private final int[] endX;
+    private final int[] endY;
+    private final int[] endIndexes;
+    private final Path path;
+    private boolean finished;
+    private int expandedCount;
+
+    /**
+     * Instantiates a new Incremental A* search, nothing is expanded until step() is called.
+     * The end is never collidable and never the start, as for any IPathfinder.
+     *
+     * @param start   the start node
+     * @param end     the end node
+     * @param grid    the grid to pathfind on
+     * @param context the search context to keep the search state in until the search has finished
+     * @param path    the path to write the cells into once the search has finished, emptied straight away
+     */
+    public IncrementalAStarSearch(Node start, Node end, Node[][] grid, SearchContext context, Path path){
+        this(start, new Node[] {end}, grid, context, path);
+    }
+
+    /**
+     * Instantiates a new Incremental A* search to whichever of several end nodes is closest, nothing is expanded until step() is called.
+     * The estimate from each node is to its nearest end, so the first end reached is the closest one, found in a single search.
+     * No end is ever collidable or the start.
+     *
+     * @param start   the start node
+     * @param ends    the end nodes
+     * @param grid    the grid to pathfind on
+     * @param context the search context to keep the search state in until the search has finished
+     * @param path    the path to write the cells into once the search has finished, emptied straight away
+     */
+    public IncrementalAStarSearch(Node start, Node[] ends, Node[][] grid, SearchContext context, Path path){
+        this.context = context;
+        this.path = path;
+        store = GridStore.of(grid);
+        endX = new int[ends.length];
+        endY = new int[ends.length];
+        endIndexes = new int[ends.length];
+        //The costs, parents and both lists are kept in the search context rather than on the nodes
+        context.beginSearch(grid.length, grid[0].length);
+        for(int i = 0; i < ends.length; i++){
+            endX[i] = ends[i].getGridX();
+            endY[i] = ends[i].getGridY();
+            endIndexes[i] = context.toIndex(endX[i], endY[i]);
+        }
+        int startIndex = context.toIndex(start.getGridX(), start.getGridY());
+        context.setCost(startIndex, 0, -1);
+        context.getOpenList().add(startIndex, calculateHeuristic(start.getGridX(), start.getGridY()));
+        path.clear();
+        finished = false;
+        expandedCount = 0;
+    }
+
+    /**
+     * Expands nodes until the search finishes or the limit is reached.
+     * Nodes changed since the last call are read as they are now, any path that turns out to be blocked is repaired by whoever follows it.
+     *
+     * @param maxExpansions the most nodes to expand in this call
+     * @return the number of nodes expanded
+     */
+    public int step(int maxExpansions){
+        IndexedMinHeap openList = context.getOpenList();
+        int expanded = 0;
+        while(!finished && expanded < maxExpansions){
+            if(openList.isEmpty()){
+                //Path not found, so the path is left empty
+                finished = true;
+                break;
+            }
+            expand(openList.poll());
+            expanded++;
+        }
+        expandedCount += expanded;
+        return expanded;
+    }
+
+    /**
+     * Is finished boolean.
+     *
+     * @return whether a path has been found, or the search has run out of nodes
+     */
+    public boolean isFinished(){
+        return finished;
+    }
+
+    /**
+     * Gets the number of nodes expanded so far across every call to step().
+     *
+     * @return the expanded count
+     */
+    public int getExpandedCount(){
+        return expandedCount;
+    }
+
+    //Adds every open neighbour of a node to the open list, finishing the search if one of them is the end
+    private void expand(int currentIndex){
+        context.setClosed(currentIndex);
+        int currentX = context.toX(currentIndex);
+        int currentY = context.toY(currentIndex);
+        float g = calculateMoveCost(currentIndex, context);
+        for(int i = 0; i < NEIGHBOUR_X_MOD.length; i++){
+            int neighbourX = currentX + NEIGHBOUR_X_MOD[i];
+            int neighbourY = currentY + NEIGHBOUR_Y_MOD[i];
+            if(neighbourX < 0 || neighbourX >= store.getWidth() || neighbourY < 0 || neighbourY >= store.getHeight()) continue;
+            int neighbourIndex = context.toIndex(neighbourX, neighbourY);
+            //Check if we have reached an end node
+            if(isEnd(neighbourIndex)) {
+                context.setCost(neighbourIndex, g, currentIndex);
+                context.backTrackPath(neighbourIndex, path);
+                finished = true;
+                return;
+            }
+            if (!context.isClosed(neighbourIndex) && !store.isCollidable(neighbourIndex)){
+                checkNeighbour(currentIndex, neighbourIndex, g);
+            }
+        }
+    }
+
+    //Adds a neighbour to the open list, or lowers its cost if this is a cheaper way to reach it
+    private void checkNeighbour(int currentIndex, int neighbourIndex, float g){
+        //Nodes that have a cost but aren't closed are in the open list
+        if(context.getCost(neighbourIndex) <= g) return;
+        float h = calculateHeuristic(context.toX(neighbourIndex), context.toY(neighbourIndex));
+        context.setCost(neighbourIndex, g, currentIndex);
+        context.getOpenList().add(neighbourIndex, g + h);
+    }
+
+    private boolean isEnd(int index){
+        for(int endIndex : endIndexes){
+            if(endIndex == index) return true;
+        }
+        return false;
+    }
+
+    //The distance to the nearest end, which never overestimates so the first end reached is still the closest
+    private float calculateHeuristic(int gridX, int gridY){
+        int closest = Integer.MAX_VALUE;
+        for(int i = 0; i < endX.length; i++){
+            closest = Math.min(closest, Math.abs(endX[i] - gridX) + Math.abs(endY[i] - gridY));
+        }
+        return (float)closest;
+    }
+
+    private static float calculateMoveCost(int currentIndex, SearchContext context){
+        return 1 + context.getCost(currentIndex);
+    }
+}
@@ -0,0 +1,200 @@
+package com.mygdx.game.pathfinding;
+
+/**
+ * The indexed min heap used as the open list by the pathfinding searches.
+ * Entries are flat grid indexes (x * gridHeight + y) with a double key, and each index can be found in the heap in O(1),
+ * which gives O(1) contains() and O(log n) decrease-key instead of the linear scans of a PriorityQueue.
+ * Keys are doubles so that a search with a two part key, like D* Lite, can pack both parts into one key exactly.
+ */
+public class IndexedMinHeap {
+
+    private int[] heap; //heap slot -> grid index
+    private int[] positions; //grid index -> heap slot
+    private double[] keys; //grid index -> key
+    private int size;
+
+    /**
+     * Instantiates a new Indexed min heap.
+     *
+     * @param capacity the number of grid indexes that can be stored, normally the width * height of the grid
+     */
+    public IndexedMinHeap(int capacity){
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new double[capacity];
+        size = 0;
+    }
+
+    /**
+     * Grows the heap so it can hold the given number of grid indexes, this empties the heap.
+     *
+     * @param capacity the capacity
+     */
+    public void ensureCapacity(int capacity){
+        size = 0;
+        if(capacity <= positions.length) return;
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new double[capacity];
+    }
+
+    /**
+     * Gets the number of grid indexes the heap can hold.
+     *
+     * @return the capacity
+     */
+    public int getCapacity(){
+        return positions.length;
+    }
+
+    /**
+     * Is empty boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    /**
+     * Size int.
+     *
+     * @return the number of entries in the heap
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Checks whether a grid index is currently in the heap.
+     *
+     * @param index the grid index
+     * @return the boolean
+     */
+    //The positions array is never reset, so an entry only counts if the heap slot it points at points back at it
+    public boolean contains(int index){
+        int slot = positions[index];
+        return slot < size && heap[slot] == index;
+    }
+
+    /**
+     * Gets the key of an index in the heap, only valid if contains() is true.
+     *
+     * @param index the grid index
+     * @return the key
+     */
+    public double getKey(int index){
+        return keys[index];
+    }
+
+    /**
+     * Gets the index with the smallest key without removing it.
+     *
+     * @return the grid index
+     */
+    public int peek(){
+        return heap[0];
+    }
+
+    /**
+     * Gets the smallest key in the heap.
+     *
+     * @return the key
+     */
+    public double peekKey(){
+        return keys[heap[0]];
+    }
+
+    /**
+     * Adds an index to the heap, or lowers its key if it is already in the heap with a bigger key.
+     *
+     * @param index the grid index
+     * @param key   the key
+     * @return whether the heap was changed
+     */
+    public boolean add(int index, double key){
+        if(contains(index)){
+            if(key >= keys[index]) return false;
+            keys[index] = key;
+            siftUp(positions[index]);
+            return true;
+        }
+        keys[index] = key;
+        heap[size] = index;
+        positions[index] = size;
+        size++;
+        siftUp(size - 1);
+        return true;
+    }
+
+    /**
+     * Removes and returns the index with the smallest key.
+     *
+     * @return the grid index
+     */
+    public int poll(){
+        int smallest = heap[0];
+        size--;
+        if(size > 0){
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return smallest;
+    }
+
+    /**
+     * Removes an index from the heap if it is in it.
+     *
+     * @param index the grid index
+     */
+    public void remove(int index){
+        if(!contains(index)) return;
+        int slot = positions[index];
+        size--;
+        if(slot == size) return;
+        int moved = heap[size];
+        heap[slot] = moved;
+        positions[moved] = slot;
+        siftUp(slot);
+        siftDown(positions[moved]);
+    }
+
+    /**
+     * Empties the heap in O(1).
+     */
+    public void clear(){
+        size = 0;
+    }
+
+    private void siftUp(int slot){
+        int index = heap[slot];
+        double key = keys[index];
+        while(slot > 0){
+            int parent = (slot - 1) >>> 1;
+            if(keys[heap[parent]] <= key) break;
+            heap[slot] = heap[parent];
+            positions[heap[slot]] = slot;
+            slot = parent;
+        }
+        heap[slot] = index;
+        positions[index] = slot;
+    }
+
+    private void siftDown(int slot){
+        int index = heap[slot];
+        double key = keys[index];
+        int half = size >>> 1;
+        while(slot < half){
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if(right < size && keys[heap[right]] < keys[heap[child]]) child = right;
+            if(key <= keys[heap[child]]) break;
+            heap[slot] = heap[child];
+            positions[heap[slot]] = slot;
+            slot = child;
+        }
+        heap[slot] = index;
+        positions[index] = slot;
+    }
+}
@@ -0,0 +1,137 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.interfaces.IPathfinder;
+
+/**
+ * The Jump Point Search pathfinder for a 4-connected grid where every move costs the same.
+ * Instead of adding every neighbour to the open list, it scans in a straight line until it reaches a node where the path could turn
+ * (a jump point) and only adds that, so long corridors and open rooms cost one open list entry instead of one per node.
+ * Vertical scans also look sideways at every step, because on a 4-connected grid that is the only place a turn can start.
+ * The paths it finds are the same length as the A* ones, the nodes between jump points are filled back in at the end.
+ */
+public class JumpPointPathfinder implements IPathfinder {
+
+    private static final int NO_JUMP_POINT = -1;
+
+    @Override
+    public void findPath(Node start, Node end, Node[][] grid, SearchContext context, Path path){
+        path.clear();
+        context.beginSearch(grid.length, grid[0].length);
+        IndexedMinHeap openList = context.getOpenList();
+        GridStore store = GridStore.of(grid);
+        int startIndex = context.toIndex(start.getGridX(), start.getGridY());
+        int endIndex = context.toIndex(end.getGridX(), end.getGridY());
+        int endX = end.getGridX();
+        int endY = end.getGridY();
+
+        context.setCost(startIndex, 0, -1);
+        openList.add(startIndex, calculateHeuristic(start.getGridX(), start.getGridY(), endX, endY));
+        while(!openList.isEmpty()){
+            int currentIndex = openList.poll();
+            if(currentIndex == endIndex){
+                backTrackPath(context, endIndex, path);
+                return;
+            }
+            context.setClosed(currentIndex);
+
+            int currentX = context.toX(currentIndex);
+            int currentY = context.toY(currentIndex);
+            int parentIndex = context.getParent(currentIndex);
+            if(parentIndex == -1){
+                //The start node can go in every direction
+                addJumpPoint(currentIndex, 1, 0, store, endX, endY, context);
+                addJumpPoint(currentIndex, -1, 0, store, endX, endY, context);
+                addJumpPoint(currentIndex, 0, 1, store, endX, endY, context);
+                addJumpPoint(currentIndex, 0, -1, store, endX, endY, context);
+                continue;
+            }
+            //Jump points are always in a straight line from their parent, so this is the direction we arrived in
+            int dx = Integer.signum(currentX - context.toX(parentIndex));
+            int dy = Integer.signum(currentY - context.toY(parentIndex));
+            if(dx != 0){
+                addJumpPoint(currentIndex, dx, 0, store, endX, endY, context);
+                addJumpPoint(currentIndex, 0, 1, store, endX, endY, context);
+                addJumpPoint(currentIndex, 0, -1, store, endX, endY, context);
+            }
+            else{
+                addJumpPoint(currentIndex, 0, dy, store, endX, endY, context);
+                addJumpPoint(currentIndex, 1, 0, store, endX, endY, context);
+                addJumpPoint(currentIndex, -1, 0, store, endX, endY, context);
+            }
+        }
+        //Path not found, so the path is left empty
+    }
+
+    //Jumps from a node in one direction and adds the jump point found to the open list
+    private void addJumpPoint(int currentIndex, int dx, int dy, GridStore store, int endX, int endY, SearchContext context){
+        int currentX = context.toX(currentIndex);
+        int currentY = context.toY(currentIndex);
+        int jumpPoint = dx != 0 ? jumpHorizontal(currentX + dx, currentY, dx, store, endX, endY, context)
+                : jumpVertical(currentX, currentY + dy, dy, store, endX, endY, context);
+        if(jumpPoint == NO_JUMP_POINT || context.isClosed(jumpPoint)) return;
+
+        int jumpX = context.toX(jumpPoint);
+        int jumpY = context.toY(jumpPoint);
+        float g = context.getCost(currentIndex) + Math.abs(jumpX - currentX) + Math.abs(jumpY - currentY);
+        if(context.getCost(jumpPoint) <= g) return;
+        context.setCost(jumpPoint, g, currentIndex);
+        context.getOpenList().add(jumpPoint, g + calculateHeuristic(jumpX, jumpY, endX, endY));
+    }
+
+    //Scans along a row until it hits a wall, the end node, or a node with a forced neighbour above or below it
+    private int jumpHorizontal(int x, int y, int dx, GridStore store, int endX, int endY, SearchContext context){
+        while(true){
+            if(!store.isWalkable(x, y)) return NO_JUMP_POINT;
+            if(x == endX && y == endY) return context.toIndex(x, y);
+            //A node above or below that was blocked for the previous node but is open for this one can only be reached by turning here
+            if((store.isWalkable(x, y + 1) && !store.isWalkable(x - dx, y + 1))
+                    || (store.isWalkable(x, y - 1) && !store.isWalkable(x - dx, y - 1))){
+                return context.toIndex(x, y);
+            }
+            x += dx;
+        }
+    }
+
+    //Scans along a column, checking for forced neighbours and for anything a sideways scan would find at every step
+    private int jumpVertical(int x, int y, int dy, GridStore store, int endX, int endY, SearchContext context){
+        while(true){
+            if(!store.isWalkable(x, y)) return NO_JUMP_POINT;
+            if(x == endX && y == endY) return context.toIndex(x, y);
+            if((store.isWalkable(x + 1, y) && !store.isWalkable(x + 1, y - dy))
+                    || (store.isWalkable(x - 1, y) && !store.isWalkable(x - 1, y - dy))){
+                return context.toIndex(x, y);
+            }
+            if(jumpHorizontal(x + 1, y, 1, store, endX, endY, context) != NO_JUMP_POINT
+                    || jumpHorizontal(x - 1, y, -1, store, endX, endY, context) != NO_JUMP_POINT){
+                return context.toIndex(x, y);
+            }
+            y += dy;
+        }
+    }
+
+    private static float calculateHeuristic(int gridX, int gridY, int endX, int endY){
+        return (float)Math.abs(endX - gridX) + (float)Math.abs(endY - gridY);
+    }
+
+    //Backtracks through the jump points, filling in the straight lines of nodes between each pair of them
+    private static void backTrackPath(SearchContext context, int endIndex, Path path){
+        path.setCellCount((int)context.getCost(endIndex));
+        int i = path.getCellCount() - 1;
+        int current = endIndex;
+        while(context.getParent(current) != -1){
+            int parent = context.getParent(current);
+            int x = context.toX(current);
+            int y = context.toY(current);
+            int dx = Integer.signum(context.toX(parent) - x);
+            int dy = Integer.signum(context.toY(parent) - y);
+            while(x != context.toX(parent) || y != context.toY(parent)){
+                path.setCell(i--, x, y);
+                x += dx;
+                y += dy;
+            }
+            current = parent;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.enums.PathfinderType;
+import com.mygdx.game.interfaces.IGridEntity;
+import com.mygdx.game.interfaces.IGridListener;
+
+import java.util.ArrayDeque;
+
+/**
+ * The navigation data shared by everything that pathfinds on one grid - which pathfinder it uses and the caches built on top of it.
+ * It is attached to every node of its grid as the grid listener, so it is told about every node type change and keeps the caches up to date,
+ * and it can always be found again from the grid itself.
+ */
+public class NavigationGrid implements IGridListener {
+
+    private final Node[][] grid;
+    private final GridStore gridStore;
+    private volatile PathfinderType pathfinderType;
+    private final DistanceFieldCache distanceFields;
+    private final PathCache pathCache;
+    private final ClusterGraph clusterGraph;
+    private final GridChangeLog changeLog;
+    private final ConnectedRegions regions;
+    private final AccessPoints accessPoints;
+    private volatile boolean cooperative;
+    private volatile boolean pathSmoothing;
+    private final ReservationTable reservationTable;
+    //Only built once something plans cooperatively, as its search tables are large
+    private CooperativePathfinder cooperativePathfinder;
+    //Planners are kept for reuse as each one holds arrays the size of the grid. Only used from the render thread
+    private final ArrayDeque<DStarLitePlanner> freePlanners;
+
+    private NavigationGrid(Node[][] grid){
+        this.grid = grid;
+        gridStore = GridStore.of(grid);
+        pathfinderType = PathfinderType.A_STAR;
+        distanceFields = new DistanceFieldCache(grid);
+        pathCache = new PathCache(grid, PathCache.DEFAULT_CAPACITY);
+        clusterGraph = new ClusterGraph(grid, ClusterGraph.DEFAULT_CLUSTER_SIZE);
+        changeLog = new GridChangeLog(grid, GridChangeLog.DEFAULT_CAPACITY);
+        regions = new ConnectedRegions(grid);
+        accessPoints = new AccessPoints(grid);
+        cooperative = false;
+        pathSmoothing = false;
+        reservationTable = new ReservationTable();
+        freePlanners = new ArrayDeque<>();
+        //Every node of the grid shares the store's listener
+        grid[0][0].setGridListener(this);
+    }
+
+    /**
+     * Gets the navigation grid of a grid, creating it the first time it is asked for.
+     *
+     * @param grid the grid
+     * @return the navigation grid
+     */
+    public static NavigationGrid of(Node[][] grid){
+        NavigationGrid navigationGrid = find(grid);
+        if(navigationGrid != null) return navigationGrid;
+        synchronized (grid){
+            navigationGrid = find(grid);
+            if(navigationGrid == null) navigationGrid = new NavigationGrid(grid);
+            return navigationGrid;
+        }
+    }
+
+    //Every node of the grid has the same listener, so the first node is enough to find it
+    private static NavigationGrid find(Node[][] grid){
+        if(!(grid[0][0].getGridListener() instanceof NavigationGrid)) return null;
+        NavigationGrid navigationGrid = (NavigationGrid) grid[0][0].getGridListener();
+        return navigationGrid.grid == grid ? navigationGrid : null;
+    }
+
+    /**
+     * Gets the grid.
+     *
+     * @return the grid
+     */
+    public Node[][] getGrid(){
+        return grid;
+    }
+
+    /**
+     * Gets the flat store of the grid's cells.
+     *
+     * @return the grid store
+     */
+    public GridStore getGridStore(){
+        return gridStore;
+    }
+
+    /**
+     * Gets the pathfinder used by PathfindingUtils.findPath() on this grid.
+     *
+     * @return the pathfinder type
+     */
+    public PathfinderType getPathfinderType(){
+        return pathfinderType;
+    }
+
+    /**
+     * Sets the pathfinder used by PathfindingUtils.findPath() on this grid.
+     *
+     * @param pathfinderType the pathfinder type
+     */
+    public void setPathfinderType(PathfinderType pathfinderType){
+        this.pathfinderType = pathfinderType;
+    }
+
+    /**
+     * Gets the distance fields of this grid. These are only to be used from the render thread.
+     *
+     * @return the distance field cache
+     */
+    public DistanceFieldCache getDistanceFields(){
+        return distanceFields;
+    }
+
+    /**
+     * Gets the cache of paths found on this grid.
+     *
+     * @return the path cache
+     */
+    public PathCache getPathCache(){
+        return pathCache;
+    }
+
+    /**
+     * Gets the cluster graph used by the hierarchical pathfinder on this grid.
+     *
+     * @return the cluster graph
+     */
+    public ClusterGraph getClusterGraph(){
+        return clusterGraph;
+    }
+
+    /**
+     * Gets the log of nodes that have changed whether they are collidable. Only to be used from the render thread.
+     *
+     * @return the change log
+     */
+    public GridChangeLog getChangeLog(){
+        return changeLog;
+    }
+
+    /**
+     * Gets the regions of this grid, used to turn down searches between nodes that can't be walked between.
+     *
+     * @return the connected regions
+     */
+    public ConnectedRegions getRegions(){
+        return regions;
+    }
+
+    /**
+     * Gets the nodes each station on this grid can be used from.
+     *
+     * @return the access points
+     */
+    public AccessPoints getAccessPoints(){
+        return accessPoints;
+    }
+
+    /**
+     * Is cooperative boolean.
+     *
+     * @return whether chefs and customers on this grid plan around each other with the cooperative pathfinder
+     */
+    public boolean isCooperative(){
+        return cooperative;
+    }
+
+    /**
+     * Sets whether chefs and customers on this grid plan around each other with the cooperative pathfinder.
+     *
+     * @param cooperative the cooperative
+     */
+    public void setCooperative(boolean cooperative){
+        this.cooperative = cooperative;
+        //Built now so the first agent to plan doesn't pay for it
+        if(cooperative) getCooperativePathfinder();
+    }
+
+    /**
+     * Is path smoothing boolean.
+     *
+     * @return whether chefs and customers on this grid only steer towards the corners of their paths, cutting the corners they can see past
+     */
+    public boolean isPathSmoothing(){
+        return pathSmoothing;
+    }
+
+    /**
+     * Sets whether chefs and customers on this grid only steer towards the corners of their paths, cutting the corners they can see past.
+     *
+     * @param pathSmoothing the path smoothing
+     */
+    public void setPathSmoothing(boolean pathSmoothing){
+        this.pathSmoothing = pathSmoothing;
+    }
+
+    /**
+     * Gets the table of nodes reserved by the cooperative pathfinder. Only to be used from the render thread.
+     *
+     * @return the reservation table
+     */
+    public ReservationTable getReservationTable(){
+        return reservationTable;
+    }
+
+    /**
+     * Gets the cooperative pathfinder, creating it the first time it is asked for. Only to be used from the render thread.
+     *
+     * @return the cooperative pathfinder
+     */
+    public CooperativePathfinder getCooperativePathfinder(){
+        if(cooperativePathfinder == null){
+            cooperativePathfinder = new CooperativePathfinder(grid, reservationTable, CooperativePathfinder.DEFAULT_WINDOW);
+        }
+        return cooperativePathfinder;
+    }
+
+    /**
+     * Takes a D* Lite planner from the ones kept for this grid, making one if they are all in use. Only to be used from the render thread.
+     *
+     * @param owner the entity that will follow the plan, its own node never blocks it. Can be null
+     * @return a planner with no plan yet
+     */
+    public DStarLitePlanner obtainPlanner(IGridEntity owner){
+        DStarLitePlanner planner = freePlanners.poll();
+        if(planner == null) return new DStarLitePlanner(grid, owner);
+        planner.reset(owner);
+        return planner;
+    }
+
+    /**
+     * Hands a planner back to be reused, it must not be used again. Only to be used from the render thread.
+     *
+     * @param planner the planner
+     */
+    public void freePlanner(DStarLitePlanner planner){
+        planner.reset(null);
+        freePlanners.push(planner);
+    }
+
+    @Override
+    public void onNodeTypeChanged(Node node, NodeType oldType) {
+        distanceFields.onNodeTypeChanged(node, oldType);
+        pathCache.onNodeTypeChanged(node, oldType);
+        clusterGraph.onNodeTypeChanged(node, oldType);
+        changeLog.onNodeTypeChanged(node, oldType);
+        regions.onNodeTypeChanged(node, oldType);
+        accessPoints.onNodeTypeChanged(node, oldType);
+    }
+}
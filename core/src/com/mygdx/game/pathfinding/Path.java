@@ -0,0 +1,289 @@
+package com.mygdx.game.pathfinding;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
+
+import java.util.Arrays;
+
+/**
+ * A path being followed, kept in primitive arrays that are refilled in place rather than allocated again for each new path.
+ * Searches write their cells straight into a path they are given, so finding a path allocates nothing once the arrays are big enough.
+ * The cells are every node walked over, not including the start node, each packed into one int as x << 16 | y.
+ * The waypoints are the cells actually steered towards - every cell, or only the corners if the path is smoothed -
+ * each with the world position of the cell's centre.
+ * Paths are pooled, so an actor takes one when it is made and hands it back when it is finished with.
+ */
+public class Path implements Pool.Poolable {
+
+    //Paths are only used from the render thread
+    private static final Pool<Path> POOL = new Pool<Path>() {
+        @Override
+        protected Path newObject() {
+            return new Path();
+        }
+    };
+
+    private int[] cells;
+    private int cellCount;
+    private int[] waypoints;
+    private float[] worldX;
+    private float[] worldY;
+    private int waypointCount;
+
+    /**
+     * Instantiates a new empty Path, the arrays grow to fit the longest path it is given.
+     */
+    public Path(){
+        cells = new int[16];
+        cellCount = 0;
+        waypoints = new int[16];
+        worldX = new float[16];
+        worldY = new float[16];
+        waypointCount = 0;
+    }
+
+    /**
+     * Takes a path from the pool.
+     *
+     * @return an empty path
+     */
+    public static Path obtain(){
+        return POOL.obtain();
+    }
+
+    /**
+     * Hands a path back to the pool, it must not be used again.
+     *
+     * @param path the path
+     */
+    public static void free(Path path){
+        POOL.free(path);
+    }
+
+    /**
+     * Sets the cells of the path, forgetting its waypoints.
+     *
+     * @param gridPath the path in grid co-ordinates, not including the start node
+     */
+    public void setCells(Vector2[] gridPath){
+        clear();
+        if(cells.length < gridPath.length) cells = new int[Math.max(gridPath.length, cells.length * 2)];
+        for(int i = 0; i < gridPath.length; i++){
+            cells[i] = pack((int)gridPath[i].x, (int)gridPath[i].y);
+        }
+        cellCount = gridPath.length;
+    }
+
+    /**
+     * Sets the cells of the path to another path's, forgetting its waypoints. Nothing is allocated unless the other path is the longest yet.
+     *
+     * @param other the path to copy the cells of
+     */
+    public void setCells(Path other){
+        clear();
+        setCellCount(other.cellCount);
+        System.arraycopy(other.cells, 0, cells, 0, other.cellCount);
+    }
+
+    /**
+     * Adds a cell after the last one.
+     *
+     * @param gridX the grid x
+     * @param gridY the grid y
+     */
+    public void addCell(int gridX, int gridY){
+        setCellCount(cellCount + 1);
+        setCell(cellCount - 1, gridX, gridY);
+    }
+
+    /**
+     * Copies the cells out into a new array, in the same form as PathfindingUtils.findPath() gives.
+     *
+     * @return the path in grid co-ordinates
+     */
+    public Vector2[] toGridPath(){
+        Vector2[] gridPath = new Vector2[cellCount];
+        for(int i = 0; i < cellCount; i++){
+            gridPath[i] = new Vector2(getCellX(i), getCellY(i));
+        }
+        return gridPath;
+    }
+
+    /**
+     * Gets the number of cells.
+     *
+     * @return the cell count
+     */
+    public int getCellCount(){
+        return cellCount;
+    }
+
+    /**
+     * Gets the grid x of a cell.
+     *
+     * @param cell the index of the cell
+     * @return the grid x
+     */
+    public int getCellX(int cell){
+        return unpackX(cells[cell]);
+    }
+
+    /**
+     * Gets the grid y of a cell.
+     *
+     * @param cell the index of the cell
+     * @return the grid y
+     */
+    public int getCellY(int cell){
+        return unpackY(cells[cell]);
+    }
+
+    /**
+     * Adds a waypoint after the last one, its world position is set separately.
+     *
+     * @param cell the index of the cell steered towards
+     */
+    public void addWaypoint(int cell){
+        if(waypointCount == waypoints.length){
+            waypoints = Arrays.copyOf(waypoints, waypoints.length * 2);
+            worldX = Arrays.copyOf(worldX, waypoints.length);
+            worldY = Arrays.copyOf(worldY, waypoints.length);
+        }
+        waypoints[waypointCount] = cell;
+        worldX[waypointCount] = 0;
+        worldY[waypointCount] = 0;
+        waypointCount++;
+    }
+
+    /**
+     * Gets the number of waypoints.
+     *
+     * @return the waypoint count
+     */
+    public int getWaypointCount(){
+        return waypointCount;
+    }
+
+    /**
+     * Gets the cell a waypoint steers towards.
+     *
+     * @param waypoint the index of the waypoint
+     * @return the index of the cell
+     */
+    public int getWaypoint(int waypoint){
+        return waypoints[waypoint];
+    }
+
+    /**
+     * Sets the world position of a waypoint.
+     *
+     * @param waypoint the index of the waypoint
+     * @param x        the world x
+     * @param y        the world y
+     */
+    public void setWorldPosition(int waypoint, float x, float y){
+        worldX[waypoint] = x;
+        worldY[waypoint] = y;
+    }
+
+    /**
+     * Gets the world x of a waypoint.
+     *
+     * @param waypoint the index of the waypoint
+     * @return the world x
+     */
+    public float getWorldX(int waypoint){
+        return worldX[waypoint];
+    }
+
+    /**
+     * Gets the world y of a waypoint.
+     *
+     * @param waypoint the index of the waypoint
+     * @return the world y
+     */
+    public float getWorldY(int waypoint){
+        return worldY[waypoint];
+    }
+
+    /**
+     * Is empty boolean.
+     *
+     * @return whether there are no waypoints left to follow
+     */
+    public boolean isEmpty(){
+        return waypointCount == 0;
+    }
+
+    /**
+     * Copies the waypoints out into a new array.
+     *
+     * @return the index of the cell each waypoint steers towards
+     */
+    public int[] copyWaypoints(){
+        return Arrays.copyOf(waypoints, waypointCount);
+    }
+
+    /**
+     * Forgets the waypoints but keeps the cells.
+     */
+    public void clearWaypoints(){
+        waypointCount = 0;
+    }
+
+    /**
+     * Forgets the cells and the waypoints, the arrays are kept for the next path.
+     */
+    public void clear(){
+        cellCount = 0;
+        waypointCount = 0;
+    }
+
+    @Override
+    public void reset() {
+        clear();
+    }
+
+    //PathSmoother thins the waypoints out in place, moving the ones it keeps forwards and then cutting the count
+    void setWaypoint(int waypoint, int cell){
+        waypoints[waypoint] = cell;
+    }
+
+    void setWaypointCount(int waypointCount){
+        this.waypointCount = waypointCount;
+    }
+
+    //Searches backtrack from the end, so they size the cells first and then fill them in from the back.
+    //Growing keeps the cells already there, so a search can add to the end of a path
+    void setCellCount(int cellCount){
+        if(cells.length < cellCount) cells = Arrays.copyOf(cells, Math.max(cellCount, cells.length * 2));
+        this.cellCount = cellCount;
+    }
+
+    void setCell(int cell, int gridX, int gridY){
+        cells[cell] = pack(gridX, gridY);
+    }
+
+    //PathCache keeps its own copy of the packed cells, and copies them back out on a hit
+    int[] copyCells(){
+        return Arrays.copyOf(cells, cellCount);
+    }
+
+    void setCells(int[] packedCells){
+        clear();
+        setCellCount(packedCells.length);
+        System.arraycopy(packedCells, 0, cells, 0, packedCells.length);
+    }
+
+    static int unpackX(int packedCell){
+        return packedCell >>> 16;
+    }
+
+    static int unpackY(int packedCell){
+        return packedCell & 0xFFFF;
+    }
+
+    private static int pack(int x, int y){
+        return x << 16 | y;
+    }
+}
@@ -0,0 +1,158 @@
+package com.mygdx.game.pathfinding;
+
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.enums.PathfinderType;
+import com.mygdx.game.interfaces.IGridListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded least recently used cache of the paths found on one grid, keyed by the start, the resolved end node and the pathfinder used.
+ * Adding or removing a wall or station bumps the grid version and empties the cache, and a search that started before the change
+ * can't put its result in afterwards. Chefs and customers move every frame, so instead a cached path is checked on the way out
+ * and treated as a miss if one of them is now standing on it.
+ * Each path is kept as its packed cells, and a hit copies them into the caller's own Path rather than handing out a new copy.
+ * Searches run on the pathfinding threads, so every method is synchronized.
+ */
+public class PathCache implements IGridListener {
+
+    /**
+     * The number of paths kept if no capacity is given.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final GridStore store;
+    private final int height;
+    private final LinkedHashMap<Long, int[]> paths;
+    private int version;
+    private long hits;
+    private long misses;
+
+    /**
+     * Instantiates a new Path cache.
+     *
+     * @param grid     the grid
+     * @param capacity the most paths to keep
+     */
+    public PathCache(Node[][] grid, final int capacity){
+        store = GridStore.of(grid);
+        height = grid[0].length;
+        //Access order makes iteration go from least to most recently used, so the eldest entry is the one to drop
+        paths = new LinkedHashMap<Long, int[]>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest){
+                return size() > capacity;
+            }
+        };
+        version = 0;
+    }
+
+    /**
+     * Gets a cached path.
+     *
+     * @param start          the start node
+     * @param end            the resolved end node
+     * @param pathfinderType the pathfinder the path was found with
+     * @param path           the path to copy the cells into, left as it was on a miss
+     * @return whether there was a path that isn't blocked
+     */
+    public synchronized boolean get(Node start, Node end, PathfinderType pathfinderType, Path path){
+        Long key = toKey(start, end, pathfinderType);
+        int[] cells = paths.get(key);
+        if(cells == null){
+            misses++;
+            return false;
+        }
+        for(int cell : cells){
+            if(store.isCollidable(store.toIndex(Path.unpackX(cell), Path.unpackY(cell)))){
+                paths.remove(key);
+                misses++;
+                return false;
+            }
+        }
+        hits++;
+        path.setCells(cells);
+        return true;
+    }
+
+    /**
+     * Puts a path in the cache. Empty paths aren't kept, as they are usually down to a chef or customer in the way.
+     *
+     * @param start          the start node
+     * @param end            the resolved end node
+     * @param pathfinderType the pathfinder the path was found with
+     * @param path           the path found
+     * @param version        the grid version from before the search started
+     */
+    public synchronized void put(Node start, Node end, PathfinderType pathfinderType, Path path, int version){
+        if(path.getCellCount() == 0 || version != this.version) return;
+        paths.put(toKey(start, end, pathfinderType), path.copyCells());
+    }
+
+    /**
+     * Gets version.
+     *
+     * @return the grid version, bumped whenever a wall or station changes
+     */
+    public synchronized int getVersion(){
+        return version;
+    }
+
+    /**
+     * Empties the cache and bumps the grid version.
+     */
+    public synchronized void invalidate(){
+        version++;
+        paths.clear();
+    }
+
+    /**
+     * Gets hits.
+     *
+     * @return the number of times a cached path was used
+     */
+    public synchronized long getHits(){
+        return hits;
+    }
+
+    /**
+     * Gets misses.
+     *
+     * @return the number of times a path had to be searched for
+     */
+    public synchronized long getMisses(){
+        return misses;
+    }
+
+    /**
+     * Gets the number of paths cached.
+     *
+     * @return the size
+     */
+    public synchronized int size(){
+        return paths.size();
+    }
+
+    /**
+     * Sets the hit and miss counters back to 0.
+     */
+    public synchronized void resetCounters(){
+        hits = 0;
+        misses = 0;
+    }
+
+    @Override
+    public void onNodeTypeChanged(Node node, NodeType oldType) {
+        if(DistanceField.isStaticObstacle(oldType) != DistanceField.isStaticObstacle(node.getNodeType())) invalidate();
+    }
+
+    //Different pathfinders can find different paths of the same length, or longer ones, so they don't share entries
+    private Long toKey(Node start, Node end, PathfinderType pathfinderType){
+        long startIndex = start.getGridX() * height + start.getGridY();
+        long endIndex = end.getGridX() * height + end.getGridY();
+        return (((startIndex << 28) | endIndex) << 8) | pathfinderType.ordinal();
+    }
+}
@@ -0,0 +1,153 @@
+package com.mygdx.game.pathfinding;
+
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+
+/**
+ * Picks out the waypoints worth steering towards from a path of single steps.
+ * Compressing drops every node in the middle of a straight run, so only the corners are left.
+ * String pulling then drops the corners that can be cut, wherever there is a straight line of sight between the corners either side.
+ * The path itself is left alone, the waypoints are given as indexes into it so the nodes walked over can still be checked.
+ * Both work in place on a Path, with copies for paths given as arrays.
+ */
+public class PathSmoother {
+
+    private PathSmoother(){}
+
+    /**
+     * Finds the corners of a path. Steps spent waiting (a node repeated from the one before) are always kept.
+     *
+     * @param start the node the path starts from, which isn't part of it
+     * @param path  the path in grid co-ordinates
+     * @return the indexes of the nodes in the path to steer towards, always ending with the last one
+     */
+    public static int[] compress(Node start, Vector2[] path){
+        Path cells = new Path();
+        cells.setCells(path);
+        compress(start.getGridX(), start.getGridY(), cells, -1);
+        return cells.copyWaypoints();
+    }
+
+    /**
+     * Sets the waypoints of a path to its corners. Steps spent waiting (a node repeated from the one before) are always kept.
+     *
+     * @param startX    the x of the node the path starts from, which isn't part of it
+     * @param startY    the y of the node the path starts from
+     * @param path      the path, its waypoints are replaced
+     * @param keepIndex the index of a cell to keep even if it isn't a corner, or -1
+     */
+    public static void compress(int startX, int startY, Path path, int keepIndex){
+        path.clearWaypoints();
+        int cellCount = path.getCellCount();
+        int previousX = startX;
+        int previousY = startY;
+        for(int i = 0; i < cellCount - 1; i++){
+            int x = path.getCellX(i);
+            int y = path.getCellY(i);
+            int inX = x - previousX;
+            int inY = y - previousY;
+            int outX = path.getCellX(i + 1) - x;
+            int outY = path.getCellY(i + 1) - y;
+            boolean isWait = (inX == 0 && inY == 0) || (outX == 0 && outY == 0);
+            if(isWait || inX != outX || inY != outY || i == keepIndex) path.addWaypoint(i);
+            previousX = x;
+            previousY = y;
+        }
+        if(cellCount > 0) path.addWaypoint(cellCount - 1);
+    }
+
+    /**
+     * Finds the corners of a path and then cuts every corner it can see past.
+     * Only for paths without waiting steps, as cutting a corner changes when each node is reached.
+     *
+     * @param start the node the path starts from, which isn't part of it
+     * @param path  the path in grid co-ordinates
+     * @param grid  the grid
+     * @return the indexes of the nodes in the path to steer towards, always ending with the last one
+     */
+    public static int[] smooth(Node start, Vector2[] path, Node[][] grid){
+        Path cells = new Path();
+        cells.setCells(path);
+        smooth(start.getGridX(), start.getGridY(), cells, GridStore.of(grid));
+        return cells.copyWaypoints();
+    }
+
+    /**
+     * Sets the waypoints of a path to its corners, and then cuts every corner it can see past.
+     * Only for paths without waiting steps, as cutting a corner changes when each node is reached.
+     *
+     * @param startX the x of the node the path starts from, which isn't part of it
+     * @param startY the y of the node the path starts from
+     * @param path   the path, its waypoints are replaced
+     * @param store  the store of the grid
+     */
+    public static void smooth(int startX, int startY, Path path, GridStore store){
+        compress(startX, startY, path, -1);
+        int cornerCount = path.getWaypointCount();
+        int count = 0;
+        int anchorX = startX;
+        int anchorY = startY;
+        int i = 0;
+        while(i < cornerCount){
+            //The next corner is always in a straight line along the path, so can always be seen
+            int furthest = i;
+            while(furthest + 1 < cornerCount){
+                int candidate = path.getWaypoint(furthest + 1);
+                if(!hasLineOfSight(anchorX, anchorY, path.getCellX(candidate), path.getCellY(candidate), store)) break;
+                furthest++;
+            }
+            //Never ahead of the corner being read, so the corners can be overwritten as they go
+            int waypoint = path.getWaypoint(furthest);
+            path.setWaypoint(count++, waypoint);
+            anchorX = path.getCellX(waypoint);
+            anchorY = path.getCellY(waypoint);
+            i = furthest + 1;
+        }
+        path.setWaypointCount(count);
+    }
+
+    /**
+     * Has line of sight boolean.
+     * Every node the straight line between the centres of the two nodes passes through is checked.
+     * Where it passes exactly through a corner, both nodes beside the corner have to be open, so paths never squeeze diagonally between two obstacles.
+     *
+     * @param fromX the x of the node looked from
+     * @param fromY the y of the node looked from
+     * @param toX   the x of the node looked at
+     * @param toY   the y of the node looked at
+     * @param store the store of the grid
+     * @return whether nothing collidable is in the way
+     */
+    public static boolean hasLineOfSight(int fromX, int fromY, int toX, int toY, GridStore store){
+        int distanceX = Math.abs(toX - fromX);
+        int distanceY = Math.abs(toY - fromY);
+        int stepX = Integer.signum(toX - fromX);
+        int stepY = Integer.signum(toY - fromY);
+        int x = fromX;
+        int y = fromY;
+        int movedX = 0;
+        int movedY = 0;
+        while(movedX < distanceX || movedY < distanceY){
+            //Compares where the line crosses the next vertical and horizontal grid lines, without any division
+            long decision = (long)(1 + 2 * movedX) * distanceY - (long)(1 + 2 * movedY) * distanceX;
+            if(decision == 0){
+                if(!store.isWalkable(x + stepX, y) || !store.isWalkable(x, y + stepY)) return false;
+                x += stepX;
+                y += stepY;
+                movedX++;
+                movedY++;
+            }
+            else if(decision < 0){
+                x += stepX;
+                movedX++;
+            }
+            else{
+                y += stepY;
+                movedY++;
+            }
+            if(!store.isWalkable(x, y)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,183 @@
+package com.mygdx.game.pathfinding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The space-time reservation table shared by every agent planning cooperatively on one grid.
+ * Time is counted in steps, the time it takes to walk from one node to the next, and an agent reserves each node of its plan
+ * for the step it will be there. An agent that has reached its goal keeps the goal reserved until it plans again.
+ * Not thread safe - only to be used from the render thread.
+ */
+public class ReservationTable {
+
+    /**
+     * The length of a step in seconds, the time chefs and customers take to walk one 32 pixel tile at 100 pixels a second.
+     */
+    public static final float STEP_TIME = 0.32f;
+
+    private final Map<Long, Object> reservations;
+    private final Map<Object, List<Long>> agentReservations;
+    private final Map<Integer, Rest> restingAgents;
+    private final Map<Object, Integer> restingCells;
+    private float time;
+    private int currentStep;
+
+    //An agent that stays on its goal from a step onwards
+    private static class Rest {
+        final Object agent;
+        final int fromStep;
+
+        Rest(Object agent, int fromStep){
+            this.agent = agent;
+            this.fromStep = fromStep;
+        }
+    }
+
+    /**
+     * Instantiates a new Reservation table.
+     */
+    public ReservationTable(){
+        reservations = new HashMap<>();
+        agentReservations = new IdentityHashMap<>();
+        restingAgents = new HashMap<>();
+        restingCells = new IdentityHashMap<>();
+        time = 0;
+        currentStep = 0;
+    }
+
+    /**
+     * Moves the clock on, dropping reservations for steps that have passed. Should be called once per frame.
+     *
+     * @param delta the time since the last frame in seconds
+     */
+    public void update(float delta){
+        time += delta;
+        int step = (int)(time / STEP_TIME);
+        if(step == currentStep) return;
+        currentStep = step;
+        for(List<Long> keys : agentReservations.values()){
+            Iterator<Long> iterator = keys.iterator();
+            while(iterator.hasNext()){
+                Long key = iterator.next();
+                if(getStep(key) >= currentStep) continue;
+                reservations.remove(key);
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets current step.
+     *
+     * @return the step the clock is on
+     */
+    public int getCurrentStep(){
+        return currentStep;
+    }
+
+    /**
+     * Is free boolean.
+     *
+     * @param cell  the grid index of the node
+     * @param step  the step
+     * @param agent the agent asking
+     * @return whether no other agent has reserved the node for that step
+     */
+    public boolean isFree(int cell, int step, Object agent){
+        Object owner = reservations.get(toKey(cell, step));
+        if(owner != null && owner != agent) return false;
+        Rest rest = restingAgents.get(cell);
+        return rest == null || rest.agent == agent || step < rest.fromStep;
+    }
+
+    /**
+     * Is swap boolean.
+     * Two agents can't walk through each other, so moving from one node to another is not allowed if another agent is making the opposite move.
+     *
+     * @param from  the grid index of the node moved from
+     * @param to    the grid index of the node moved to
+     * @param step  the step the move starts on
+     * @param agent the agent asking
+     * @return whether another agent is moving the other way at the same time
+     */
+    public boolean isSwap(int from, int to, int step, Object agent){
+        Object other = reservations.get(toKey(to, step));
+        return other != null && other != agent && other == reservations.get(toKey(from, step + 1));
+    }
+
+    /**
+     * Reserves a node for a step.
+     *
+     * @param cell  the grid index of the node
+     * @param step  the step
+     * @param agent the agent reserving it
+     */
+    public void reserve(int cell, int step, Object agent){
+        Long key = toKey(cell, step);
+        reservations.put(key, agent);
+        List<Long> keys = agentReservations.get(agent);
+        if(keys == null){
+            keys = new ArrayList<>();
+            agentReservations.put(agent, keys);
+        }
+        keys.add(key);
+    }
+
+    /**
+     * Reserves a node from a step onwards, for an agent that has reached its goal.
+     * A node another agent is already resting on is left to that agent, e.g. when two agents share a goal.
+     *
+     * @param cell     the grid index of the node
+     * @param fromStep the step the agent gets there
+     * @param agent    the agent reserving it
+     * @return whether the node was reserved
+     */
+    public boolean reserveResting(int cell, int fromStep, Object agent){
+        Rest rest = restingAgents.get(cell);
+        if(rest != null && rest.agent != agent) return false;
+        Integer oldCell = restingCells.put(agent, cell);
+        if(oldCell != null && oldCell != cell) restingAgents.remove(oldCell);
+        restingAgents.put(cell, new Rest(agent, fromStep));
+        return true;
+    }
+
+    /**
+     * Releases everything an agent has reserved.
+     *
+     * @param agent the agent
+     */
+    public void release(Object agent){
+        List<Long> keys = agentReservations.remove(agent);
+        if(keys != null){
+            for(Long key : keys){
+                if(reservations.get(key) == agent) reservations.remove(key);
+            }
+        }
+        Integer cell = restingCells.remove(agent);
+        if(cell == null) return;
+        Rest rest = restingAgents.get(cell);
+        if(rest != null && rest.agent == agent) restingAgents.remove(cell);
+    }
+
+    /**
+     * Gets the number of node and step pairs reserved.
+     *
+     * @return the reservation count
+     */
+    public int getReservationCount(){
+        return reservations.size();
+    }
+
+    private static Long toKey(int cell, int step){
+        return ((long)step << 32) | cell;
+    }
+
+    private static int getStep(Long key){
+        return (int)(key >> 32);
+    }
+}
@@ -0,0 +1,270 @@
+package com.mygdx.game.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * The scratch state of a single grid search - the cost and parent of every node, the closed list and the open list.
+ * All of it lives in flat arrays indexed by x * height + y rather than on the shared Node objects,
+ * so any number of searches can run on the same grid at once as long as each has its own context.
+ * Each entry is stamped with the generation of the search that wrote it, so starting a new search is O(1) rather than clearing the grid.
+ */
+public class SearchContext {
+
+    //Each thread that pathfinds gets its own context, which is reused for every search it runs
+    private static final ThreadLocal<SearchContext> THREAD_CONTEXT = new ThreadLocal<SearchContext>(){
+        @Override
+        protected SearchContext initialValue() {
+            return new SearchContext();
+        }
+    };
+
+    private float[] costs;
+    private int[] parents;
+    private int[] visitedGeneration;
+    private int[] closedGeneration;
+    private final IndexedMinHeap openList;
+    private int generation;
+    private int width;
+    private int height;
+    private int closedCount;
+    //The state of the search going the other way in a bidirectional search, only created if one is run
+    private SearchContext reverseContext;
+    //Scratch space for the breadth first searches inside a cluster of the ClusterGraph
+    private int[] clusterQueue;
+    private int[] clusterDistances;
+
+    /**
+     * Instantiates a new Search context, the arrays are sized by the first call to beginSearch().
+     */
+    public SearchContext(){
+        costs = new float[0];
+        parents = new int[0];
+        visitedGeneration = new int[0];
+        closedGeneration = new int[0];
+        openList = new IndexedMinHeap(0);
+        generation = 0;
+        closedCount = 0;
+        reverseContext = null;
+        clusterQueue = new int[0];
+        clusterDistances = new int[0];
+    }
+
+    /**
+     * Gets the search context of the current thread.
+     *
+     * @return the search context
+     */
+    public static SearchContext forCurrentThread(){
+        return THREAD_CONTEXT.get();
+    }
+
+    /**
+     * Starts a new search on a grid of the given size, forgetting everything from the previous search.
+     *
+     * @param width  the grid width
+     * @param height the grid height
+     */
+    public void beginSearch(int width, int height){
+        this.width = width;
+        this.height = height;
+        int cellCount = width * height;
+        if(cellCount > costs.length){
+            costs = new float[cellCount];
+            parents = new int[cellCount];
+            visitedGeneration = new int[cellCount];
+            closedGeneration = new int[cellCount];
+            generation = 0;
+        }
+        openList.ensureCapacity(cellCount);
+        closedCount = 0;
+        generation++;
+        //Only happens after ~2 billion searches, the stamps are wiped so old ones can't match again
+        if(generation == Integer.MAX_VALUE){
+            Arrays.fill(visitedGeneration, 0);
+            Arrays.fill(closedGeneration, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Converts a grid co-ordinate to a flat index.
+     *
+     * @param gridX the grid x
+     * @param gridY the grid y
+     * @return the index
+     */
+    public int toIndex(int gridX, int gridY){
+        return gridX * height + gridY;
+    }
+
+    /**
+     * Gets the grid x of a flat index.
+     *
+     * @param index the index
+     * @return the grid x
+     */
+    public int toX(int index){
+        return index / height;
+    }
+
+    /**
+     * Gets the grid y of a flat index.
+     *
+     * @param index the index
+     * @return the grid y
+     */
+    public int toY(int index){
+        return index % height;
+    }
+
+    /**
+     * Gets the width of the grid being searched.
+     *
+     * @return the width
+     */
+    public int getWidth(){
+        return width;
+    }
+
+    /**
+     * Gets the height of the grid being searched.
+     *
+     * @return the height
+     */
+    public int getHeight(){
+        return height;
+    }
+
+    /**
+     * Has cost boolean.
+     *
+     * @param index the index
+     * @return whether the node has been reached by this search
+     */
+    public boolean hasCost(int index){
+        return visitedGeneration[index] == generation;
+    }
+
+    /**
+     * Gets the cost of reaching a node from the start, infinity if it hasn't been reached.
+     *
+     * @param index the index
+     * @return the cost
+     */
+    public float getCost(int index){
+        return hasCost(index) ? costs[index] : Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Gets the node a node was reached from, -1 for the start node.
+     *
+     * @param index the index
+     * @return the parent index
+     */
+    public int getParent(int index){
+        return parents[index];
+    }
+
+    /**
+     * Records the cost of reaching a node and the node it was reached from.
+     *
+     * @param index  the index
+     * @param cost   the cost from the start
+     * @param parent the parent index, -1 for the start node
+     */
+    public void setCost(int index, float cost, int parent){
+        costs[index] = cost;
+        parents[index] = parent;
+        visitedGeneration[index] = generation;
+    }
+
+    /**
+     * Is closed boolean.
+     *
+     * @param index the index
+     * @return whether the node has already been expanded
+     */
+    public boolean isClosed(int index){
+        return closedGeneration[index] == generation;
+    }
+
+    /**
+     * Adds a node to the closed list.
+     *
+     * @param index the index
+     */
+    public void setClosed(int index){
+        closedGeneration[index] = generation;
+        closedCount++;
+    }
+
+    /**
+     * Gets the number of nodes added to the closed list since the search began, i.e. the number of nodes expanded.
+     *
+     * @return the closed count
+     */
+    public int getClosedCount(){
+        return closedCount;
+    }
+
+    /**
+     * Gets the context of the search going from the end back to the start in a bidirectional search.
+     * It belongs to this context, so it is never used by two searches at once.
+     *
+     * @return the reverse context
+     */
+    public SearchContext getReverseContext(){
+        if(reverseContext == null) reverseContext = new SearchContext();
+        return reverseContext;
+    }
+
+    /**
+     * Gets the queue for a breadth first search inside a cluster, at least as long as a cluster has nodes.
+     *
+     * @param size the number of nodes in a cluster
+     * @return the cluster queue
+     */
+    public int[] getClusterQueue(int size){
+        if(clusterQueue.length < size) clusterQueue = new int[size];
+        return clusterQueue;
+    }
+
+    /**
+     * Gets the distances of the nodes of a cluster for a breadth first search inside it, at least as long as a cluster has nodes.
+     *
+     * @param size the number of nodes in a cluster
+     * @return the cluster distances
+     */
+    public int[] getClusterDistances(int size){
+        if(clusterDistances.length < size) clusterDistances = new int[size];
+        return clusterDistances;
+    }
+
+    /**
+     * Gets the open list.
+     *
+     * @return the open list
+     */
+    public IndexedMinHeap getOpenList(){
+        return openList;
+    }
+
+    /**
+     * Backtracks through the parents to get the complete path to a node, the start node is not included.
+     * The path is added after any cells already in it, so a path can be joined together from several searches.
+     *
+     * @param endIndex the index of the last node on the path
+     * @param path     the path to add it to
+     */
+    public void backTrackPath(int endIndex, Path path){
+        int length = 0;
+        for(int current = endIndex; parents[current] != -1; current = parents[current]) length++;
+        int offset = path.getCellCount();
+        path.setCellCount(offset + length);
+        int current = endIndex;
+        for(int i = offset + length - 1; i >= offset; i--){
+            path.setCell(i, toX(current), toY(current));
+            current = parents[current];
+        }
+    }
+}
@@ -11,26 +11,25 @@ import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.TimeUtils;
 import com.mygdx.game.Chef;
 import com.mygdx.game.Customer;
 import com.mygdx.game.Match;
 import com.mygdx.game.Node;
 import com.mygdx.game.enums.DifficultyLevel;
-import com.mygdx.game.enums.NodeType;
 import com.mygdx.game.foodClasses.Food;
 import com.mygdx.game.foodClasses.FoodItems;
-import com.mygdx.game.interfaces.IGridEntity;
-import com.mygdx.game.interfaces.IInteractable;
+import com.mygdx.game.pathfinding.NavigationGrid;
 import com.mygdx.game.stations.ServingStation;
 import com.mygdx.game.stations.Stations;
+import com.mygdx.game.threads.PathfindingService;
+import com.mygdx.game.utils.MapGeometry;
+import com.mygdx.game.utils.PathfindingUtils;
 import com.mygdx.game.utils.SoundUtils;
 import com.mygdx.game.utils.TileMapUtils;
 import com.mygdx.game.utils.TimerUtils;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -185,6 +184,7 @@ public class GameScreen implements Screen {
     public void show() {
         if(getMainMenu().isCreateNewMatch()){
             getMainMenu().setCreateNewMatch(false);
+            endMatch();
             this.match = new Match(5);
             match.setDifficultyLevel(getMainMenu().getStoredDifficultyLevel());
             System.out.println("Difficulty: " + match.getDifficultyLevel().name());
@@ -218,12 +218,17 @@ public class GameScreen implements Screen {
             availableServingStations = new ArrayList<>();
 
             grid = TileMapUtils.tileMapToArray(tiledMap);
+            PathfindingUtils.setPathfinderType(grid, TileMapUtils.getPathfinderType(tiledMap));
+            NavigationGrid.of(grid).setCooperative(TileMapUtils.isCooperative(tiledMap));
+            NavigationGrid.of(grid).setPathSmoothing(TileMapUtils.isPathSmoothing(tiledMap));
+            PathfindingService.setExpansionBudget(TileMapUtils.getExpansionBudget(tiledMap));
             System.out.println(TileMapUtils.tileMapToString(grid));
 
             spawnChefs();
 
             Stations.clearServingStations();
             Stations.createAllStations(grid, tiledMap);
+            Customer.buildDistanceFields(grid, tiledMap);
 
             // Customer spawning
             setCanSpawnCustomers(true);
@@ -247,7 +252,8 @@ public class GameScreen implements Screen {
         chefs[selectedChef].move(tiledMap, grid, getMainMenu().getCamera(), match);
         for(Chef chef : chefs){
             if(chef == chefs[selectedChef]) continue;
-            if(!chef.getPathfindingActor().getWorldPath().isEmpty()){
+            chef.getPathfindingActor().updatePath();
+            if(!chef.getPathfindingActor().getPath().isEmpty()){
                 chef.getPathfindingActor().followPath(chef.getSprite(), 100f, chef.getMovementTextures());
             }
         }
@@ -266,6 +272,22 @@ public class GameScreen implements Screen {
         chefs[1].setTileMapPosition(7,10,grid,tiledMap);
     }
 
+    //Gives up what the chefs and customers of the match hold - their paths and their references to the atlas - so the reference counts
+    //don't grow with every match. Called before a new match is set up and once the match is over, ending it again does nothing
+    private void endMatch(){
+        if(chefs != null){
+            for(Chef chef : chefs){
+                chef.getPathfindingActor().dispose();
+                chef.releaseTextures();
+            }
+            chefs = null;
+        }
+        if(customers == null) return;
+        for(Customer customer : new ArrayList<>(customers)){
+            customer.remove();
+        }
+    }
+
     private void swapChef(){
         if(Gdx.input.isKeyJustPressed(Input.Keys.SPACE)){
             selectedChef = selectedChef == chefs.length - 1 ? 0 : selectedChef + 1;
@@ -275,9 +297,8 @@ public class GameScreen implements Screen {
 
     private void spawnCustomer() {
         if(getAvailableServingStations().isEmpty()) return;
-        Texture customerTexture = new Texture("badlogic.jpg");
         Customer customer = new Customer(50);
-        customer.getSprite().setPosition(TileMapUtils.coordToPosition(8, tiledMap), TileMapUtils.coordToPosition(1, tiledMap));
+        customer.getSprite().setPosition(MapGeometry.of(tiledMap).toWorldX(8), MapGeometry.of(tiledMap).toWorldY(1));
         getCustomers().add(customer);
         customer.onSpawn(grid, tiledMap);
         System.out.println("Customer spawned with order: "+ customer.getOrder().getName());
@@ -288,11 +309,12 @@ public class GameScreen implements Screen {
     @Override
     public void render(float delta) {
         //System.out.println("FPS: " + Gdx.graphics.getFramesPerSecond());
+        PathfindingService.newFrame();
+        NavigationGrid.of(grid).getReservationTable().update(delta);
         getMainMenu().getCamera().update();
         Gdx.gl.glClearColor(0.89f,0.97f,0.99f,1f);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
         orthogonalTiledMapRenderer.setView(getMainMenu().getCamera());
-        updateGridEntities(chefs, getRenderedFoods(), getCustomers());
 
         game.batch.begin();
         game.batch.setProjectionMatrix(getMainMenu().getCamera().combined);
@@ -322,7 +344,7 @@ public class GameScreen implements Screen {
             //chef.drawFoodOnStack(game.batch);
             chef.drawSprites(game.batch);
         }
-        for(Food food : getRenderedFoods()){game.batch.draw(food.getSprite().getTexture(), food.getSprite().getX() + 96, food.getSprite().getY() + 96);}
+        for(Food food : getRenderedFoods()){game.batch.draw(food.getSprite(), food.getSprite().getX() + 96, food.getSprite().getY() + 96);}
 
         for(Customer customer: new ArrayList<>(getCustomers())){
             customer.getSprite().draw(game.batch);
@@ -346,6 +368,9 @@ public class GameScreen implements Screen {
         }
         if(match.getCustomerServed() == match.getDifficultyLevel().getCustomerTarget()){
             game.setScreen(new WinScreen(this, match.getTimer()));
+            //The match is over, a new one is set up the next time the screen is shown
+            endMatch();
+            return;
         }
         runTimers();
     }
@@ -357,40 +382,6 @@ public class GameScreen implements Screen {
         }
     }
 
-    private void updateGridEntities(Chef[] chefs, List<Food> renderedFoods, List<Customer> customers){
-        List<IGridEntity> gridEntities = new ArrayList<>();
-        gridEntities.addAll(Arrays.asList(chefs));
-        gridEntities.addAll(renderedFoods);
-        gridEntities.addAll(customers);
-
-        for(IGridEntity gridEntity : gridEntities){
-            if(gridEntity.getPreviousGridPosition() != null){
-                if(gridEntity.getPreviousGridPosition().equals(new Vector2(gridEntity.getSprite().getX(), gridEntity.getSprite().getY()))) continue;
-            }
-            resetGridEntityProperties(gridEntity);
-            setGridEntityProperties(gridEntity);
-        }
-    }
-
-    private void resetGridEntityProperties(IGridEntity gridEntity){
-        if(gridEntity.getPreviousGridPosition() != null){
-            Node oldNode = grid[(int)gridEntity.getPreviousGridPosition().x][(int)gridEntity.getPreviousGridPosition().y];
-            oldNode.setGridEntity(null);
-            oldNode.setInteractable(null);
-            oldNode.setNodeType(NodeType.EMPTY);
-        }
-    }
-
-    private void setGridEntityProperties(IGridEntity gridEntity){
-        Node newNode = grid[TileMapUtils.positionToCoord(gridEntity.getSprite().getX(), tiledMap)][TileMapUtils.positionToCoord(gridEntity.getSprite().getY(), tiledMap)];
-        if(gridEntity instanceof Chef) newNode.setNodeType(NodeType.CHEF);
-        else if(gridEntity instanceof Food) newNode.setNodeType(NodeType.FOOD);
-        else if(gridEntity instanceof Customer) newNode.setNodeType(NodeType.CUSTOMER);
-        newNode.setGridEntity(gridEntity);
-        if(newNode.isInteractable()) newNode.setInteractable((IInteractable) gridEntity);
-        gridEntity.setCurrentGridPosition(new Vector2(newNode.getGridX(), newNode.getGridY()));
-    }
-
     @Override
     public void resize(int width, int height) {
         getMainMenu().resize(width, height);
@@ -417,9 +408,7 @@ public class GameScreen implements Screen {
         game.batch.dispose();
         arrowBlack.dispose();
         arrowGreen.dispose();
-        for(Chef chef : chefs){
-            chef.getSprite().getTexture().dispose();
-        }
+        endMatch();
         tiledMap.dispose();
         orthogonalTiledMapRenderer.dispose();
     }
@@ -2,6 +2,8 @@ package com.mygdx.game.screens;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.mygdx.game.threads.PathfindingService;
+import com.mygdx.game.utils.TextureAtlasUtils;
 
 /**
  * The type Piazza panic.
@@ -23,4 +25,11 @@ public class PiazzaPanic extends Game {
         batch = new SpriteBatch();
         this.setScreen(new MainMenu(this));
     }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        PathfindingService.shutdown();
+        TextureAtlasUtils.dispose();
+    }
 }
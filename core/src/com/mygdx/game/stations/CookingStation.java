@@ -1,7 +1,7 @@
 package com.mygdx.game.stations;
 
 import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.mygdx.game.Chef;
 import com.mygdx.game.Match;
@@ -45,7 +45,7 @@ public class CookingStation extends Station implements ITimer {
      * @param canLeaveUnattended Whether the station can be left alone, currently NYI
      * @param stationTexture     the station texture
      */
-    public CookingStation(float operationTimer, boolean canLeaveUnattended, Texture stationTexture) {
+    public CookingStation(float operationTimer, boolean canLeaveUnattended, TextureRegion stationTexture) {
         super(null, stationTexture);
         this.operationTimer = operationTimer;
         this.canLeaveUnattended = canLeaveUnattended;
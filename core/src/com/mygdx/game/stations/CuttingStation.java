@@ -1,6 +1,6 @@
 package com.mygdx.game.stations;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.mygdx.game.Chef;
 import com.mygdx.game.Match;
@@ -20,7 +20,7 @@ public class CuttingStation extends CookingStation{
      * @param canLeaveUnattended the can leave unattended
      * @param stationTexture     the station texture
      */
-    public CuttingStation(float operationTimer, boolean canLeaveUnattended, Texture stationTexture) {
+    public CuttingStation(float operationTimer, boolean canLeaveUnattended, TextureRegion stationTexture) {
         //Set sprite, timer and canLeaveUnattended Here
         super(operationTimer, canLeaveUnattended, stationTexture);
         operationLookupTable.put(FoodItems.LETTUCE.getName(), FoodItems.CHOPPED_LETTUCE);
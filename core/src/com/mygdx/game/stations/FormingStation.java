@@ -1,6 +1,6 @@
 package com.mygdx.game.stations;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.mygdx.game.Chef;
 import com.mygdx.game.Match;
@@ -32,7 +32,7 @@ public class FormingStation extends CookingStation {
      * @param canLeaveUnattended the can leave unattended
      * @param stationTexture     the station texture
      */
-    public FormingStation(float operationTimer, boolean canLeaveUnattended, Texture stationTexture) {
+    public FormingStation(float operationTimer, boolean canLeaveUnattended, TextureRegion stationTexture) {
         super(operationTimer, canLeaveUnattended, stationTexture);
         operationLookupTable_Forming = new HashMap<>();
         this.inventory = new Stack<>();
@@ -51,11 +51,22 @@ public class FormingStation extends CookingStation {
      * @return the food found from combining every item in the inventory, or null if nothing is found
      */
     private Food groupHashMapSwap() {
+        Food recipe = findRecipe(inventory);
+        return recipe == null ? null : new Food(recipe);
+    }
+
+    /**
+     * Finds the recipe made from exactly the given foods, in any order.
+     *
+     * @param foods the foods
+     * @return the finished food the recipe makes, shared by every match so it should be copied before use, or null if no recipe matches
+     */
+    public Food findRecipe(Collection<Food> foods) {
         //Convert the inventory into a string list
         List<String> components = new ArrayList<>();
-        for(Food food: inventory)components.add(food.getName());
+        for(Food food: foods)components.add(food.getName());
         for(List<String> recipe: operationLookupTable_Forming.keySet()){
-            if(recipe.containsAll(components) && recipe.size() == components.size()) return new Food(operationLookupTable_Forming.get(recipe));
+            if(recipe.containsAll(components) && recipe.size() == components.size()) return operationLookupTable_Forming.get(recipe);
         }
         return null;
     }
@@ -1,6 +1,6 @@
 package com.mygdx.game.stations;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.mygdx.game.Chef;
 import com.mygdx.game.Match;
@@ -20,7 +20,7 @@ public class FryingStation extends CookingStation{
      * @param canLeaveUnattended the can leave unattended
      * @param stationTexture     the station texture
      */
-    public FryingStation(float operationTimer, boolean canLeaveUnattended, Texture stationTexture) {
+    public FryingStation(float operationTimer, boolean canLeaveUnattended, TextureRegion stationTexture) {
         super(operationTimer, canLeaveUnattended, stationTexture);
         operationLookupTable.put(FoodItems.BUN.getName(), FoodItems.TOASTED_BUN);
         operationLookupTable.put(FoodItems.RAW_PATTY.getName(), FoodItems.COOKED_PATTY);
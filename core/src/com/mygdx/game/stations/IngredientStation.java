@@ -1,6 +1,6 @@
 package com.mygdx.game.stations;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.mygdx.game.Chef;
 import com.mygdx.game.Match;
@@ -19,7 +19,7 @@ public class IngredientStation extends Station   {
      * @param stock          the stock
      * @param stationTexture the station texture
      */
-    public IngredientStation (Food stock, Texture stationTexture) {
+    public IngredientStation (Food stock, TextureRegion stationTexture) {
         super(stock, stationTexture);
     }
 
@@ -1,7 +1,7 @@
 package com.mygdx.game.stations;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.mygdx.game.*;
 import com.mygdx.game.screens.GameScreen;
@@ -20,7 +20,7 @@ public class ServingStation extends Station{
      *
      * @param stationTexture the station texture
      */
-    public ServingStation(Texture stationTexture){
+    public ServingStation(TextureRegion stationTexture){
         super(null, stationTexture);
         currentCustomer = null;
         GameScreen.getAvailableServingStations().add(this);
@@ -44,8 +44,9 @@ public class ServingStation extends Station{
      */
     public void setCurrentCustomer(Customer customer){
         currentCustomer = customer;
-        Texture orderTexture = customer.getOrder().getSprite().getTexture();
-        orderSprite = new Sprite(orderTexture, STATION_SIZE, STATION_SIZE);
+        orderSprite = new Sprite((TextureRegion) customer.getOrder().getSprite());
+        orderSprite.setSize(STATION_SIZE, STATION_SIZE);
+        orderSprite.setOriginCenter();
         orderSprite.setScale(0.0625f);
         orderSprite.setPosition(getSprite().getX(), getSprite().getY() + 7);
     }
@@ -1,18 +1,19 @@
 package com.mygdx.game.stations;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.math.Vector2;
 import com.mygdx.game.Chef;
 import com.mygdx.game.Match;
 import com.mygdx.game.Node;
+import com.mygdx.game.SpatialHash;
 import com.mygdx.game.enums.NodeType;
 import com.mygdx.game.foodClasses.Food;
 import com.mygdx.game.interfaces.IGridEntity;
 import com.mygdx.game.interfaces.IInteractable;
+import com.mygdx.game.utils.MapGeometry;
 import com.mygdx.game.utils.PathfindingUtils;
-import com.mygdx.game.utils.TileMapUtils;
 
 /**
  * The type Station.
@@ -34,9 +35,12 @@ public class Station implements IInteractable, IGridEntity {
      * @param stock      the item stored within the station
      * @param stationTexture the station texture
      */
-    public Station(Food stock, Texture stationTexture){
+    public Station(Food stock, TextureRegion stationTexture){
         this.stock = stock;
-        this.stationSprite = new Sprite(stationTexture, STATION_SIZE, STATION_SIZE);
+        this.stationSprite = new Sprite(stationTexture);
+        this.stationSprite.setSize(STATION_SIZE, STATION_SIZE);
+        //Scaled about the middle of the sized sprite, not the middle of the region it was made from
+        this.stationSprite.setOriginCenter();
         this.stationSprite.setScale(0.125f);
     }
 
@@ -54,7 +58,8 @@ public class Station implements IInteractable, IGridEntity {
         grid[mapPosX][mapPosY].setNodeType(NodeType.STATION);
         grid[mapPosX][mapPosY].setGridEntity(this);
         grid[mapPosX][mapPosY].setInteractable(this);
-        stationSprite.setPosition(TileMapUtils.coordToPosition(mapPosX, tiledMap), TileMapUtils.coordToPosition(mapPosY, tiledMap));
+        SpatialHash.of(grid).put(this, mapPosX, mapPosY);
+        stationSprite.setPosition(MapGeometry.of(tiledMap).toWorldX(mapPosX), MapGeometry.of(tiledMap).toWorldY(mapPosY));
     }
     
     @Override
@@ -1,13 +1,13 @@
 package com.mygdx.game.stations;
 
 import com.badlogic.gdx.Preferences;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.mygdx.game.Node;
 import com.mygdx.game.foodClasses.Food;
 import com.mygdx.game.foodClasses.FoodItems;
+import com.mygdx.game.utils.TextureAtlasUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -20,21 +20,21 @@ public class Stations {
      * The list of all serving stations in the level
      */
     public static List<ServingStation> servingStations = new ArrayList<>();
-    public static CuttingStation CHOPPING_BOARD = new CuttingStation(10, true, new Texture("FoodStations/choppingBoard.png"));
-    public static FryingStation FRYER = new FryingStation(10, true, new Texture("FoodStations/fryer.png"));
-    public static FormingStation PREP_AREA = new FormingStation(10, true, new Texture("FoodStations/prepArea.png"));
-    public static IngredientStation LETTUCE_STATION = new IngredientStation(FoodItems.LETTUCE, new Texture("FoodStations/lettuceStation.png"));
-    public static IngredientStation TOMATO_STATION = new IngredientStation(FoodItems.TOMATO, new Texture("FoodStations/TomatoStation.png"));
-    public static IngredientStation ONION_STATION = new IngredientStation(FoodItems.ONION, new Texture("FoodStations/OnionStation.png"));
-    public static IngredientStation BEEF_MINCE_STATION = new IngredientStation(FoodItems.BEEF_MINCE, new Texture("FoodStations/beefMinceStation.png"));
-    public static IngredientStation BURGER_BUN_STATION = new IngredientStation(FoodItems.BUN, new Texture("FoodStations/bunsStation.png"));
-    public static IngredientStation CHEESE_STATION = new IngredientStation(FoodItems.CHEESE, new Texture("stationSprite.png"));
-    public static IngredientStation WATER_BUCKET_STATION = new IngredientStation(FoodItems.WATER_BUCKET, new Texture("FoodItems/waterBucket.png"));
-    public static ServingStation SERVING_STATION_1 = new ServingStation(new Texture("FoodStations/serving_station.png"));
-    public static ServingStation SERVING_STATION_2 = new ServingStation(new Texture("FoodStations/serving_station.png"));
-    public static ServingStation SERVING_STATION_3 = new ServingStation(new Texture("FoodStations/serving_station.png"));
-    public static ServingStation SERVING_STATION_4 = new ServingStation(new Texture("FoodStations/serving_station.png"));
-    public static ServingStation SERVING_STATION_5 = new ServingStation(new Texture("FoodStations/serving_station.png"));
+    public static CuttingStation CHOPPING_BOARD = new CuttingStation(10, true, TextureAtlasUtils.acquireRegion("FoodStations/choppingBoard.png"));
+    public static FryingStation FRYER = new FryingStation(10, true, TextureAtlasUtils.acquireRegion("FoodStations/fryer.png"));
+    public static FormingStation PREP_AREA = new FormingStation(10, true, TextureAtlasUtils.acquireRegion("FoodStations/prepArea.png"));
+    public static IngredientStation LETTUCE_STATION = new IngredientStation(FoodItems.LETTUCE, TextureAtlasUtils.acquireRegion("FoodStations/lettuceStation.png"));
+    public static IngredientStation TOMATO_STATION = new IngredientStation(FoodItems.TOMATO, TextureAtlasUtils.acquireRegion("FoodStations/TomatoStation.png"));
+    public static IngredientStation ONION_STATION = new IngredientStation(FoodItems.ONION, TextureAtlasUtils.acquireRegion("FoodStations/OnionStation.png"));
+    public static IngredientStation BEEF_MINCE_STATION = new IngredientStation(FoodItems.BEEF_MINCE, TextureAtlasUtils.acquireRegion("FoodStations/beefMinceStation.png"));
+    public static IngredientStation BURGER_BUN_STATION = new IngredientStation(FoodItems.BUN, TextureAtlasUtils.acquireRegion("FoodStations/bunsStation.png"));
+    public static IngredientStation CHEESE_STATION = new IngredientStation(FoodItems.CHEESE, TextureAtlasUtils.acquireRegion("stationSprite.png"));
+    public static IngredientStation WATER_BUCKET_STATION = new IngredientStation(FoodItems.WATER_BUCKET, TextureAtlasUtils.acquireRegion("FoodItems/waterBucket.png"));
+    public static ServingStation SERVING_STATION_1 = new ServingStation(TextureAtlasUtils.acquireRegion("FoodStations/serving_station.png"));
+    public static ServingStation SERVING_STATION_2 = new ServingStation(TextureAtlasUtils.acquireRegion("FoodStations/serving_station.png"));
+    public static ServingStation SERVING_STATION_3 = new ServingStation(TextureAtlasUtils.acquireRegion("FoodStations/serving_station.png"));
+    public static ServingStation SERVING_STATION_4 = new ServingStation(TextureAtlasUtils.acquireRegion("FoodStations/serving_station.png"));
+    public static ServingStation SERVING_STATION_5 = new ServingStation(TextureAtlasUtils.acquireRegion("FoodStations/serving_station.png"));
     private static void createAllServingStations(Node[][] grid, TiledMap tiledMap){
         SERVING_STATION_1.setTileMapPosition(12, 4, grid, tiledMap);
         SERVING_STATION_2.setTileMapPosition(12, 2, grid, tiledMap);
@@ -100,7 +100,7 @@ public class Stations {
         for(ServingStation servingStation: servingStations){
             servingStation.getSprite().draw(batch);
             if(servingStation.getOrderSprite() != null){
-                batch.draw(servingStation.getOrderSprite().getTexture(), servingStation.getOrderSprite().getX() + 96, servingStation.getOrderSprite().getY() + 96);
+                batch.draw(servingStation.getOrderSprite(), servingStation.getOrderSprite().getX() + 96, servingStation.getOrderSprite().getY() + 96);
                 servingStation.getOrderSprite().draw(batch);
             }
         }
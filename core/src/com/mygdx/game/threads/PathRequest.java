@@ -0,0 +1,77 @@
+package com.mygdx.game.threads;
+
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.PathfinderType;
+
+/**
+ * A single search in a batch handed to PathfindingUtils.findPaths().
+ */
+public class PathRequest {
+
+    private final Node start;
+    private final Node end;
+    private final Node[][] grid;
+    private final PathfinderType pathfinderType;
+
+    /**
+     * Instantiates a new Path request using the pathfinder set for the grid.
+     *
+     * @param start the start node
+     * @param end   the end node
+     * @param grid  the grid to pathfind on
+     */
+    public PathRequest(Node start, Node end, Node[][] grid){
+        this(start, end, grid, null);
+    }
+
+    /**
+     * Instantiates a new Path request.
+     *
+     * @param start          the start node
+     * @param end            the end node
+     * @param grid           the grid to pathfind on
+     * @param pathfinderType the search algorithm to use, or null for the one set for the grid
+     */
+    public PathRequest(Node start, Node end, Node[][] grid, PathfinderType pathfinderType){
+        this.start = start;
+        this.end = end;
+        this.grid = grid;
+        this.pathfinderType = pathfinderType;
+    }
+
+    /**
+     * Gets start.
+     *
+     * @return the start node
+     */
+    public Node getStart(){
+        return start;
+    }
+
+    /**
+     * Gets end.
+     *
+     * @return the end node
+     */
+    public Node getEnd(){
+        return end;
+    }
+
+    /**
+     * Gets grid.
+     *
+     * @return the grid
+     */
+    public Node[][] getGrid(){
+        return grid;
+    }
+
+    /**
+     * Gets pathfinder type.
+     *
+     * @return the search algorithm to use, or null for the one set for the grid
+     */
+    public PathfinderType getPathfinderType(){
+        return pathfinderType;
+    }
+}
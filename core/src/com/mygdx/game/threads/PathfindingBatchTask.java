@@ -0,0 +1,57 @@
+package com.mygdx.game.threads;
+
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.utils.PathfindingUtils;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The fork/join task that runs a batch of path requests.
+ * The batch is split in half until the pieces are small enough to run, so idle workers can steal whichever half hasn't started yet.
+ * Each worker searches with its own thread's SearchContext, so no search state is shared between them.
+ */
+class PathfindingBatchTask extends RecursiveAction {
+
+    //Tasks are never serialized, but RecursiveAction is Serializable so it needs a version
+    private static final long serialVersionUID = 1L;
+    //Searches on the game's maps are short, so a few are run together to keep the cost of forking below the cost of searching
+    private static final int REQUESTS_PER_TASK = 2;
+
+    private final List<PathRequest> requests;
+    private final Vector2[][] results;
+    private final int from;
+    private final int to;
+
+    /**
+     * Instantiates a new Pathfinding batch task.
+     *
+     * @param requests the whole batch
+     * @param results  where each path is put, at the same index as its request
+     * @param from     the first request this task runs
+     * @param to       one past the last request this task runs
+     */
+    PathfindingBatchTask(List<PathRequest> requests, Vector2[][] results, int from, int to){
+        this.requests = requests;
+        this.results = results;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if(to - from <= REQUESTS_PER_TASK){
+            for(int i = from; i < to; i++){
+                results[i] = findPath(requests.get(i));
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new PathfindingBatchTask(requests, results, from, middle), new PathfindingBatchTask(requests, results, middle, to));
+    }
+
+    static Vector2[] findPath(PathRequest request){
+        if(request.getPathfinderType() == null) return PathfindingUtils.findPath(request.getStart(), request.getEnd(), request.getGrid());
+        return PathfindingUtils.findPath(request.getStart(), request.getEnd(), request.getGrid(), request.getPathfinderType());
+    }
+}
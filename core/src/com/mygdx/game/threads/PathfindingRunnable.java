@@ -1,31 +1,35 @@
 package com.mygdx.game.threads;
 
-import com.badlogic.gdx.math.Vector2;
 import com.mygdx.game.Node;
+import com.mygdx.game.enums.PathfinderType;
+import com.mygdx.game.pathfinding.Path;
 import com.mygdx.game.utils.PathfindingUtils;
 
 /**
- * The seperate thread that pathfinding algorithms are run on
+ * The task that pathfinding algorithms are run on, queued on the PathfindingService worker threads
  */
 public class PathfindingRunnable implements Runnable{
 
-    //This is a thread that the pathfinding algorithm runs on
+    //This is a task that the pathfinding algorithm runs in
     private final Node start;
     private final Node end;
     private final Node[][] grid;
-    private Vector2[] gridPath;
+    private final PathfinderType pathfinderType;
+    //The search writes into a pooled path, which the actor copies into the one it follows once the search is done
+    private final Path path;
+    private boolean finished;
 
     /**
-     * Get grid path vector2[ ].
+     * Gets the path found, only valid once the search is done.
      *
-     * @return the grid path vector2[ ]
+     * @return the path, or null if the search threw before finishing
      */
-//This public method is used to return the grid after the pathfinding is done
-    public Vector2[] getGridPath(){
-        return gridPath;
+//This public method is used to return the path after the pathfinding is done
+    public Path getPath(){
+        return finished ? path : null;
     }
 
-    //This constructor is used to transfer data to this thread
+    //This constructor is used to transfer data to the worker thread
 
     /**
      * Instantiates a new Pathfinding runnable.
@@ -35,14 +39,37 @@ public class PathfindingRunnable implements Runnable{
      * @param grid  the grid being pathfinding on
      */
     public PathfindingRunnable(Node start, Node end, Node[][] grid){
+        this(start, end, grid, null);
+    }
+
+    /**
+     * Instantiates a new Pathfinding runnable using the given pathfinder.
+     *
+     * @param start          the start node
+     * @param end            the end node
+     * @param grid           the grid being pathfinding on
+     * @param pathfinderType the search algorithm to use, or null for the one set for the grid
+     */
+    public PathfindingRunnable(Node start, Node end, Node[][] grid, PathfinderType pathfinderType){
         this.start = start;
         this.end = end;
         this.grid = grid;
+        this.pathfinderType = pathfinderType;
+        path = Path.obtain();
+        finished = false;
+    }
+
+    /**
+     * Hands the path back to the pool. Only called from the render thread once no worker can be writing into it.
+     */
+    void freePath(){
+        Path.free(path);
     }
 
-    //This is the function that the thread runs when it is called
+    //This is the function that the worker thread runs when it picks up the task
     @Override
     public void run() {
-        gridPath = PathfindingUtils.findPath(start, end, grid);
+        PathfindingUtils.findPath(start, end, grid, pathfinderType == null ? PathfindingUtils.getPathfinderType(grid) : pathfinderType, path);
+        finished = true;
     }
 }
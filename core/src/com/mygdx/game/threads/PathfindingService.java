@@ -0,0 +1,214 @@
+package com.mygdx.game.threads;
+
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.PathfinderType;
+import com.mygdx.game.pathfinding.SearchContext;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The pathfinding service - a small, fixed pool of worker threads that pathfinding requests are queued on.
+ * Actors submit a request, get a ticket back and poll that ticket once per frame, so the render thread never waits on a search
+ * and no new threads are created once the pool has started.
+ * Batches of requests that are all needed at once are run on a separate fork/join pool the size of the machine instead.
+ * When an expansion budget is set, requests are run as time-sliced A* searches on the render thread instead of the pool.
+ * Every pending search shares the one budget each frame, so the time spent searching stays the same however many actors ask for a path at once.
+ */
+public class PathfindingService {
+
+    /**
+     * The number of worker threads - one core is left free for the render thread.
+     */
+    public static final int WORKER_COUNT = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    /**
+     * The maximum number of finished paths that can be picked up by actors in a single frame.
+     * Anything over this is left on its ticket and picked up on the next frame.
+     */
+    public static final int MAX_COMPLETIONS_PER_FRAME = 4;
+    /**
+     * The fewest nodes a time-sliced search is given in a turn, so a crowd of searches doesn't each get too few to make progress.
+     */
+    public static final int MIN_EXPANSIONS_PER_SLICE = 32;
+
+    private static ExecutorService executor;
+    private static ForkJoinPool batchPool;
+    private static int completionsThisFrame = 0;
+    //The time-sliced searches still running, and the one to carry on with first next frame. Only used from the render thread
+    private static int expansionBudget = 0;
+    private static final List<SlicedPathfindingTask> slicedTasks = new ArrayList<>();
+    private static int nextSlicedTask = 0;
+    private static final ArrayDeque<SearchContext> freeContexts = new ArrayDeque<>();
+
+    private PathfindingService(){}
+
+    /**
+     * Queues a search between two nodes on the worker pool, or as a time-sliced A* search if there is an expansion budget.
+     *
+     * @param start the start node
+     * @param end   the end node
+     * @param grid  the grid to pathfind on
+     * @return the ticket used to poll for the result
+     */
+    public static PathfindingTicket submit(Node start, Node end, Node[][] grid){
+        return submit(start, end, grid, null);
+    }
+
+    /**
+     * Queues a search between two nodes on the worker pool using the given pathfinder.
+     * Time-sliced searches are always A*, so the pathfinder is ignored if there is an expansion budget.
+     *
+     * @param start          the start node
+     * @param end            the end node
+     * @param grid           the grid to pathfind on
+     * @param pathfinderType the search algorithm to use, or null for the one set for the grid
+     * @return the ticket used to poll for the result
+     */
+    public static PathfindingTicket submit(Node start, Node end, Node[][] grid, PathfinderType pathfinderType){
+        if(expansionBudget > 0){
+            SlicedPathfindingTask slicedTask = new SlicedPathfindingTask(start, end, grid);
+            if(!slicedTask.isFinished()) slicedTasks.add(slicedTask);
+            return new PathfindingTicket(slicedTask);
+        }
+        PathfindingRunnable pathfindingObj = new PathfindingRunnable(start, end, grid, pathfinderType);
+        return new PathfindingTicket(pathfindingObj, getExecutor().submit(pathfindingObj));
+    }
+
+    /**
+     * Runs a batch of searches across the fork/join pool and waits for all of them to finish.
+     *
+     * @param requests the searches to run
+     * @return the paths found, at the same index as their requests, empty where no path was found
+     */
+    public static Vector2[][] findAll(List<PathRequest> requests){
+        Vector2[][] results = new Vector2[requests.size()][];
+        //Not worth waking the pool for a single search
+        if(requests.size() == 1) results[0] = PathfindingBatchTask.findPath(requests.get(0));
+        else if(!requests.isEmpty()) getBatchPool().invoke(new PathfindingBatchTask(requests, results, 0, requests.size()));
+        return results;
+    }
+
+    /**
+     * Resets the per-frame completion allowance and runs this frame's share of the time-sliced searches,
+     * called once at the start of every frame.
+     */
+    public static void newFrame(){
+        completionsThisFrame = 0;
+        runSlicedSearches();
+    }
+
+    /**
+     * Sets the number of nodes the time-sliced searches may expand between them each frame.
+     * Zero queues searches on the worker pool with the grid's own pathfinder instead, which is the default.
+     *
+     * @param expansionBudget the expansion budget
+     */
+    public static void setExpansionBudget(int expansionBudget){
+        PathfindingService.expansionBudget = Math.max(0, expansionBudget);
+    }
+
+    /**
+     * Gets the number of nodes the time-sliced searches may expand between them each frame.
+     *
+     * @return the expansion budget, zero if searches aren't time-sliced
+     */
+    public static int getExpansionBudget(){
+        return expansionBudget;
+    }
+
+    /**
+     * Gets the number of time-sliced searches that haven't finished yet.
+     *
+     * @return the pending search count
+     */
+    public static int getPendingSlicedSearchCount(){
+        return slicedTasks.size();
+    }
+
+    //Shares the budget out evenly, taking turns from where the last frame stopped so no search is always left until last
+    private static void runSlicedSearches(){
+        if(slicedTasks.isEmpty()) return;
+        //Searches left over from before the budget was turned off still get finished
+        int remaining = Math.max(MIN_EXPANSIONS_PER_SLICE, expansionBudget);
+        int share = Math.max(MIN_EXPANSIONS_PER_SLICE, remaining / slicedTasks.size());
+        while(remaining > 0 && !slicedTasks.isEmpty()){
+            if(nextSlicedTask >= slicedTasks.size()) nextSlicedTask = 0;
+            SlicedPathfindingTask slicedTask = slicedTasks.get(nextSlicedTask);
+            remaining -= slicedTask.step(Math.min(share, remaining));
+            //Finished and cancelled searches are dropped, leaving the next one at the same index
+            if(slicedTask.isFinished()) slicedTasks.remove(nextSlicedTask);
+            else nextSlicedTask++;
+        }
+    }
+
+    //Search contexts are kept for reuse as each one holds arrays the size of the grid
+    static SearchContext obtainContext(){
+        SearchContext context = freeContexts.poll();
+        return context == null ? new SearchContext() : context;
+    }
+
+    static void freeContext(SearchContext context){
+        freeContexts.push(context);
+    }
+
+    /**
+     * Claims one of this frame's completions. Only called from the render thread.
+     *
+     * @return whether the caller may apply a finished path this frame
+     */
+    public static boolean tryClaimCompletion(){
+        if(completionsThisFrame >= MAX_COMPLETIONS_PER_FRAME) return false;
+        completionsThisFrame++;
+        return true;
+    }
+
+    /**
+     * Stops the worker threads, any queued searches are dropped, including the time-sliced ones.
+     * A later call to submit() or findAll() will start a new pool.
+     */
+    public static synchronized void shutdown(){
+        for(SlicedPathfindingTask slicedTask : slicedTasks){
+            slicedTask.cancel();
+        }
+        slicedTasks.clear();
+        nextSlicedTask = 0;
+        if(batchPool != null){
+            batchPool.shutdownNow();
+            batchPool = null;
+        }
+        if(executor == null) return;
+        executor.shutdownNow();
+        executor = null;
+    }
+
+    //The pool is created on first use so that nothing is started until a path is actually needed
+    private static synchronized ExecutorService getExecutor(){
+        if(executor == null) executor = Executors.newFixedThreadPool(WORKER_COUNT, new PathfindingThreadFactory());
+        return executor;
+    }
+
+    //Fork/join workers are already daemons, and every core is used as the caller is waiting on the batch anyway
+    private static synchronized ForkJoinPool getBatchPool(){
+        if(batchPool == null) batchPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        return batchPool;
+    }
+
+    //Names the worker threads and makes them daemons so they never keep the game open
+    private static class PathfindingThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "pathfinding-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
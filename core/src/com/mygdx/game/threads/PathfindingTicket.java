@@ -0,0 +1,104 @@
+package com.mygdx.game.threads;
+
+import com.mygdx.game.pathfinding.Path;
+
+import java.util.concurrent.Future;
+
+/**
+ * The ticket handed back by the PathfindingService for a single pathfinding request.
+ * It is polled once per frame by the owning actor until the search has finished.
+ * The search is either queued on the worker pool or, when the service has an expansion budget, run a slice at a time on the render thread.
+ * The search writes into a pooled path, which is handed back once the result is picked up or the request is cancelled,
+ * so the ticket is finished with after either. Only to be used from the render thread.
+ */
+public class PathfindingTicket {
+
+    private final PathfindingRunnable pathfindingObj;
+    private final Future<?> future;
+    private final SlicedPathfindingTask slicedTask;
+    private boolean cancelled;
+    private boolean released;
+
+    /**
+     * Instantiates a new Pathfinding ticket.
+     *
+     * @param pathfindingObj the search being run
+     * @param future         the future of the search on the worker pool
+     */
+    PathfindingTicket(PathfindingRunnable pathfindingObj, Future<?> future){
+        this.pathfindingObj = pathfindingObj;
+        this.future = future;
+        slicedTask = null;
+        cancelled = false;
+        released = false;
+    }
+
+    /**
+     * Instantiates a new Pathfinding ticket for a time-sliced search.
+     *
+     * @param slicedTask the search being run a slice at a time
+     */
+    PathfindingTicket(SlicedPathfindingTask slicedTask){
+        pathfindingObj = null;
+        future = null;
+        this.slicedTask = slicedTask;
+        cancelled = false;
+        released = false;
+    }
+
+    /**
+     * Is done boolean.
+     *
+     * @return whether the search has finished and was not cancelled
+     */
+    public boolean isDone(){
+        if(cancelled || released) return false;
+        if(slicedTask != null) return slicedTask.isFinished() && !slicedTask.isCancelled();
+        return future.isDone() && !future.isCancelled();
+    }
+
+    /**
+     * Is cancelled boolean.
+     *
+     * @return whether the request was cancelled
+     */
+    public boolean isCancelled(){
+        if(cancelled) return true;
+        if(slicedTask != null) return slicedTask.isCancelled();
+        return future.isCancelled();
+    }
+
+    /**
+     * Cancels the request. A search that has not started yet is never run, and the ticket never reports done afterwards.
+     */
+    public void cancel(){
+        if(released) return;
+        cancelled = true;
+        if(slicedTask != null) slicedTask.cancel();
+        else future.cancel(false);
+        release();
+    }
+
+    /**
+     * Copies the path found into another path, only valid once isDone() returns true, and only once.
+     * Nothing is allocated unless the path is the longest the other has held.
+     *
+     * @param path the path to copy the cells into, left empty if no path was found
+     */
+    public void getPath(Path path){
+        Path foundPath = slicedTask != null ? slicedTask.getPath() : pathfindingObj.getPath();
+        //A search that threw never finishes its path
+        if(foundPath == null) path.clear();
+        else path.setCells(foundPath);
+        release();
+    }
+
+    //Hands the search's path back to the pool. A search still running on a worker is still writing into it,
+    //and the pool is only for the render thread, so that one path is left to the garbage collector instead
+    private void release(){
+        if(released) return;
+        released = true;
+        if(slicedTask != null) slicedTask.freePath();
+        else if(future.isDone()) pathfindingObj.freePath();
+    }
+}
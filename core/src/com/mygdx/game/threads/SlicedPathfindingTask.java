@@ -0,0 +1,136 @@
+package com.mygdx.game.threads;
+
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.PathfinderType;
+import com.mygdx.game.pathfinding.IncrementalAStarSearch;
+import com.mygdx.game.pathfinding.NavigationGrid;
+import com.mygdx.game.pathfinding.Path;
+import com.mygdx.game.pathfinding.PathCache;
+import com.mygdx.game.pathfinding.SearchContext;
+import com.mygdx.game.utils.PathfindingUtils;
+
+/**
+ * A pathfinding request run a slice at a time on the render thread, sharing the PathfindingService's expansion budget with every other pending request.
+ * Requests that can be answered straight away - an invalid or unreachable end, the start itself, or a cached path - are finished as soon as they are made.
+ */
+class SlicedPathfindingTask {
+
+    private final Node start;
+    private final Node[] ends;
+    //Where the path is cached, the end itself or the station for a search to several ends
+    private final Node cacheEnd;
+    private final Node[][] grid;
+    private final PathCache pathCache;
+    private final int version;
+    private SearchContext context;
+    private IncrementalAStarSearch search;
+    //Taken from the pool, and handed back once the ticket is finished with
+    private Path path;
+    private boolean finished;
+    private boolean cancelled;
+
+    /**
+     * Instantiates a new Sliced pathfinding task.
+     *
+     * @param start the start node
+     * @param end   the end node
+     * @param grid  the grid to pathfind on
+     */
+    SlicedPathfindingTask(Node start, Node end, Node[][] grid){
+        this.start = start;
+        this.grid = grid;
+        ends = PathfindingUtils.resolveEnds(start, end, grid);
+        cacheEnd = ends.length == 1 ? ends[0] : end;
+        pathCache = NavigationGrid.of(grid).getPathCache();
+        //The version is read before searching so a path found across a wall or station change is never cached
+        version = pathCache.getVersion();
+        context = null;
+        search = null;
+        cancelled = false;
+        path = Path.obtain();
+        finished = true;
+        if(ends.length == 0 || !NavigationGrid.of(grid).getRegions().isReachable(start, ends)) return;
+        if(isEnd(start)) path.addCell(start.getGridX(), start.getGridY());
+        else finished = pathCache.get(start, cacheEnd, PathfinderType.A_STAR, path);
+    }
+
+    /**
+     * Expands the search by up to the given number of nodes, starting it on the first call.
+     *
+     * @param maxExpansions the most nodes to expand
+     * @return the number of nodes expanded
+     */
+    int step(int maxExpansions){
+        if(isFinished()) return 0;
+        if(search == null){
+            context = PathfindingService.obtainContext();
+            search = new IncrementalAStarSearch(start, ends, grid, context, path);
+        }
+        int expanded = search.step(maxExpansions);
+        if(search.isFinished()){
+            finished = true;
+            pathCache.put(start, cacheEnd, PathfinderType.A_STAR, path, version);
+            releaseSearch();
+        }
+        return expanded;
+    }
+
+    /**
+     * Is finished boolean.
+     *
+     * @return whether the path is known or the task was cancelled
+     */
+    boolean isFinished(){
+        return finished || cancelled;
+    }
+
+    /**
+     * Is cancelled boolean.
+     *
+     * @return whether the task was cancelled
+     */
+    boolean isCancelled(){
+        return cancelled;
+    }
+
+    /**
+     * Cancels the task, the rest of the search is never run.
+     */
+    void cancel(){
+        cancelled = true;
+        releaseSearch();
+    }
+
+    /**
+     * Gets the path found, only valid once isFinished() returns true.
+     *
+     * @return the path
+     */
+    Path getPath(){
+        return path;
+    }
+
+    /**
+     * Hands the path back to the pool, the task has to be cancelled or finished first. Safe to call more than once.
+     */
+    void freePath(){
+        if(path == null) return;
+        Path.free(path);
+        path = null;
+    }
+
+    private boolean isEnd(Node node){
+        for(Node end : ends){
+            if(end == node) return true;
+        }
+        return false;
+    }
+
+    //Hands the search context back to the service so the next search can reuse its arrays
+    private void releaseSearch(){
+        if(context == null) return;
+        PathfindingService.freeContext(context);
+        context = null;
+        search = null;
+    }
+}
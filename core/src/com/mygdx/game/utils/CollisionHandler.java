@@ -1,76 +1,125 @@
 package com.mygdx.game.utils;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.math.Intersector;
-import com.badlogic.gdx.math.Rectangle;
+import com.mygdx.game.GridStore;
 import com.mygdx.game.Node;
-import com.mygdx.game.enums.Facing;
 
 /**
- * The type Collision handler - manages the collision detection of the Chef class.
+ * The type Collision handler - moves a square box centred on a sprite's position across the grid, stopping it at walls, stations and customers.
+ * A move is swept one axis at a time, and only the rows or columns of tiles the leading edge of the box moves into are checked,
+ * so a box pushed into a wall at an angle stops against it and slides along it rather than not moving at all.
+ * Tiles off the grid block like walls. A box that is already overlapping something, e.g. a customer that walked into a chef, can always move away.
+ * One handler can move any number of sprites of the same size on the same grid, and a move makes no allocations.
  */
 public class CollisionHandler {
 
-    //This class handles collisions of moving objects
-    private final Node[][] grid;
-    private final TiledMap tiledMap;
-    private final Sprite sprite;
-    private final int squareSize;
+    //How far short of a blocking tile the leading edge of the box is stopped, so it isn't counted as being in the tile
+    private static final float EDGE_GAP = 0.01f;
+
+    private final GridStore store;
+    private final MapGeometry mapGeometry;
+    private final float halfSize;
 
     /**
      * Instantiates a new Collision handler.
      *
      * @param grid       the grid
      * @param tiledMap   the tiled map
-     * @param sprite     the sprite
-     * @param squareSize the bounds of the are you want to detect the collisions of
+     * @param squareSize the width and height of the box around a sprite's position that collides
      */
-    public CollisionHandler(Node[][] grid, TiledMap tiledMap, Sprite sprite, int squareSize){
-        this.grid = grid;
-        this.tiledMap = tiledMap;
-        this.sprite = sprite;
-        this.squareSize = squareSize;
+    public CollisionHandler(Node[][] grid, TiledMap tiledMap, int squareSize){
+        store = GridStore.of(grid);
+        mapGeometry = MapGeometry.of(tiledMap);
+        halfSize = squareSize / 2f;
     }
 
+    /**
+     * Moves a sprite as far as it can go, first along x and then along y.
+     *
+     * @param sprite the sprite
+     * @param moveX  the distance to move along x
+     * @param moveY  the distance to move along y
+     * @return whether the move was cut short on either axis
+     */
+    public boolean move(Sprite sprite, float moveX, float moveY){
+        float x = sweepX(sprite.getX(), sprite.getY(), moveX);
+        float y = sweepY(x, sprite.getY(), moveY);
+        boolean blocked = x != sprite.getX() + moveX || y != sprite.getY() + moveY;
+        sprite.setPosition(x, y);
+        return blocked;
+    }
 
     /**
-     * Determines if the chef is colliding either vertically or horizontally
+     * Determines if a box centred on a position overlaps anything collidable.
      *
+     * @param x the world x
+     * @param y the world y
      * @return the boolean regarding whether the above is true
      */
-    public boolean hasCollision(){
-        return hasCollisionVertical() || hasCollisionHorizontal();
+    public boolean hasCollision(float x, float y){
+        return isBlocked(mapGeometry.toGridX(x - halfSize), mapGeometry.toGridX(x + halfSize), mapGeometry.toGridY(y - halfSize), mapGeometry.toGridY(y + halfSize));
     }
 
     /**
-     * Vertical collision detection
+     * Gets how far along x a box can move before it runs into something.
      *
-     * @return the boolean of whether the sprite collides above or below itself
+     * @param x     the world x of the box
+     * @param y     the world y of the box
+     * @param moveX the distance to move along x
+     * @return the world x the box ends up at
      */
-    public boolean hasCollisionVertical(){
-        for(int step = -squareSize/2; step <= squareSize/2; step++){
-            int playerX = TileMapUtils.positionToCoord(sprite.getX() + step, tiledMap);
-            int playerY = TileMapUtils.positionToCoord(sprite.getY(), tiledMap);
-
-            if(grid[playerX][playerY].isCollidable()) return true;
+    public float sweepX(float x, float y, float moveX){
+        if(moveX == 0) return x;
+        int bottom = mapGeometry.toGridY(y - halfSize);
+        int top = mapGeometry.toGridY(y + halfSize);
+        if(moveX > 0){
+            int to = mapGeometry.toGridX(x + halfSize + moveX);
+            for(int column = mapGeometry.toGridX(x + halfSize) + 1; column <= to; column++){
+                if(isBlocked(column, column, bottom, top)) return Math.max(x, mapGeometry.getEdgeX(column) - halfSize - EDGE_GAP);
+            }
         }
-        return false;
+        else{
+            int to = mapGeometry.toGridX(x - halfSize + moveX);
+            for(int column = mapGeometry.toGridX(x - halfSize) - 1; column >= to; column--){
+                if(isBlocked(column, column, bottom, top)) return Math.min(x, mapGeometry.getEdgeX(column + 1) + halfSize);
+            }
+        }
+        return x + moveX;
     }
 
     /**
-     * Horizontal collision detection
+     * Gets how far along y a box can move before it runs into something.
      *
-     * @return the boolean of whether the sprite collides to the left or the right
+     * @param x     the world x of the box
+     * @param y     the world y of the box
+     * @param moveY the distance to move along y
+     * @return the world y the box ends up at
      */
-    public boolean hasCollisionHorizontal(){
-        for(int step = -squareSize/2; step <= squareSize/2; step++){
-            int playerX = TileMapUtils.positionToCoord(sprite.getX(), tiledMap);
-            int playerY = TileMapUtils.positionToCoord(sprite.getY() + step, tiledMap);
+    public float sweepY(float x, float y, float moveY){
+        if(moveY == 0) return y;
+        int left = mapGeometry.toGridX(x - halfSize);
+        int right = mapGeometry.toGridX(x + halfSize);
+        if(moveY > 0){
+            int to = mapGeometry.toGridY(y + halfSize + moveY);
+            for(int row = mapGeometry.toGridY(y + halfSize) + 1; row <= to; row++){
+                if(isBlocked(left, right, row, row)) return Math.max(y, mapGeometry.getEdgeY(row) - halfSize - EDGE_GAP);
+            }
+        }
+        else{
+            int to = mapGeometry.toGridY(y - halfSize + moveY);
+            for(int row = mapGeometry.toGridY(y - halfSize) - 1; row >= to; row--){
+                if(isBlocked(left, right, row, row)) return Math.min(y, mapGeometry.getEdgeY(row + 1) + halfSize);
+            }
+        }
+        return y + moveY;
+    }
 
-            if(grid[playerX][playerY].isCollidable()) return true;
+    private boolean isBlocked(int left, int right, int bottom, int top){
+        for(int x = left; x <= right; x++){
+            for(int y = bottom; y <= top; y++){
+                if(!store.isWalkable(x, y)) return true;
+            }
         }
         return false;
     }
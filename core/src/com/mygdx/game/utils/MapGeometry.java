@@ -0,0 +1,226 @@
+package com.mygdx.game.utils;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+
+/**
+ * Where the tiles of a map are in the world - the size of the map and its tiles, and the world position of the corner of its first tile.
+ * It is worked out once when a map is first asked about and kept in the map's properties, so converting between world and grid co-ordinates
+ * is only arithmetic, rather than looking the layer up for every conversion. Tiles don't have to be square, and the map can be moved
+ * by giving its first layer an offset in Tiled.
+ * World positions of a tile are its centre, which is where sprites standing on it are placed.
+ */
+public final class MapGeometry {
+
+    //The map is drawn 256 world units left of and below the middle of the screen, and the camera is four tiles further in
+    private static final float MAP_OFFSET = 256;
+    private static final int CAMERA_OFFSET_TILES = 4;
+    //The key of the geometry in the map's properties
+    private static final String PROPERTY_KEY = "mapGeometry";
+
+    private final int width;
+    private final int height;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final float originX;
+    private final float originY;
+
+    /**
+     * Instantiates a new Map geometry.
+     *
+     * @param width      the width in tiles
+     * @param height     the height in tiles
+     * @param tileWidth  the tile width in world units
+     * @param tileHeight the tile height in world units
+     * @param originX    the world x of the left edge of the first tile
+     * @param originY    the world y of the bottom edge of the first tile
+     */
+    public MapGeometry(int width, int height, int tileWidth, int tileHeight, float originX, float originY){
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.originX = originX;
+        this.originY = originY;
+    }
+
+    /**
+     * Gets the geometry of a map, working it out from the map's first layer the first time it is asked for.
+     * Tiled counts layer offsets downwards, the same as the map renderers, so a positive y offset moves the map down.
+     *
+     * @param tiledMap the tiled map
+     * @return the map geometry
+     */
+    public static MapGeometry of(TiledMap tiledMap){
+        Object geometry = tiledMap.getProperties().get(PROPERTY_KEY);
+        if(geometry instanceof MapGeometry) return (MapGeometry) geometry;
+        TiledMapTileLayer layer = (TiledMapTileLayer) tiledMap.getLayers().get(0);
+        MapGeometry mapGeometry = new MapGeometry(layer.getWidth(), layer.getHeight(), layer.getTileWidth(), layer.getTileHeight(),
+                CAMERA_OFFSET_TILES * layer.getTileWidth() - MAP_OFFSET + layer.getOffsetX(),
+                CAMERA_OFFSET_TILES * layer.getTileHeight() - MAP_OFFSET - layer.getOffsetY());
+        tiledMap.getProperties().put(PROPERTY_KEY, mapGeometry);
+        return mapGeometry;
+    }
+
+    /**
+     * Gets width.
+     *
+     * @return the width in tiles
+     */
+    public int getWidth(){
+        return width;
+    }
+
+    /**
+     * Gets height.
+     *
+     * @return the height in tiles
+     */
+    public int getHeight(){
+        return height;
+    }
+
+    /**
+     * Gets tile width.
+     *
+     * @return the tile width in world units
+     */
+    public int getTileWidth(){
+        return tileWidth;
+    }
+
+    /**
+     * Gets tile height.
+     *
+     * @return the tile height in world units
+     */
+    public int getTileHeight(){
+        return tileHeight;
+    }
+
+    /**
+     * Converts a world x to the grid x of the tile it is in.
+     * Positions left of the map are always rounded down, so they are always off the grid.
+     *
+     * @param worldX the world x
+     * @return the grid x
+     */
+    public int toGridX(float worldX){
+        return (int)Math.floor((worldX - originX) / tileWidth);
+    }
+
+    /**
+     * Converts a world y to the grid y of the tile it is in.
+     *
+     * @param worldY the world y
+     * @return the grid y
+     */
+    public int toGridY(float worldY){
+        return (int)Math.floor((worldY - originY) / tileHeight);
+    }
+
+    /**
+     * Converts a grid x to the world x of the centre of its tiles.
+     *
+     * @param gridX the grid x
+     * @return the world x
+     */
+    public float toWorldX(int gridX){
+        return originX + gridX * tileWidth + tileWidth / 2f;
+    }
+
+    /**
+     * Converts a grid y to the world y of the centre of its tiles.
+     *
+     * @param gridY the grid y
+     * @return the world y
+     */
+    public float toWorldY(int gridY){
+        return originY + gridY * tileHeight + tileHeight / 2f;
+    }
+
+    /**
+     * Gets the world x of the left edge of a column of tiles, the lowest x in it.
+     *
+     * @param gridX the grid x
+     * @return the world x
+     */
+    public float getEdgeX(int gridX){
+        return originX + gridX * tileWidth;
+    }
+
+    /**
+     * Gets the world y of the bottom edge of a row of tiles, the lowest y in it.
+     *
+     * @param gridY the grid y
+     * @return the world y
+     */
+    public float getEdgeY(int gridY){
+        return originY + gridY * tileHeight;
+    }
+
+    /**
+     * Is on grid boolean.
+     *
+     * @param gridX the grid x
+     * @param gridY the grid y
+     * @return whether the tile is on the map
+     */
+    public boolean isOnGrid(int gridX, int gridY){
+        return gridX >= 0 && gridX < width && gridY >= 0 && gridY < height;
+    }
+
+    /**
+     * Converts world x co-ordinates to grid x co-ordinates in bulk.
+     *
+     * @param worldXs the world x co-ordinates
+     * @param gridXs  the array the grid x co-ordinates are written to, which can be the same length
+     * @param count   the number of co-ordinates to convert
+     */
+    public void toGridX(float[] worldXs, int[] gridXs, int count){
+        for(int i = 0; i < count; i++){
+            gridXs[i] = (int)Math.floor((worldXs[i] - originX) / tileWidth);
+        }
+    }
+
+    /**
+     * Converts world y co-ordinates to grid y co-ordinates in bulk.
+     *
+     * @param worldYs the world y co-ordinates
+     * @param gridYs  the array the grid y co-ordinates are written to, which can be the same length
+     * @param count   the number of co-ordinates to convert
+     */
+    public void toGridY(float[] worldYs, int[] gridYs, int count){
+        for(int i = 0; i < count; i++){
+            gridYs[i] = (int)Math.floor((worldYs[i] - originY) / tileHeight);
+        }
+    }
+
+    /**
+     * Converts grid x co-ordinates to the world x co-ordinates of the centres of their tiles in bulk.
+     *
+     * @param gridXs  the grid x co-ordinates
+     * @param worldXs the array the world x co-ordinates are written to, which can be the same length
+     * @param count   the number of co-ordinates to convert
+     */
+    public void toWorldX(int[] gridXs, float[] worldXs, int count){
+        float centreX = originX + tileWidth / 2f;
+        for(int i = 0; i < count; i++){
+            worldXs[i] = centreX + gridXs[i] * tileWidth;
+        }
+    }
+
+    /**
+     * Converts grid y co-ordinates to the world y co-ordinates of the centres of their tiles in bulk.
+     *
+     * @param gridYs  the grid y co-ordinates
+     * @param worldYs the array the world y co-ordinates are written to, which can be the same length
+     * @param count   the number of co-ordinates to convert
+     */
+    public void toWorldY(int[] gridYs, float[] worldYs, int count){
+        float centreY = originY + tileHeight / 2f;
+        for(int i = 0; i < count; i++){
+            worldYs[i] = centreY + gridYs[i] * tileHeight;
+        }
+    }
+}
@@ -5,21 +5,33 @@ import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.math.Vector2;
 import com.mygdx.game.enums.Facing;
 import com.mygdx.game.Node;
 import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.enums.PathfinderType;
+import com.mygdx.game.pathfinding.AccessPoints;
+import com.mygdx.game.pathfinding.IncrementalAStarSearch;
+import com.mygdx.game.pathfinding.NavigationGrid;
+import com.mygdx.game.pathfinding.Path;
+import com.mygdx.game.pathfinding.PathCache;
+import com.mygdx.game.pathfinding.SearchContext;
+import com.mygdx.game.threads.PathRequest;
+import com.mygdx.game.threads.PathfindingService;
+
 import java.util.*;
 
 /**
  * A helper class for the pathfinding algorithm
  */
 public class PathfindingUtils {
+    //The sides of a station in the order findBestInteractingNode() looks at them
+    private static final int[] STATION_SIDES = {AccessPoints.RIGHT, AccessPoints.LEFT, AccessPoints.BELOW, AccessPoints.ABOVE};
+
     private PathfindingUtils(){}
 
     /**
-     * Uses the A* pathfinding algorithm to find path in format vector2[ ].
+     * Finds a path in format vector2[ ] using the pathfinder set for the grid.
      *
      * @param start the start node
      * @param end   the end node
@@ -28,34 +40,149 @@ public class PathfindingUtils {
      */
 //Pathfinds between two grid co-ordinates
     public static Vector2[] findPath(Node start, Node end, Node[][] grid){
+        return findPath(start, end, grid, getPathfinderType(grid));
+    }
+
+    /**
+     * Finds a path in format vector2[ ] using the given pathfinder.
+     *
+     * @param start          the start node
+     * @param end            the end node
+     * @param grid           the grid to pathfind on
+     * @param pathfinderType the search algorithm to use
+     * @return the vector2[ ] path that is found
+     */
+    public static Vector2[] findPath(Node start, Node end, Node[][] grid, PathfinderType pathfinderType){
+        Path path = new Path();
+        findPath(start, end, grid, pathfinderType, path);
+        return path.toGridPath();
+    }
+
+    /**
+     * Finds a path using the given pathfinder, writing it straight into a path that is reused rather than allocating a new one.
+     *
+     * @param start          the start node
+     * @param end            the end node
+     * @param grid           the grid to pathfind on
+     * @param pathfinderType the search algorithm to use
+     * @param path           the path to write the cells into, left empty if no path is found
+     */
+    public static void findPath(Node start, Node end, Node[][] grid, PathfinderType pathfinderType, Path path){
+        path.clear();
+        Node[] ends = resolveEnds(start, end, grid);
+        if(ends.length == 0) return;
+        for(Node node : ends){
+            if(start == node){
+                path.addCell(start.getGridX(), start.getGridY());
+                return;
+            }
+        }
+        //A search into another region would explore the whole of this one before giving up
+        NavigationGrid navigationGrid = NavigationGrid.of(grid);
+        if(!navigationGrid.getRegions().isReachable(start, ends)) return;
+
+        //A search to several ends is cached under the station, as which end it stops at isn't known until it has finished
+        Node cacheEnd = ends.length == 1 ? ends[0] : end;
+        //The version is read before searching so a path found across a wall or station change is never cached
+        PathCache pathCache = navigationGrid.getPathCache();
+        int version = pathCache.getVersion();
+        if(pathCache.get(start, cacheEnd, pathfinderType, path)) return;
+        if(ends.length == 1) pathfinderType.getPathfinder().findPath(start, ends[0], grid, SearchContext.forCurrentThread(), path);
+        else findPathToClosest(start, ends, grid, path);
+        pathCache.put(start, cacheEnd, pathfinderType, path, version);
+    }
+
+    //Every other pathfinder searches for a single end, so the search to whichever of several is closest is always A*
+    private static void findPathToClosest(Node start, Node[] ends, Node[][] grid, Path path){
+        IncrementalAStarSearch search = new IncrementalAStarSearch(start, ends, grid, SearchContext.forCurrentThread(), path);
+        search.step(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds the paths for a batch of requests in parallel, each search running on its own core with its own search state.
+     * Blocks until every path has been found, so it is for batches that are all needed at once, e.g. after a layout change.
+     *
+     * @param requests the searches to run
+     * @return the paths found, at the same index as their requests, empty where no path was found
+     */
+    public static List<Vector2[]> findPaths(List<PathRequest> requests){
+        return Arrays.asList(PathfindingService.findAll(requests));
+    }
+
+    /**
+     * Gets the cache of paths found on a grid, e.g. to read its hit and miss counters.
+     *
+     * @param grid the grid
+     * @return the path cache
+     */
+    public static PathCache getPathCache(Node[][] grid){
+        return NavigationGrid.of(grid).getPathCache();
+    }
 
-        if(!isValidNode(end.getGridX(), end.getGridY(), grid)) return new Vector2[0];
+    /**
+     * Resolves the node a path to the end node should actually stop at.
+     * Interactable nodes are stopped next to, and nothing can stop on a node that is off the grid or collidable.
+     *
+     * @param start the start node
+     * @param end   the end node
+     * @param grid  the grid to pathfind on
+     * @return the node to path to, or null if there isn't one
+     */
+    public static Node resolveEnd(Node start, Node end, Node[][] grid){
+        if(!isValidNode(end.getGridX(), end.getGridY(), grid)) return null;
         if(end.isInteractable()) end =  findBestInteractingNode(start, end, grid);
-        if(start == end) return new Vector2[] {new Vector2(start.getGridX(), start.getGridY())};
-        if(end.isCollidable()) return new Vector2[0];
-        clearParents(grid);
-
-        PriorityQueue<Node> openList = new PriorityQueue<>();
-        List<Node> closedList = new ArrayList<>();
-
-        openList.add(start);
-        while(!openList.isEmpty()){
-            Node current = openList.poll();
-            Node[] neighbours = getNeighbours(current, grid);
-            for(Node n : neighbours){
-                //Check if we have reached the end node
-                if(n == end) {
-                    n.setParent(current);
-                    return backTrackPath(n);
-                }
-                else if (!closedList.contains(n) && !n.isCollidable()){
-                    checkNeighbour(current, n, end, openList, closedList);
+        //Every node around the interactable is blocked
+        if(end == null) return null;
+        if(start == end) return end;
+        if(end.isCollidable()) return null;
+        return end;
+    }
+
+    /**
+     * Resolves every node a path to the end node could stop at.
+     * A station with nothing collidable beside it can be used from any free side, so every one is given and a single search finds the closest.
+     * Anything else gives the one node resolveEnd() finds.
+     *
+     * @param start the start node
+     * @param end   the end node
+     * @param grid  the grid to pathfind on
+     * @return the nodes to path to, empty if there aren't any
+     */
+    public static Node[] resolveEnds(Node start, Node end, Node[][] grid){
+        if(isValidNode(end, grid) && end.getNodeType() == NodeType.STATION){
+            AccessPoints accessPoints = NavigationGrid.of(grid).getAccessPoints();
+            int freeSides = accessPoints.getFreeSides(end);
+            if(accessPoints.getFrontSide(end) == AccessPoints.NO_SIDE && Integer.bitCount(freeSides) > 1){
+                Node[] ends = new Node[Integer.bitCount(freeSides)];
+                int count = 0;
+                for(int side = 0; side < STATION_SIDES.length; side++){
+                    if((freeSides & 1 << STATION_SIDES[side]) != 0) ends[count++] = accessPoints.getAccessNode(end, STATION_SIDES[side]);
                 }
+                return ends;
             }
-            closedList.add(current);
         }
-        //Path not found
-        return new Vector2[0];
+        Node resolvedEnd = resolveEnd(start, end, grid);
+        return resolvedEnd == null ? new Node[0] : new Node[] {resolvedEnd};
+    }
+
+    /**
+     * Sets the pathfinder used by findPath() for a grid.
+     *
+     * @param grid           the grid
+     * @param pathfinderType the pathfinder type
+     */
+    public static void setPathfinderType(Node[][] grid, PathfinderType pathfinderType){
+        NavigationGrid.of(grid).setPathfinderType(pathfinderType);
+    }
+
+    /**
+     * Gets the pathfinder used by findPath() for a grid.
+     *
+     * @param grid the grid
+     * @return the pathfinder type, A* if none has been set
+     */
+    public static PathfinderType getPathfinderType(Node[][] grid){
+        return NavigationGrid.of(grid).getPathfinderType();
     }
 
     /**
@@ -71,6 +198,7 @@ public class PathfindingUtils {
 //Finds the node next to an interactable node that should be pathfound to
     //It finds the most extreme direction of the shortest node to path to
     public static Node findBestInteractingNode(Node start, Node end, Node[][] grid){
+        if(end.getNodeType() == NodeType.STATION) return findBestAccessNode(start, end, grid);
         double smallestDistance = 10000;
         Node bestNode = null;
 
@@ -104,6 +232,26 @@ public class PathfindingUtils {
         return bestNode;
     }
 
+    //The same choice for a station, read from the sides kept for it instead of looking around it
+    private static Node findBestAccessNode(Node start, Node station, Node[][] grid){
+        AccessPoints accessPoints = NavigationGrid.of(grid).getAccessPoints();
+        int frontSide = accessPoints.getFrontSide(station);
+        if(frontSide != AccessPoints.NO_SIDE) return accessPoints.getAccessNode(station, frontSide);
+        int freeSides = accessPoints.getFreeSides(station);
+        double smallestDistance = 10000;
+        Node bestNode = null;
+        for(int side : STATION_SIDES){
+            if((freeSides & 1 << side) == 0) continue;
+            Node current = accessPoints.getAccessNode(station, side);
+            float biggestCurrentDistance = Math.max(Math.abs(start.getGridX() - current.getGridX()), Math.abs(start.getGridY() - current.getGridY()));
+            if(biggestCurrentDistance < smallestDistance){
+                bestNode = current;
+                smallestDistance = biggestCurrentDistance;
+            }
+        }
+        return bestNode;
+    }
+
     /**
      * Calculates which direction to face at the end.
      *
@@ -119,48 +267,6 @@ public class PathfindingUtils {
         return Facing.RIGHT;
     }
 
-    //Determines whether a neighbour should be in the open or closed list
-    private static void checkNeighbour(Node current, Node n, Node end, PriorityQueue<Node> openList, List<Node> closedList){
-        //Calculate g,h and f for n
-        float g = calculateMoveCost(current);
-        float h = calculateHeuristic(n, end);
-        float f = g + h;
-        if(openList.contains(n) && n.getF() < f || closedList.contains(n) && n.getF() < f) return;
-        n.setG(g);
-        n.setH(h);
-        n.setParent(current);
-        openList.add(n);
-    }
-
-    /**
-     * Converts a path in grid co-ordinates to a path in world co-ordinates
-     *
-     * @param path     the path in grid co-ordinates
-     * @param tiledMap the tiled map
-     * @return the path in world co-ordinates list
-     */
-//Converts a path in grid co-ordinates to world co-ordinates
-    public static List<Vector2> convertGridPathToWorld(Vector2[] path, TiledMap tiledMap){
-        if(path.length == 0) return Collections.emptyList();
-        List<Vector2> worldPath = new ArrayList<>();
-        for (Vector2 coordinate: path){
-            //The 16s are added to centre the sprite
-            float worldX = TileMapUtils.coordToPosition((int)coordinate.x, tiledMap);
-            float worldY = TileMapUtils.coordToPosition((int)coordinate.y, tiledMap);
-            worldPath.add(new Vector2(worldX, worldY));
-        }
-        return worldPath;
-    }
-
-    //Resets the parents of every Node
-    private static void clearParents(Node[][] grid){
-        for(int x = 0; x < grid.length; x++){
-            for(int y = 0; y < grid.length; y++){
-                grid[x][y].setParent(null);
-            }
-        }
-    }
-
     /**
      * Is valid node boolean.
      * Checks the node is on the grid
@@ -172,7 +278,7 @@ public class PathfindingUtils {
      */
 //Checks the node is on the grid
     public static boolean isValidNode(int gridX, int gridY, Node[][] grid){
-        return gridY < grid.length && gridY >= 0 && gridX >= 0 && gridX < grid.length;
+        return gridX >= 0 && gridX < grid.length && gridY >= 0 && gridY < grid[gridX].length;
     }
 
     /**
@@ -186,38 +292,4 @@ public class PathfindingUtils {
     public static boolean isValidNode(Node node, Node[][] grid){
         return isValidNode(node.getGridX(), node.getGridY(), grid);
     }
-
-    //Gets the neighbouring nodes of the current Node
-    private static Node[] getNeighbours(Node current, Node[][] grid){
-        int[] xMod = {1,-1,0,0};
-        int[] yMod = {0,0,1,-1};
-        List<Node> neighbourList = new ArrayList<>();
-
-        for(int i = 0; i < xMod.length; i++){
-            if(isValidNode(current.getGridX() + xMod[i], current.getGridY() + yMod[i], grid))
-                neighbourList.add(grid[current.getGridX() + xMod[i]][current.getGridY() + yMod[i]]);
-        }
-        return neighbourList.toArray(new Node[0]);
-    }
-
-    private static float calculateHeuristic(Node current, Node end){
-        return (float)Math.abs(end.getGridX() - current.getGridX()) + (float)Math.abs(end.getGridY() - current.getGridY());
-    }
-
-    private static float calculateMoveCost(Node current){
-        return 1 + current.getG();
-    }
-
-    //Backtracks through the parents to get the complete path
-    private static Vector2[] backTrackPath(Node end){
-        List<Vector2> path = new ArrayList<>();
-        Node current = end;
-        while(current.getParent() != null){
-            path.add(new Vector2(current.getGridX(), current.getGridY()));
-            if(current.getParent() == null) break;
-            current = current.getParent();
-        }
-        Collections.reverse(path);
-        return path.toArray(new Vector2[0]);
-    }
 }
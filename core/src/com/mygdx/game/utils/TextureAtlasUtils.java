@@ -0,0 +1,157 @@
+package com.mygdx.game.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The type Texture atlas utils - hands out the chef, customer, food and station sprites as regions of the gameplay atlas,
+ * so everything drawn on the kitchen shares one texture and the sprite batch doesn't flush every time it changes from one sprite to another.
+ * The atlas is packed from the separate images by the packTextures gradle task, and each region is named after the image it came from,
+ * e.g. "Chef_Assets/Chef_Dark_Up.png" is the region "Chef_Assets/Chef_Dark_Up".
+ * If the atlas hasn't been packed, e.g. when running from an IDE, the separate images are loaded instead.
+ * Textures are loaded through an AssetManager, which counts references - every region acquired is a reference to the atlas or image it is in,
+ * and is released when whoever acquired it is done with it, so each texture is loaded once however many customers use it,
+ * and is disposed once nothing uses it any more.
+ * Only to be used from the render thread.
+ */
+public class TextureAtlasUtils {
+
+    /**
+     * The path of the gameplay atlas, inside the assets.
+     */
+    public static final String ATLAS_PATH = "atlas/gameplay.atlas";
+
+    private static AssetManager assetManager;
+    private static Boolean atlasPacked;
+    //The regions handed out, shared by everyone who acquires the same image
+    private static final Map<String, TextureRegion> regions = new HashMap<>();
+    //The atlas or image each region handed out is in, which is what its references are counted on
+    private static final Map<String, String> assetNames = new HashMap<>();
+
+    /**
+     * Gets the region of an image in the gameplay atlas, loading the atlas if nothing else is using it.
+     * Every region acquired has to be released once it is no longer drawn.
+     *
+     * @param path the path of the image inside the assets, e.g. Food_Assets/Salad.png
+     * @return the texture region
+     */
+    public static TextureRegion acquireRegion(String path){
+        String assetName = assetNames.get(path);
+        if(assetName == null){
+            assetName = isAtlasPacked() ? ATLAS_PATH : path;
+        }
+        load(assetName);
+        TextureRegion region = regions.get(path);
+        if(region == null){
+            if(assetName.equals(ATLAS_PATH)){
+                region = getAssetManager().get(ATLAS_PATH, TextureAtlas.class).findRegion(toRegionName(path));
+                //An image that was never packed is loaded on its own
+                if(region == null){
+                    getAssetManager().unload(ATLAS_PATH);
+                    assetName = path;
+                    load(assetName);
+                }
+            }
+            if(region == null) region = new TextureRegion(getAssetManager().get(path, Texture.class));
+            regions.put(path, region);
+            assetNames.put(path, assetName);
+        }
+        return region;
+    }
+
+    /**
+     * Gets the regions of a set of images in the gameplay atlas, in the same order. Each has to be released.
+     *
+     * @param paths the paths of the images inside the assets
+     * @return the texture regions
+     */
+    public static TextureRegion[] acquireRegions(String... paths){
+        TextureRegion[] acquiredRegions = new TextureRegion[paths.length];
+        for(int i = 0; i < paths.length; i++){
+            acquiredRegions[i] = acquireRegion(paths[i]);
+        }
+        return acquiredRegions;
+    }
+
+    /**
+     * Releases a region acquired before. The atlas or image it is in is disposed once nothing else is using it.
+     *
+     * @param path the path of the image inside the assets
+     */
+    public static void release(String path){
+        String assetName = assetNames.get(path);
+        if(assetName == null || !getAssetManager().isLoaded(assetName)) return;
+        getAssetManager().unload(assetName);
+        if(getAssetManager().isLoaded(assetName)) return;
+        //The asset is gone, so are the regions in it
+        for(String releasedPath : assetNames.keySet().toArray(new String[0])){
+            if(assetNames.get(releasedPath).equals(assetName)){
+                assetNames.remove(releasedPath);
+                regions.remove(releasedPath);
+            }
+        }
+    }
+
+    /**
+     * Releases a set of regions acquired before.
+     *
+     * @param paths the paths of the images inside the assets
+     */
+    public static void release(String... paths){
+        for(String path : paths){
+            release(path);
+        }
+    }
+
+    /**
+     * Gets the number of references to the atlas or image a region is in, zero if it isn't loaded.
+     *
+     * @param path the path of the image inside the assets
+     * @return the reference count
+     */
+    public static int getReferenceCount(String path){
+        String assetName = assetNames.get(path);
+        if(assetName == null || !getAssetManager().isLoaded(assetName)) return 0;
+        return getAssetManager().getReferenceCount(assetName);
+    }
+
+    /**
+     * Disposes every texture, however many references it has. Regions handed out before this can't be drawn afterwards.
+     */
+    public static void dispose(){
+        if(assetManager != null) assetManager.dispose();
+        assetManager = null;
+        atlasPacked = null;
+        regions.clear();
+        assetNames.clear();
+    }
+
+    private static AssetManager getAssetManager(){
+        if(assetManager == null) assetManager = new AssetManager();
+        return assetManager;
+    }
+
+    //Loading something already loaded only adds a reference to it
+    private static void load(String assetName){
+        getAssetManager().load(assetName, assetName.equals(ATLAS_PATH) ? TextureAtlas.class : Texture.class);
+        getAssetManager().finishLoading();
+    }
+
+    //Only looked for once
+    private static boolean isAtlasPacked(){
+        if(atlasPacked == null) atlasPacked = Gdx.files.internal(ATLAS_PATH).exists();
+        return atlasPacked;
+    }
+
+    //The packer names a region after its image's path with the extension taken off
+    private static String toRegionName(String path){
+        int extension = path.lastIndexOf('.');
+        return extension < 0 ? path : path.substring(0, extension);
+    }
+}
@@ -9,9 +9,11 @@ import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.GridStore;
 import com.mygdx.game.Node;
 import com.mygdx.game.enums.Facing;
 import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.enums.PathfinderType;
 
 /**
  * The utils class containing helper functions regarding the tile map.
@@ -31,18 +33,62 @@ public class TileMapUtils {
         //This applies to both the tileMap and the nodeProperties array
         TiledMapTileLayer layer = (TiledMapTileLayer) tiledMap.getLayers().get("Walls");
 
-        Node[][] arrMap = new Node[layer.getWidth()][layer.getHeight()];
+        //The nodes are all views onto one flat store of the cells
+        Node[][] arrMap = GridStore.createGrid(layer.getWidth(), layer.getHeight());
 
         for (int y = 0; y < layer.getHeight(); y++){
             for (int x = 0; x < layer.getWidth(); x++){
                 Cell currentCell = layer.getCell(x,y);
-                if(currentCell != null)  arrMap[x][y] = new Node(x,y, NodeType.WALL);
-                else arrMap[x][y] = new Node(x,y);
+                if(currentCell != null)  arrMap[x][y].setNodeType(NodeType.WALL);
             }
         }
         return arrMap;
     }
 
+    /**
+     * Gets the pathfinder a map asks for with its "pathfinder" property
+     *
+     * @param tiledMap the tiled map
+     * @return the pathfinder type, A* if the map doesn't set one
+     */
+    public static PathfinderType getPathfinderType(TiledMap tiledMap){
+        String pathfinderName = tiledMap.getProperties().get("pathfinder", String.class);
+        if(pathfinderName == null) return PathfinderType.A_STAR;
+        return PathfinderType.valueOf(pathfinderName);
+    }
+
+    /**
+     * Gets whether a map asks for chefs and customers to plan around each other with its "cooperative" property.
+     * Cooperative planning runs on the render thread and replaces the asynchronous pathfinders, their cache and time slicing,
+     * so it is off unless a map turns it on.
+     *
+     * @param tiledMap the tiled map
+     * @return whether the map is cooperative, false if the map doesn't say
+     */
+    public static boolean isCooperative(TiledMap tiledMap){
+        return tiledMap.getProperties().get("cooperative", false, Boolean.class);
+    }
+
+    /**
+     * Gets whether a map asks for paths to be smoothed with its "smoothPaths" property
+     *
+     * @param tiledMap the tiled map
+     * @return whether paths are smoothed, false if the map doesn't say
+     */
+    public static boolean isPathSmoothing(TiledMap tiledMap){
+        return tiledMap.getProperties().get("smoothPaths", false, Boolean.class);
+    }
+
+    /**
+     * Gets the number of nodes searches may expand between them each frame from a map's "expansionBudget" property
+     *
+     * @param tiledMap the tiled map
+     * @return the expansion budget, zero if the map doesn't say, so searches aren't time-sliced
+     */
+    public static int getExpansionBudget(TiledMap tiledMap){
+        return tiledMap.getProperties().get("expansionBudget", 0, Integer.class);
+    }
+
     /**
      * A debug class that prints out the current state of the grid as a string
      *
@@ -51,10 +97,11 @@ public class TileMapUtils {
      */
 //A debug function to draw what the array thinks the map looks like
     public static String tileMapToString(Node[][] arrMap){
+        GridStore store = GridStore.of(arrMap);
         StringBuilder sB = new StringBuilder();
-        for (int y = arrMap.length - 1; y >= 0; y--){
-            for (int x = 0; x < arrMap.length; x++){
-                sB.append(arrMap[x][y].getNodeType().toString());
+        for (int y = store.getHeight() - 1; y >= 0; y--){
+            for (int x = 0; x < store.getWidth(); x++){
+                sB.append(store.getNodeType(store.toIndex(x, y)).toString());
             }
             if(y != 0){
                 sB.append("\n");
@@ -91,35 +138,27 @@ public class TileMapUtils {
     }
 
     /**
-     * Converts a single axis world co-ordinate to a grid co-ordinate
+     * Converts a single axis world co-ordinate to a grid co-ordinate.
+     * Only right for either axis if the tiles are square, otherwise use MapGeometry.toGridX() or toGridY().
      *
      * @param spriteCoord the sprite coord
      * @param tiledMap    the tiled map
      * @return the int
      */
-//A function to convert a world position to a grid position
-    //The + 256 is because the grid is 256 worldCoordinates wide
-    //The -4 is to account for the camera offset
     public static int positionToCoord(float spriteCoord, TiledMap tiledMap){
-        TiledMapTileLayer layer = (TiledMapTileLayer) tiledMap.getLayers().get(0);
-        return (int)(spriteCoord + 256)/layer.getTileWidth() - 4;
+        return MapGeometry.of(tiledMap).toGridX(spriteCoord);
     }
 
     /**
-     * Converts a single axis grid co-ordinate to a centered world co-ordinate
+     * Converts a single axis grid co-ordinate to a centered world co-ordinate.
+     * Only right for either axis if the tiles are square, otherwise use MapGeometry.toWorldX() or toWorldY().
      *
      * @param coord    the coord
      * @param tiledMap the tiled map
      * @return the float
      */
-//A function to convert a grid position to a world position
-    //The -240 is because the grid is 256 worldCoordinates wide and a tile is 32 wide
-    //32/2 is 16 which is used to centre the coord
-    //256-16 = 240
-    //The +4 is to account for the camera offset
     public static float coordToPosition(int coord, TiledMap tiledMap){
-        TiledMapTileLayer layer = (TiledMapTileLayer) tiledMap.getLayers().get(0);
-        return (coord + 4f) * layer.getTileWidth() - 240;
+        return MapGeometry.of(tiledMap).toWorldX(coord);
     }
 
     /**
@@ -145,6 +184,8 @@ public class TileMapUtils {
      * @return the boolean
      */
     public static boolean getCollisionAtSprite(float x, float y, TiledMap tiledMap, Node[][] arrMap){
-        return arrMap[positionToCoord(x,tiledMap)][positionToCoord(y, tiledMap)].isCollidable();
+        GridStore store = GridStore.of(arrMap);
+        MapGeometry mapGeometry = MapGeometry.of(tiledMap);
+        return store.isCollidable(store.toIndex(mapGeometry.toGridX(x), mapGeometry.toGridY(y)));
     }
 }
@@ -1,8 +1,8 @@
 package com.mygdx.game.utils;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.TimeUtils;
 import com.mygdx.game.Chef;
 import com.mygdx.game.Match;
@@ -45,6 +45,9 @@ public class TimerUtils {
      * The Sprite who the timer visualisation is being spawned above.
      */
     Sprite sprite;
+    //Shared by every timer for as long as the game runs
+    private static TextureRegion greyPixel;
+    private static TextureRegion redPixel;
 
     /**
      * Instantiates a new Timer utils.
@@ -120,10 +123,20 @@ public class TimerUtils {
     public void renderTimer(SpriteBatch batch){
         if(isRunning){
             batch.begin();
-            batch.draw(new Texture("grey_pixel.png"),sprite.getX() + 120,sprite.getY() + 145,18,4);
-            batch.draw(new Texture("red_pixel.png"),sprite.getX()+1 + 120,sprite.getY()+1 + 145,16*(currentTimeSeconds/startTime),2);
+            batch.draw(getGreyPixel(),sprite.getX() + 120,sprite.getY() + 145,18,4);
+            batch.draw(getRedPixel(),sprite.getX()+1 + 120,sprite.getY()+1 + 145,16*(currentTimeSeconds/startTime),2);
             batch.end();
         }
     }
 
+    private static TextureRegion getGreyPixel(){
+        if(greyPixel == null) greyPixel = TextureAtlasUtils.acquireRegion("grey_pixel.png");
+        return greyPixel;
+    }
+
+    private static TextureRegion getRedPixel(){
+        if(redPixel == null) redPixel = TextureAtlasUtils.acquireRegion("red_pixel.png");
+        return redPixel;
+    }
+
 }
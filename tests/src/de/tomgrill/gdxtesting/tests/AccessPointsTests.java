@@ -0,0 +1,85 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.Facing;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.enums.PathfinderType;
+import com.mygdx.game.pathfinding.AccessPoints;
+import com.mygdx.game.pathfinding.NavigationGrid;
+import com.mygdx.game.utils.PathfindingUtils;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class AccessPointsTests {
+
+    //Tests that a station against a wall is used from the side facing away from it, and only its free sides are kept
+    @Test
+    public void testStationAgainstWall(){
+        Node[][] grid = GridStore.createGrid(7, 7);
+        grid[3][6].setNodeType(NodeType.WALL);
+        grid[3][5].setNodeType(NodeType.STATION);
+        AccessPoints accessPoints = NavigationGrid.of(grid).getAccessPoints();
+        assertEquals(AccessPoints.BELOW, accessPoints.getFrontSide(grid[3][5]));
+        assertEquals(1 << AccessPoints.BELOW | 1 << AccessPoints.LEFT | 1 << AccessPoints.RIGHT, accessPoints.getFreeSides(grid[3][5]));
+        assertSame(grid[3][4], accessPoints.getAccessNode(grid[3][5], AccessPoints.BELOW));
+        assertEquals(Facing.UP, AccessPoints.getFacing(AccessPoints.BELOW));
+        assertSame(grid[3][4], PathfindingUtils.findBestInteractingNode(grid[0][5], grid[3][5], grid));
+        assertEquals(0, accessPoints.getFreeSides(grid[1][1]));
+    }
+
+    //Tests that a customer stepping up to a station moves its front to the other side, and it goes back when they leave
+    @Test
+    public void testCustomerMovesFront(){
+        Node[][] grid = GridStore.createGrid(7, 7);
+        grid[3][3].setNodeType(NodeType.STATION);
+        AccessPoints accessPoints = NavigationGrid.of(grid).getAccessPoints();
+        assertEquals(AccessPoints.NO_SIDE, accessPoints.getFrontSide(grid[3][3]));
+
+        grid[2][3].setNodeType(NodeType.CUSTOMER);
+        assertEquals(AccessPoints.RIGHT, accessPoints.getFrontSide(grid[3][3]));
+        Vector2[] path = PathfindingUtils.findPath(grid[0][0], grid[3][3], grid);
+        assertEquals(new Vector2(4, 3), path[path.length - 1]);
+
+        grid[2][3].setNodeType(NodeType.EMPTY);
+        assertEquals(AccessPoints.NO_SIDE, accessPoints.getFrontSide(grid[3][3]));
+        grid[3][3].setNodeType(NodeType.EMPTY);
+        assertEquals(0, accessPoints.getFreeSides(grid[3][3]));
+    }
+
+    //Tests that a path to a station free on every side goes to whichever side is really closest, not the one that looks closest
+    @Test
+    public void testPathToClosestSide(){
+        Node[][] grid = GridStore.createGrid(11, 11);
+        grid[5][6].setNodeType(NodeType.STATION);
+        //The side below the station is walled in, so it only looks closest to anything further below
+        for(int x = 2; x <= 8; x++){
+            grid[x][4].setNodeType(NodeType.WALL);
+        }
+        grid[4][5].setNodeType(NodeType.WALL);
+        grid[6][5].setNodeType(NodeType.WALL);
+        for(Node[] column : grid){
+            for(Node start : column){
+                if(start.isCollidable()) continue;
+                Vector2[] path = PathfindingUtils.findPath(start, grid[5][6], grid);
+                int shortest = Integer.MAX_VALUE;
+                for(Node side : new Node[] {grid[5][7], grid[5][5], grid[4][6], grid[6][6]}){
+                    int length = PathfindingUtils.findPath(start, side, grid, PathfinderType.A_STAR).length;
+                    if(length > 0) shortest = Math.min(shortest, length);
+                }
+                assertEquals(shortest, path.length);
+                Vector2 last = path[path.length - 1];
+                assertEquals(1, (int)(Math.abs(last.x - 5) + Math.abs(last.y - 6)));
+            }
+        }
+        assertSame(grid[5][5], PathfindingUtils.findBestInteractingNode(grid[5][3], grid[5][6], grid));
+        assertTrue(PathfindingUtils.findPath(grid[5][3], grid[5][6], grid).length > 0);
+    }
+}
@@ -0,0 +1,86 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.utils.CollisionHandler;
+import com.mygdx.game.utils.MapGeometry;
+import com.mygdx.game.utils.TileMapUtils;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class CollisionHandlerTests {
+
+    //Tests that a box moved into a wall stops flush against it instead of going back to where it was
+    @Test
+    public void testStopsAgainstWall(){
+        Node[][] grid = GridStore.createGrid(7, 7);
+        grid[4][3].setNodeType(NodeType.WALL);
+        TiledMap tiledMap = createTestTiledMap(7, 7);
+        CollisionHandler collisionHandler = new CollisionHandler(grid, tiledMap, 30);
+        Sprite sprite = new Sprite();
+        sprite.setPosition(TileMapUtils.coordToPosition(2, tiledMap), TileMapUtils.coordToPosition(3, tiledMap));
+
+        assertTrue(collisionHandler.move(sprite, 100, 0));
+        //The right edge of the box is just short of the wall's left edge
+        assertEquals(MapGeometry.of(tiledMap).getEdgeX(4) - 15, sprite.getX(), 0.1f);
+        assertEquals(3, TileMapUtils.positionToCoord(sprite.getX() + 15, tiledMap));
+        assertFalse(collisionHandler.hasCollision(sprite.getX(), sprite.getY()));
+        assertTrue(collisionHandler.hasCollision(sprite.getX() + 1, sprite.getY()));
+
+        float x = sprite.getX();
+        assertFalse(collisionHandler.move(sprite, -5, 0));
+        assertEquals(x - 5, sprite.getX(), 1e-4f);
+    }
+
+    //Tests that a box pushed into a wall at an angle carries on along it, and the edge of the grid blocks like a wall
+    @Test
+    public void testSlidesAlongWall(){
+        Node[][] grid = GridStore.createGrid(7, 7);
+        grid[4][3].setNodeType(NodeType.WALL);
+        TiledMap tiledMap = createTestTiledMap(7, 7);
+        CollisionHandler collisionHandler = new CollisionHandler(grid, tiledMap, 30);
+        Sprite sprite = new Sprite();
+        float startY = TileMapUtils.coordToPosition(3, tiledMap);
+        sprite.setPosition(TileMapUtils.coordToPosition(2, tiledMap), startY);
+
+        assertTrue(collisionHandler.move(sprite, 40, 5));
+        assertEquals(startY + 5, sprite.getY(), 1e-4f);
+        assertEquals(3, TileMapUtils.positionToCoord(sprite.getX() + 15, tiledMap));
+
+        sprite.setPosition(TileMapUtils.coordToPosition(0, tiledMap), TileMapUtils.coordToPosition(0, tiledMap));
+        assertTrue(collisionHandler.move(sprite, -100, -100));
+        assertEquals(MapGeometry.of(tiledMap).getEdgeX(0) + 15, sprite.getX(), 1e-4f);
+        assertEquals(MapGeometry.of(tiledMap).getEdgeY(0) + 15, sprite.getY(), 1e-4f);
+    }
+
+    //Tests that a customer who walks into a chef doesn't trap them, they can still move away
+    @Test
+    public void testCanLeaveOverlap(){
+        Node[][] grid = GridStore.createGrid(7, 7);
+        TiledMap tiledMap = createTestTiledMap(7, 7);
+        CollisionHandler collisionHandler = new CollisionHandler(grid, tiledMap, 30);
+        Sprite sprite = new Sprite();
+        sprite.setPosition(TileMapUtils.coordToPosition(3, tiledMap), TileMapUtils.coordToPosition(3, tiledMap));
+        grid[3][3].setNodeType(NodeType.CUSTOMER);
+        assertTrue(collisionHandler.hasCollision(sprite.getX(), sprite.getY()));
+
+        assertFalse(collisionHandler.move(sprite, 0, 20));
+        assertEquals(4, TileMapUtils.positionToCoord(sprite.getY() + 15, tiledMap));
+    }
+
+    private TiledMap createTestTiledMap(int width, int height){
+        TiledMap tiledMap = new TiledMap();
+        tiledMap.getLayers().add(new TiledMapTileLayer(width, height, 32, 32));
+        return tiledMap;
+    }
+}
@@ -0,0 +1,103 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.enums.PathfinderType;
+import com.mygdx.game.pathfinding.ConnectedRegions;
+import com.mygdx.game.pathfinding.NavigationGrid;
+import com.mygdx.game.pathfinding.Path;
+import com.mygdx.game.pathfinding.SearchContext;
+import com.mygdx.game.utils.PathfindingUtils;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class ConnectedRegionsTests {
+
+    //Tests that a room behind a wall can't be reached until a doorway is opened, and can't again once it is closed
+    @Test
+    public void testWalledOffRoom(){
+        Node[][] grid = GridStore.createGrid(10, 10);
+        for(int y = 0; y < 10; y++){
+            grid[5][y].setNodeType(NodeType.WALL);
+        }
+        ConnectedRegions regions = NavigationGrid.of(grid).getRegions();
+        assertFalse(regions.isReachable(grid[1][1], grid[8][8]));
+        assertEquals(0, PathfindingUtils.findPath(grid[1][1], grid[8][8], grid).length);
+
+        grid[5][5].setNodeType(NodeType.EMPTY);
+        assertTrue(regions.isReachable(grid[1][1], grid[8][8]));
+        assertTrue(PathfindingUtils.findPath(grid[1][1], grid[8][8], grid).length > 0);
+
+        grid[5][5].setNodeType(NodeType.STATION);
+        assertFalse(regions.isReachable(grid[1][1], grid[8][8]));
+        assertEquals(ConnectedRegions.NO_REGION, regions.getRegion(grid[5][5]));
+    }
+
+    //Tests that a customer standing in a corridor cuts it in two, while still being able to leave from where they stand
+    @Test
+    public void testCustomerInCorridor(){
+        Node[][] grid = GridStore.createGrid(7, 3);
+        for(int x = 0; x < 7; x++){
+            grid[x][0].setNodeType(NodeType.WALL);
+            grid[x][2].setNodeType(NodeType.WALL);
+        }
+        ConnectedRegions regions = NavigationGrid.of(grid).getRegions();
+        assertTrue(regions.isReachable(grid[0][1], grid[6][1]));
+
+        grid[3][1].setNodeType(NodeType.CUSTOMER);
+        assertFalse(regions.isReachable(grid[0][1], grid[6][1]));
+        assertTrue(regions.isReachable(grid[3][1], grid[6][1]));
+        assertTrue(regions.isReachable(grid[3][1], grid[0][1]));
+
+        grid[3][1].setNodeType(NodeType.EMPTY);
+        assertTrue(regions.isReachable(grid[0][1], grid[6][1]));
+    }
+
+    //Tests that someone walking across an open floor never makes a region need labelling again
+    @Test
+    public void testOpenFloorNeedsNoRelabel(){
+        Node[][] grid = GridStore.createGrid(12, 12);
+        ConnectedRegions regions = NavigationGrid.of(grid).getRegions();
+        assertTrue(regions.isReachable(grid[0][0], grid[11][11]));
+        int relabels = regions.getRelabelCount();
+        for(int x = 1; x < 11; x++){
+            grid[x][5].setNodeType(NodeType.CUSTOMER);
+            assertTrue(regions.isReachable(grid[0][0], grid[11][11]));
+            grid[x][5].setNodeType(NodeType.EMPTY);
+        }
+        assertEquals(relabels, regions.getRelabelCount());
+    }
+
+    //Tests that after many random changes the regions always agree with whether A* can find a path
+    @Test
+    public void testMatchesSearch(){
+        int size = 20;
+        Node[][] grid = GridStore.createGrid(size, size);
+        ConnectedRegions regions = NavigationGrid.of(grid).getRegions();
+        SearchContext context = new SearchContext();
+        Path path = new Path();
+        Random random = new Random(17);
+        NodeType[] types = {NodeType.EMPTY, NodeType.EMPTY, NodeType.WALL, NodeType.STATION, NodeType.CUSTOMER};
+        for(int change = 0; change < 2000; change++){
+            grid[random.nextInt(size)][random.nextInt(size)].setNodeType(types[random.nextInt(types.length)]);
+            if(change % 10 != 0) continue;
+            for(int i = 0; i < 5; i++){
+                Node start = grid[random.nextInt(size)][random.nextInt(size)];
+                Node end = grid[random.nextInt(size)][random.nextInt(size)];
+                if(start == end || end.isCollidable()) continue;
+                PathfinderType.A_STAR.getPathfinder().findPath(start, end, grid, context, path);
+                boolean found = path.getCellCount() > 0;
+                assertEquals(found, regions.isReachable(start, end));
+            }
+        }
+    }
+}
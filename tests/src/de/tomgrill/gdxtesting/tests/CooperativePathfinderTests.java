@@ -0,0 +1,132 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.pathfinding.CooperativePathfinder;
+import com.mygdx.game.pathfinding.DistanceField;
+import com.mygdx.game.pathfinding.Path;
+import com.mygdx.game.pathfinding.ReservationTable;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class CooperativePathfinderTests {
+
+    //Tests that an agent on its own walks straight to the goal
+    @Test
+    public void testSingleAgent(){
+        Node[][] grid = GridStore.createGrid(10, 10);
+        grid[4][2].setNodeType(NodeType.WALL);
+        grid[4][3].setNodeType(NodeType.WALL);
+        DistanceField field = new DistanceField(grid[8][3], grid);
+        CooperativePathfinder pathfinder = new CooperativePathfinder(grid, new ReservationTable(), 16);
+
+        Vector2[] path = findPath(pathfinder, "agent", grid[1][3], field);
+        assertEquals(field.getDistance(1, 3), path.length);
+        assertEquals(new Vector2(8, 3), path[path.length - 1]);
+    }
+
+    //Tests that two agents walking opposite ways down a corridor never stand on the same node or walk through each other
+    @Test
+    public void testCorridorCrossing(){
+        //A corridor one node wide, with a single alcove half way along to step into
+        Node[][] grid = GridStore.createGrid(12, 3);
+        for(int x = 0; x < 12; x++){
+            grid[x][0].setNodeType(NodeType.WALL);
+            grid[x][2].setNodeType(NodeType.WALL);
+        }
+        grid[6][2].setNodeType(NodeType.EMPTY);
+        ReservationTable reservationTable = new ReservationTable();
+        CooperativePathfinder pathfinder = new CooperativePathfinder(grid, reservationTable, 8);
+
+        String[] agents = {"left", "right"};
+        Node[] goals = {grid[10][1], grid[1][1]};
+        Node[] positions = {grid[1][1], grid[10][1]};
+        DistanceField[] fields = {new DistanceField(goals[0], grid), new DistanceField(goals[1], grid)};
+        Vector2[][] paths = new Vector2[2][];
+        int[] counters = new int[2];
+        for(int step = 0; step < 60; step++){
+            //Each agent plans again half way through its window, like PathfindingActor does
+            for(int i = 0; i < agents.length; i++){
+                if(paths[i] == null || (counters[i] >= pathfinder.getWindow() / 2 && counters[i] < paths[i].length)){
+                    paths[i] = findPath(pathfinder, agents[i], positions[i], fields[i]);
+                    counters[i] = 0;
+                }
+            }
+            Node[] nextPositions = new Node[agents.length];
+            for(int i = 0; i < agents.length; i++){
+                if(counters[i] >= paths[i].length) nextPositions[i] = positions[i];
+                else{
+                    Vector2 next = paths[i][counters[i]++];
+                    nextPositions[i] = grid[(int)next.x][(int)next.y];
+                }
+            }
+            assertTrue(nextPositions[0] != nextPositions[1]);
+            assertFalse(nextPositions[0] == positions[1] && nextPositions[1] == positions[0]);
+            positions = nextPositions;
+            reservationTable.update(ReservationTable.STEP_TIME);
+        }
+        assertEquals(goals[0], positions[0]);
+        assertEquals(goals[1], positions[1]);
+    }
+
+    //Tests that an agent resting on its goal keeps it, and that releasing gives everything up
+    @Test
+    public void testReservationsReleased(){
+        Node[][] grid = GridStore.createGrid(6, 6);
+        ReservationTable reservationTable = new ReservationTable();
+        CooperativePathfinder pathfinder = new CooperativePathfinder(grid, reservationTable, 8);
+        DistanceField field = new DistanceField(grid[4][1], grid);
+
+        Vector2[] path = findPath(pathfinder, "first", grid[1][1], field);
+        assertEquals(3, path.length);
+        assertTrue(reservationTable.getReservationCount() > 0);
+        int goalIndex = 4 * 6 + 1;
+        assertFalse(reservationTable.isFree(goalIndex, 100, "second"));
+        assertTrue(reservationTable.isFree(goalIndex, 100, "first"));
+
+        //Someone else heading for the same node has to wait short of it
+        Vector2[] secondPath = findPath(pathfinder, "second", grid[4][4], field);
+        for(int i = 0; i < secondPath.length && i < pathfinder.getWindow(); i++){
+            assertFalse(new Vector2(4, 1).equals(secondPath[i]));
+        }
+
+        reservationTable.release("first");
+        reservationTable.release("second");
+        assertEquals(0, reservationTable.getReservationCount());
+        assertTrue(reservationTable.isFree(goalIndex, 100, "second"));
+    }
+
+    //Tests that a node someone is already resting on isn't handed to someone else, and that either can be released in any order
+    @Test
+    public void testSharedRestingNode(){
+        ReservationTable reservationTable = new ReservationTable();
+        assertTrue(reservationTable.reserveResting(7, 5, "first"));
+        assertFalse(reservationTable.reserveResting(7, 2, "second"));
+        assertFalse(reservationTable.isFree(7, 100, "second"));
+
+        reservationTable.release("second");
+        assertFalse(reservationTable.isFree(7, 100, "second"));
+        reservationTable.release("first");
+        assertTrue(reservationTable.isFree(7, 100, "second"));
+
+        //Moving a rest to another node frees the old one
+        assertTrue(reservationTable.reserveResting(7, 0, "first"));
+        assertTrue(reservationTable.reserveResting(8, 0, "first"));
+        assertTrue(reservationTable.isFree(7, 100, "second"));
+        assertFalse(reservationTable.isFree(8, 100, "second"));
+    }
+
+    private Vector2[] findPath(CooperativePathfinder pathfinder, Object agent, Node start, DistanceField field){
+        Path path = new Path();
+        pathfinder.findPath(agent, start, field, path);
+        return path.toGridPath();
+    }
+}
@@ -0,0 +1,125 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.pathfinding.DStarLitePlanner;
+import com.mygdx.game.pathfinding.NavigationGrid;
+import com.mygdx.game.pathfinding.Path;
+import com.mygdx.game.utils.PathfindingUtils;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class DStarLitePlannerTests {
+
+    //Tests that the first plan is as short as the A* path
+    @Test
+    public void testPlanMatchesAStar(){
+        Node[][] grid = GridStore.createGrid(10, 10);
+        grid[4][2].setNodeType(NodeType.WALL);
+        grid[4][3].setNodeType(NodeType.WALL);
+        grid[4][4].setNodeType(NodeType.WALL);
+        DStarLitePlanner planner = new DStarLitePlanner(grid, null);
+
+        Vector2[] path = plan(planner, grid[1][3], grid[8][3]);
+        assertEquals(PathfindingUtils.findPath(grid[1][3], grid[8][3], grid).length, path.length);
+        assertEquals(new Vector2(8, 3), path[path.length - 1]);
+    }
+
+    //Tests that a customer stepping into a doorway is walked around, and that the repair costs less than the first plan
+    @Test
+    public void testReplanAroundCustomer(){
+        //A wall down the middle with a doorway two nodes wide at the top
+        Node[][] grid = GridStore.createGrid(20, 20);
+        for(int y = 0; y < 18; y++){
+            grid[10][y].setNodeType(NodeType.WALL);
+        }
+        DStarLitePlanner planner = new DStarLitePlanner(grid, null);
+        Vector2[] path = plan(planner, grid[2][2], grid[17][2]);
+        int firstPlanCost = planner.getExpandedCount();
+        assertTrue(Arrays.asList(path).contains(new Vector2(10, 18)));
+
+        grid[10][18].setNodeType(NodeType.CUSTOMER);
+        Vector2[] repairedPath = plan(planner, grid[2][3], grid[17][2]);
+        assertEquals(PathfindingUtils.findPath(grid[2][3], grid[17][2], grid).length, repairedPath.length);
+        assertFalse(Arrays.asList(repairedPath).contains(new Vector2(10, 18)));
+        assertTrue(planner.getExpandedCount() - firstPlanCost < firstPlanCost);
+
+        //Once they move on the doorway can be used again
+        grid[10][18].setNodeType(NodeType.EMPTY);
+        assertEquals(PathfindingUtils.findPath(grid[2][4], grid[17][2], grid).length, plan(planner, grid[2][4], grid[17][2]).length);
+    }
+
+    //Tests that repaired plans stay as short as A* while random nodes are blocked and unblocked
+    @Test
+    public void testRandomChanges(){
+        Node[][] grid = GridStore.createGrid(15, 12);
+        DStarLitePlanner planner = new DStarLitePlanner(grid, null);
+        Random random = new Random(8);
+        NodeType[] nodeTypes = {NodeType.EMPTY, NodeType.CUSTOMER, NodeType.WALL, NodeType.CHEF};
+        Node start = grid[0][0];
+        Node goal = grid[14][11];
+        for(int i = 0; i < 200; i++){
+            Node changed = grid[random.nextInt(15)][random.nextInt(12)];
+            if(changed != goal && changed != start) changed.setNodeType(nodeTypes[random.nextInt(nodeTypes.length)]);
+            Vector2[] path = plan(planner, start, goal);
+            assertEquals(PathfindingUtils.findPath(start, goal, grid).length, path.length);
+            if(path.length > 1) start = grid[(int)path[0].x][(int)path[0].y];
+        }
+    }
+
+    //Tests that a plan is added after the cells already in the path, and that the path is left alone if there is no plan
+    @Test
+    public void testPlanIntoPath(){
+        Node[][] grid = GridStore.createGrid(10, 10);
+        DStarLitePlanner planner = new DStarLitePlanner(grid, null);
+        Path path = new Path();
+        path.addCell(1, 3);
+        assertTrue(planner.plan(grid[1][3], grid[4][3], path));
+        assertEquals(4, path.getCellCount());
+        assertEquals(1, path.getCellX(0));
+        assertEquals(4, path.getCellX(3));
+
+        for(int y = 0; y < 10; y++){
+            grid[6][y].setNodeType(NodeType.WALL);
+        }
+        assertFalse(planner.plan(grid[1][3], grid[8][3], path));
+        assertEquals(4, path.getCellCount());
+    }
+
+    //Tests that a planner handed back to the grid is reused, and plans to new goals as well as a new one would
+    //without anything left over from the plans before
+    @Test
+    public void testPooledPlannerNewGoals(){
+        Node[][] grid = GridStore.createGrid(12, 12);
+        for(int y = 0; y < 10; y++){
+            grid[6][y].setNodeType(NodeType.WALL);
+        }
+        NavigationGrid navigationGrid = NavigationGrid.of(grid);
+        DStarLitePlanner planner = navigationGrid.obtainPlanner(null);
+        assertEquals(PathfindingUtils.findPath(grid[1][1], grid[10][1], grid).length, plan(planner, grid[1][1], grid[10][1]).length);
+        navigationGrid.freePlanner(planner);
+
+        assertSame(planner, navigationGrid.obtainPlanner(null));
+        assertEquals(PathfindingUtils.findPath(grid[1][1], grid[3][8], grid).length, plan(planner, grid[1][1], grid[3][8]).length);
+        assertEquals(PathfindingUtils.findPath(grid[10][10], grid[8][0], grid).length, plan(planner, grid[10][10], grid[8][0]).length);
+        assertFalse(navigationGrid.obtainPlanner(null) == planner);
+    }
+
+    private Vector2[] plan(DStarLitePlanner planner, Node start, Node goal){
+        Path path = new Path();
+        planner.plan(start, goal, path);
+        return path.toGridPath();
+    }
+}
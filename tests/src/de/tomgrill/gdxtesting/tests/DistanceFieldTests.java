@@ -0,0 +1,91 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.pathfinding.DistanceField;
+import com.mygdx.game.pathfinding.DistanceFieldCache;
+import com.mygdx.game.pathfinding.NavigationGrid;
+import com.mygdx.game.utils.PathfindingUtils;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(GdxTestRunner.class)
+public class DistanceFieldTests {
+
+    //Tests that the distances match the length of the paths A* finds
+    @Test
+    public void testDistancesMatchPaths(){
+        Node[][] grid = GridStore.createGrid(7, 7);
+        grid[3][1].setNodeType(NodeType.WALL);
+        grid[3][2].setNodeType(NodeType.WALL);
+        grid[3][3].setNodeType(NodeType.WALL);
+        DistanceField field = new DistanceField(grid[5][2], grid);
+
+        for(int x = 0; x < 7; x++){
+            for(int y = 0; y < 7; y++){
+                if(grid[x][y].isCollidable() || grid[x][y] == grid[5][2]) continue;
+                int pathLength = PathfindingUtils.findPath(grid[x][y], grid[5][2], grid).length;
+                assertEquals(pathLength, field.getDistance(x, y));
+                assertEquals(pathLength, field.getPath(grid[x][y]).length);
+            }
+        }
+        assertEquals(DistanceField.UNREACHABLE, field.getDistance(3, 2));
+        assertNull(field.getNextStep(grid[5][2]));
+    }
+
+    //Tests that following the field from a node ends on the destination
+    @Test
+    public void testPathEndsAtTarget(){
+        Node[][] grid = GridStore.createGrid(7, 7);
+        grid[2][3].setNodeType(NodeType.STATION);
+        DistanceField field = new DistanceField(grid[4][6], grid);
+
+        Vector2[] path = field.getPath(grid[1][0]);
+        assertEquals(new Vector2(4, 6), path[path.length - 1]);
+        assertEquals(9, path.length);
+    }
+
+    //Tests that walls and stations being added and removed update the cached fields
+    @Test
+    public void testIncrementalUpdates(){
+        Node[][] grid = GridStore.createGrid(12, 9);
+        DistanceFieldCache distanceFields = NavigationGrid.of(grid).getDistanceFields();
+        DistanceField field = distanceFields.getField(grid[6][4]);
+        assertSame(field, distanceFields.getField(grid[6][4]));
+
+        Random random = new Random(5);
+        NodeType[] nodeTypes = NodeType.values();
+        for(int i = 0; i < 500; i++){
+            grid[random.nextInt(12)][random.nextInt(9)].setNodeType(nodeTypes[random.nextInt(nodeTypes.length)]);
+            DistanceField rebuilt = new DistanceField(grid[6][4], grid);
+            for(int x = 0; x < 12; x++){
+                for(int y = 0; y < 9; y++){
+                    assertEquals(rebuilt.getDistance(x, y), field.getDistance(x, y));
+                }
+            }
+        }
+    }
+
+    //Tests that a node which is closed off becomes unreachable and reachable again once opened
+    @Test
+    public void testClosedOffNode(){
+        Node[][] grid = GridStore.createGrid(5, 5);
+        DistanceField field = NavigationGrid.of(grid).getDistanceFields().getField(grid[0][0]);
+        grid[0][1].setNodeType(NodeType.WALL);
+        grid[1][0].setNodeType(NodeType.STATION);
+        assertEquals(DistanceField.UNREACHABLE, field.getDistance(4, 4));
+        assertEquals(0, field.getPath(grid[4][4]).length);
+
+        grid[1][0].setNodeType(NodeType.EMPTY);
+        assertEquals(8, field.getDistance(4, 4));
+    }
+}
@@ -0,0 +1,102 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.enums.PathfinderType;
+import com.mygdx.game.pathfinding.IncrementalAStarSearch;
+import com.mygdx.game.pathfinding.Path;
+import com.mygdx.game.pathfinding.SearchContext;
+import com.mygdx.game.threads.PathfindingService;
+import com.mygdx.game.threads.PathfindingTicket;
+import com.mygdx.game.utils.PathfindingUtils;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class IncrementalAStarSearchTests {
+
+    //Tests that a search spread over many small steps finds the same path as one run all at once, never going over its limit
+    @Test
+    public void testSlicedSearchMatchesAStar(){
+        Node[][] grid = createWalledGrid(30, 30);
+        Vector2[] expected = PathfindingUtils.findPath(grid[1][1], grid[28][28], grid, PathfinderType.A_STAR);
+
+        Path path = new Path();
+        IncrementalAStarSearch search = new IncrementalAStarSearch(grid[1][1], grid[28][28], grid, new SearchContext(), path);
+        int steps = 0;
+        while(!search.isFinished()){
+            assertEquals(0, path.getCellCount());
+            assertTrue(search.step(5) <= 5);
+            steps++;
+        }
+        assertTrue(steps > 1);
+        assertArrayEquals(expected, path.toGridPath());
+        assertEquals(0, search.step(5));
+    }
+
+    //Tests that a search with no way through finishes with an empty path
+    @Test
+    public void testNoPath(){
+        Node[][] grid = GridStore.createGrid(6, 6);
+        for(int y = 0; y < 6; y++){
+            grid[3][y].setNodeType(NodeType.WALL);
+        }
+        Path path = new Path();
+        IncrementalAStarSearch search = new IncrementalAStarSearch(grid[1][1], grid[5][1], grid, new SearchContext(), path);
+        search.step(Integer.MAX_VALUE);
+        assertTrue(search.isFinished());
+        assertEquals(0, path.getCellCount());
+        assertEquals(18, search.getExpandedCount());
+    }
+
+    //Tests that the service shares its budget between every pending search and keeps going on later frames until all are done
+    @Test
+    public void testSharedBudget(){
+        Node[][] grid = createWalledGrid(30, 30);
+        PathfindingService.setExpansionBudget(PathfindingService.MIN_EXPANSIONS_PER_SLICE * 2);
+        try{
+            PathfindingTicket[] tickets = new PathfindingTicket[4];
+            for(int i = 0; i < tickets.length; i++){
+                tickets[i] = PathfindingService.submit(grid[1][1 + i], grid[28][28 - i], grid);
+            }
+            PathfindingTicket cancelled = PathfindingService.submit(grid[2][1], grid[27][28], grid);
+            cancelled.cancel();
+
+            int frames = 0;
+            while(PathfindingService.getPendingSlicedSearchCount() > 0){
+                PathfindingService.newFrame();
+                frames++;
+            }
+            assertTrue(frames > 1);
+            assertTrue(cancelled.isCancelled());
+            assertFalse(cancelled.isDone());
+            Path path = new Path();
+            for(int i = 0; i < tickets.length; i++){
+                assertTrue(tickets[i].isDone());
+                Vector2[] expected = PathfindingUtils.findPath(grid[1][1 + i], grid[28][28 - i], grid, PathfinderType.A_STAR);
+                tickets[i].getPath(path);
+                assertArrayEquals(expected, path.toGridPath());
+            }
+        }
+        finally{
+            PathfindingService.setExpansionBudget(0);
+        }
+    }
+
+    //A grid with a row of walls across the middle, so searches have to go the long way round
+    private Node[][] createWalledGrid(int width, int height){
+        Node[][] grid = GridStore.createGrid(width, height);
+        for(int x = 0; x < width - 2; x++){
+            grid[x][height / 2].setNodeType(NodeType.WALL);
+        }
+        return grid;
+    }
+}
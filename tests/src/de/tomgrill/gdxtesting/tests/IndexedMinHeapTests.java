@@ -0,0 +1,81 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.mygdx.game.pathfinding.IndexedMinHeap;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class IndexedMinHeapTests {
+
+    //Tests that indexes come out of the heap in order of their keys
+    @Test
+    public void testPollOrder(){
+        IndexedMinHeap heap = new IndexedMinHeap(10);
+        heap.add(3, 5f);
+        heap.add(7, 1f);
+        heap.add(1, 3f);
+        heap.add(9, 4f);
+
+        assertEquals(7, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(9, heap.poll());
+        assertEquals(3, heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+
+    //Tests that adding an index that is already in the heap only ever lowers its key
+    @Test
+    public void testDecreaseKey(){
+        IndexedMinHeap heap = new IndexedMinHeap(10);
+        heap.add(2, 5f);
+        heap.add(4, 3f);
+
+        //A bigger key is ignored
+        assertFalse(heap.add(2, 8f));
+        assertEquals(5f, heap.getKey(2), 1e-9);
+
+        //A smaller key moves the index to the front
+        assertTrue(heap.add(2, 1f));
+        assertEquals(2, heap.peek());
+        assertEquals(2, heap.size());
+    }
+
+    //Tests that contains() and clear() work without resetting the whole heap
+    @Test
+    public void testContainsAndClear(){
+        IndexedMinHeap heap = new IndexedMinHeap(10);
+        heap.add(0, 2f);
+        heap.add(5, 1f);
+        assertTrue(heap.contains(0));
+        assertTrue(heap.contains(5));
+        assertFalse(heap.contains(6));
+
+        heap.poll();
+        assertFalse(heap.contains(5));
+
+        heap.clear();
+        assertFalse(heap.contains(0));
+        assertTrue(heap.isEmpty());
+    }
+
+    //Tests that removing an index from the middle of the heap keeps the rest in order
+    @Test
+    public void testRemove(){
+        IndexedMinHeap heap = new IndexedMinHeap(10);
+        heap.add(1, 1f);
+        heap.add(2, 2f);
+        heap.add(3, 3f);
+        heap.add(4, 4f);
+        heap.remove(2);
+
+        assertFalse(heap.contains(2));
+        assertEquals(1, heap.poll());
+        assertEquals(3, heap.poll());
+        assertEquals(4, heap.poll());
+    }
+}
@@ -0,0 +1,85 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.mygdx.game.utils.MapGeometry;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class MapGeometryTests {
+
+    //Tests that the game's map converts the same way as it always has, the centre of tile 0 being at -112
+    @Test
+    public void testGameMap(){
+        TiledMap tiledMap = createTestTiledMap(16, 16, 32, 32);
+        MapGeometry mapGeometry = MapGeometry.of(tiledMap);
+        assertSame(mapGeometry, MapGeometry.of(tiledMap));
+        for(int coord = 0; coord < 16; coord++){
+            assertEquals((coord + 4f) * 32 - 240, mapGeometry.toWorldX(coord), 1e-4f);
+            assertEquals(coord, mapGeometry.toGridX(mapGeometry.toWorldX(coord)));
+            assertEquals(coord, mapGeometry.toGridY(mapGeometry.getEdgeY(coord)));
+            assertEquals(coord - 1, mapGeometry.toGridY(mapGeometry.getEdgeY(coord) - 0.01f));
+        }
+        assertEquals(-1, mapGeometry.toGridX(-129));
+        assertFalse(mapGeometry.isOnGrid(-1, 0));
+        assertTrue(mapGeometry.isOnGrid(15, 15));
+    }
+
+    //Tests that tiles taller than they are wide, on a layer moved right and down, convert each axis on its own
+    @Test
+    public void testNonSquareOffsetMap(){
+        TiledMap tiledMap = createTestTiledMap(10, 6, 16, 24);
+        TiledMapTileLayer layer = (TiledMapTileLayer) tiledMap.getLayers().get(0);
+        layer.setOffsetX(40);
+        layer.setOffsetY(12);
+        MapGeometry mapGeometry = MapGeometry.of(tiledMap);
+        float originX = 4 * 16 - 256 + 40;
+        float originY = 4 * 24 - 256 - 12;
+        assertEquals(originX + 3 * 16 + 8, mapGeometry.toWorldX(3), 1e-4f);
+        assertEquals(originY + 3 * 24 + 12, mapGeometry.toWorldY(3), 1e-4f);
+        assertEquals(3, mapGeometry.toGridX(originX + 3 * 16 + 15.9f));
+        assertEquals(2, mapGeometry.toGridY(originY + 3 * 24 - 0.1f));
+        assertEquals(16, mapGeometry.getTileWidth());
+        assertEquals(24, mapGeometry.getTileHeight());
+    }
+
+    //Tests that the bulk conversions give the same answers as converting one at a time, in place too
+    @Test
+    public void testBulkConversions(){
+        MapGeometry mapGeometry = new MapGeometry(8, 8, 20, 30, -50, 10);
+        int[] gridXs = {0, 3, 7, -1};
+        int[] gridYs = {5, 0, 2, 9};
+        float[] worldXs = new float[4];
+        float[] worldYs = new float[4];
+        mapGeometry.toWorldX(gridXs, worldXs, 4);
+        mapGeometry.toWorldY(gridYs, worldYs, 4);
+        for(int i = 0; i < 4; i++){
+            assertEquals(mapGeometry.toWorldX(gridXs[i]), worldXs[i], 1e-4f);
+            assertEquals(mapGeometry.toWorldY(gridYs[i]), worldYs[i], 1e-4f);
+        }
+        int[] backXs = new int[4];
+        int[] backYs = new int[4];
+        mapGeometry.toGridX(worldXs, backXs, 4);
+        mapGeometry.toGridY(worldYs, backYs, 4);
+        for(int i = 0; i < 4; i++){
+            assertEquals(gridXs[i], backXs[i]);
+            assertEquals(gridYs[i], backYs[i]);
+        }
+        //Only the count asked for is converted
+        mapGeometry.toGridX(new float[] {1000, 1000}, backXs, 1);
+        assertEquals(gridXs[1], backXs[1]);
+    }
+
+    private TiledMap createTestTiledMap(int width, int height, int tileWidth, int tileHeight){
+        TiledMap tiledMap = new TiledMap();
+        tiledMap.getLayers().add(new TiledMapTileLayer(width, height, tileWidth, tileHeight));
+        return tiledMap;
+    }
+}
@@ -1,13 +1,21 @@
 package de.tomgrill.gdxtesting.tests;
 
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.GridStore;
 import com.mygdx.game.Node;
 import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.interfaces.IGridEntity;
 import de.tomgrill.gdxtesting.GdxTestRunner;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(GdxTestRunner.class)
 public class NodeTests {
@@ -59,4 +67,121 @@ public class NodeTests {
         //Assert that the F Value of node 3 is equal to the F Value of Node 2
         assertEquals(node2.compareTo(node3), 0);
     }
+
+    //Tests that nodes made on their own keep their type and entity when they are moved onto the store of their grid
+    @Test
+    public void testGridStoreAttach(){
+        IGridEntity entity = createTestEntity();
+        Node[][] grid = new Node[3][2];
+        for(int x = 0; x < 3; x++){
+            for(int y = 0; y < 2; y++){
+                grid[x][y] = new Node(x, y);
+            }
+        }
+        grid[1][1].setNodeType(NodeType.STATION);
+        grid[2][0].setGridEntity(entity);
+
+        GridStore store = GridStore.of(grid);
+        assertSame(store, GridStore.of(grid));
+        assertSame(store, grid[0][0].getGridStore());
+        assertEquals(3, grid[1][1].getIndex());
+        assertEquals(NodeType.STATION, store.getNodeType(3));
+        assertTrue(store.isCollidable(3) && store.isInteractable(3) && store.isStaticObstacle(3));
+        assertSame(entity, store.getGridEntity(store.toIndex(2, 0)));
+
+        //Changes through the nodes are seen in the store
+        grid[0][1].setNodeType(NodeType.CUSTOMER);
+        assertTrue(store.isCollidable(1));
+        assertFalse(store.isStaticObstacle(1));
+        assertFalse(store.isWalkable(0, 1));
+        assertFalse(store.isWalkable(3, 0));
+        assertTrue(store.isWalkable(2, 1));
+    }
+
+    //Tests that the entities on a grid can be moved around and taken off, and are forgotten once nothing refers to them
+    @Test
+    public void testGridStoreEntities(){
+        IGridEntity first = createTestEntity();
+        IGridEntity second = createTestEntity();
+        Node[][] grid = GridStore.createGrid(4, 4);
+        for(int i = 0; i < 100; i++){
+            grid[i % 4][0].setGridEntity(first);
+            grid[i % 4][1].setGridEntity(second);
+            grid[(i + 3) % 4][0].setGridEntity(null);
+            grid[(i + 3) % 4][1].setGridEntity(null);
+            assertSame(first, grid[i % 4][0].getGridEntity());
+            assertSame(second, grid[i % 4][1].getGridEntity());
+            assertNull(grid[(i + 3) % 4][0].getGridEntity());
+        }
+        grid[3][0].setGridEntity(second);
+        assertSame(second, grid[3][0].getGridEntity());
+        assertSame(second, grid[3][1].getGridEntity());
+    }
+
+    //Tests that a node made on its own has no store of its own, and that its layers are kept when it is moved onto one
+    @Test
+    public void testDetachedNode(){
+        Node node = new Node(0, 0, NodeType.WALL);
+        assertNull(node.getGridStore());
+        assertTrue(node.isCollidable());
+        node.setNodeType(NodeType.CUSTOMER);
+        assertEquals(NodeType.WALL, node.getStaticNodeType());
+
+        Node[][] grid = {{node, new Node(0, 1)}};
+        GridStore store = GridStore.of(grid);
+        assertSame(store, node.getGridStore());
+        assertEquals(NodeType.CUSTOMER, node.getNodeType());
+        assertEquals(NodeType.WALL, node.getStaticNodeType());
+    }
+
+    //Tests that threads asking for the store of the same grid at once all get the one store, with every node on it
+    @Test
+    public void testGridStoreOfConcurrent() throws InterruptedException{
+        for(int attempt = 0; attempt < 20; attempt++){
+            final Node[][] grid = new Node[16][16];
+            for(int x = 0; x < 16; x++){
+                for(int y = 0; y < 16; y++){
+                    grid[x][y] = new Node(x, y, x == y ? NodeType.WALL : NodeType.EMPTY);
+                }
+            }
+            final GridStore[] stores = new GridStore[4];
+            Thread[] threads = new Thread[stores.length];
+            for(int i = 0; i < threads.length; i++){
+                final int thread = i;
+                threads[i] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        stores[thread] = GridStore.of(grid);
+                    }
+                });
+                threads[i].start();
+            }
+            for(Thread thread : threads){
+                thread.join();
+            }
+            for(GridStore store : stores){
+                assertSame(stores[0], store);
+            }
+            assertSame(stores[0], grid[15][15].getGridStore());
+            assertTrue(stores[0].isStaticObstacle(stores[0].toIndex(7, 7)));
+        }
+    }
+
+    private IGridEntity createTestEntity(){
+        return new IGridEntity() {
+            @Override
+            public Vector2 getPreviousGridPosition() {
+                return null;
+            }
+
+            @Override
+            public void setCurrentGridPosition(Vector2 gridPos) {
+            }
+
+            @Override
+            public Sprite getSprite() {
+                return null;
+            }
+        };
+    }
 }
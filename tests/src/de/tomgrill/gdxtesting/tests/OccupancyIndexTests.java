@@ -0,0 +1,191 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.Chef;
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Match;
+import com.mygdx.game.Node;
+import com.mygdx.game.OccupancyIndex;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.interfaces.IGridEntity;
+import com.mygdx.game.interfaces.IInteractable;
+import com.mygdx.game.pathfinding.NavigationGrid;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class OccupancyIndexTests {
+
+    //Tests that a node takes the type of whoever walks onto it and is emptied once they walk off
+    @Test
+    public void testMoveSetsAndClearsNodes(){
+        Node[][] grid = GridStore.createGrid(5, 5);
+        OccupancyIndex occupancyIndex = OccupancyIndex.of(grid);
+        TestEntity customer = new TestEntity();
+        occupancyIndex.place(customer, NodeType.CUSTOMER, 1, 1);
+        assertEquals(NodeType.CUSTOMER, grid[1][1].getNodeType());
+        assertSame(customer, grid[1][1].getGridEntity());
+        assertNull(grid[1][1].getInteractable());
+        assertEquals(new Vector2(1, 1), customer.getPreviousGridPosition());
+
+        occupancyIndex.moveTo(customer, 2, 1);
+        assertEquals(NodeType.EMPTY, grid[1][1].getNodeType());
+        assertNull(grid[1][1].getGridEntity());
+        assertEquals(NodeType.CUSTOMER, grid[2][1].getNodeType());
+        assertSame(customer, occupancyIndex.getEntity(2, 1));
+
+        //Walking off the grid, e.g. out of the door, leaves no trace behind
+        occupancyIndex.moveTo(customer, 2, -1);
+        assertEquals(NodeType.EMPTY, grid[2][1].getNodeType());
+        assertNull(occupancyIndex.getEntity(2, 1));
+        assertTrue(occupancyIndex.remove(customer));
+        assertFalse(occupancyIndex.remove(customer));
+        assertEquals(0, occupancyIndex.getEntityCount());
+    }
+
+    //Tests that moving within the same node doesn't touch the grid, and unplaced entities are ignored
+    @Test
+    public void testSameNodeNeedsNoUpdate(){
+        Node[][] grid = GridStore.createGrid(5, 5);
+        OccupancyIndex occupancyIndex = OccupancyIndex.of(grid);
+        TestEntity chef = new TestEntity();
+        occupancyIndex.place(chef, NodeType.CHEF, 3, 3);
+        assertEquals(1, chef.moves);
+        for(int i = 0; i < 10; i++){
+            occupancyIndex.moveTo(chef, 3, 3);
+        }
+        assertEquals(1, chef.moves);
+        assertSame(chef, grid[3][3].getInteractable());
+
+        TestEntity stranger = new TestEntity();
+        occupancyIndex.moveTo(stranger, 0, 0);
+        assertEquals(0, stranger.moves);
+        assertEquals(NodeType.EMPTY, grid[0][0].getNodeType());
+    }
+
+    //Tests that a chef walking over some food hands the node back to the food once they have gone past
+    @Test
+    public void testOverlappingEntities(){
+        Node[][] grid = GridStore.createGrid(5, 5);
+        OccupancyIndex occupancyIndex = OccupancyIndex.of(grid);
+        TestEntity food = new TestEntity();
+        TestEntity chef = new TestEntity();
+        occupancyIndex.place(food, NodeType.FOOD, 2, 2);
+        occupancyIndex.place(chef, NodeType.CHEF, 1, 2);
+
+        occupancyIndex.moveTo(chef, 2, 2);
+        assertEquals(NodeType.CHEF, grid[2][2].getNodeType());
+        assertSame(chef, grid[2][2].getGridEntity());
+        List<IGridEntity> entities = new ArrayList<>();
+        assertEquals(2, occupancyIndex.getEntities(2, 2, entities));
+        assertSame(chef, entities.get(0));
+        assertSame(food, entities.get(1));
+
+        occupancyIndex.moveTo(chef, 3, 2);
+        assertEquals(NodeType.FOOD, grid[2][2].getNodeType());
+        assertSame(food, grid[2][2].getGridEntity());
+        assertSame(food, grid[2][2].getInteractable());
+
+        occupancyIndex.remove(food);
+        assertEquals(NodeType.EMPTY, grid[2][2].getNodeType());
+        assertNull(grid[2][2].getInteractable());
+        assertEquals(NodeType.CHEF, grid[3][2].getNodeType());
+    }
+
+    //Tests that someone standing where a wall is taken away shows up, and a station put down is never covered up
+    @Test
+    public void testStaticLayerIsKept(){
+        Node[][] grid = GridStore.createGrid(5, 5);
+        grid[2][2].setNodeType(NodeType.WALL);
+        OccupancyIndex occupancyIndex = OccupancyIndex.of(grid);
+        TestEntity customer = new TestEntity();
+        occupancyIndex.place(customer, NodeType.CUSTOMER, 2, 2);
+        assertEquals(NodeType.WALL, grid[2][2].getNodeType());
+        assertNull(grid[2][2].getGridEntity());
+
+        grid[2][2].setNodeType(NodeType.EMPTY);
+        assertEquals(NodeType.CUSTOMER, grid[2][2].getNodeType());
+        assertEquals(NodeType.EMPTY, grid[2][2].getStaticNodeType());
+        assertSame(customer, grid[2][2].getGridEntity());
+        assertFalse(NavigationGrid.of(grid).getRegions().isReachable(grid[0][2], grid[2][2]));
+
+        TestEntity station = new TestEntity();
+        grid[2][2].setNodeType(NodeType.STATION);
+        grid[2][2].setGridEntity(station);
+        grid[2][2].setInteractable(station);
+        occupancyIndex.moveTo(customer, 3, 2);
+        assertEquals(NodeType.STATION, grid[2][2].getNodeType());
+        assertSame(station, grid[2][2].getInteractable());
+        assertEquals(NodeType.CUSTOMER, grid[3][2].getNodeType());
+        assertTrue(NavigationGrid.of(grid).getRegions().isReachable(grid[3][2], grid[0][0]));
+    }
+
+    //Tests that a node can hold more entities than it has slots for, and always shows the last one still on it
+    @Test
+    public void testCrowdedNode(){
+        Node[][] grid = GridStore.createGrid(3, 3);
+        OccupancyIndex occupancyIndex = OccupancyIndex.of(grid);
+        List<TestEntity> crowd = new ArrayList<>();
+        for(int i = 0; i < 10; i++){
+            TestEntity entity = new TestEntity();
+            occupancyIndex.place(entity, i % 2 == 0 ? NodeType.CHEF : NodeType.FOOD, 1, 1);
+            crowd.add(entity);
+        }
+        occupancyIndex.place(new TestEntity(), NodeType.CUSTOMER, 0, 1);
+        List<IGridEntity> entities = new ArrayList<>();
+        assertEquals(10, occupancyIndex.getEntities(1, 1, entities));
+        for(int i = 0; i < 10; i++){
+            assertSame(crowd.get(9 - i), entities.get(i));
+        }
+        for(int i = 9; i > 0; i -= 2){
+            occupancyIndex.remove(crowd.get(i));
+        }
+        assertSame(crowd.get(8), grid[1][1].getGridEntity());
+        assertEquals(NodeType.CHEF, grid[1][1].getNodeType());
+        assertEquals(NodeType.CUSTOMER, grid[0][1].getNodeType());
+        for(int i = 8; i >= 0; i -= 2){
+            occupancyIndex.remove(crowd.get(i));
+        }
+        assertEquals(NodeType.EMPTY, grid[1][1].getNodeType());
+        assertEquals(1, occupancyIndex.getEntityCount());
+    }
+
+
+    //An entity that counts how many times it has been moved to a new node
+    private static class TestEntity implements IGridEntity, IInteractable {
+        private Vector2 gridPosition;
+        private int moves;
+
+        @Override
+        public Vector2 getPreviousGridPosition() {
+            return gridPosition;
+        }
+
+        @Override
+        public void setCurrentGridPosition(Vector2 gridPos) {
+            gridPosition = gridPos;
+            moves++;
+        }
+
+        @Override
+        public Sprite getSprite() {
+            return null;
+        }
+
+        @Override
+        public void onInteract(Chef chef, Node interactedNode, TiledMap tiledMap, Node[][] grid, Match match) {
+        }
+    }
+}
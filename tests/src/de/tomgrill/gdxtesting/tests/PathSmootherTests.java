@@ -0,0 +1,89 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.pathfinding.Path;
+import com.mygdx.game.pathfinding.PathSmoother;
+import com.mygdx.game.utils.PathfindingUtils;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class PathSmootherTests {
+
+    //Tests that only the corners of a path are kept, along with every step spent waiting
+    @Test
+    public void testCompress(){
+        Node[][] grid = GridStore.createGrid(8, 8);
+        Vector2[] path = {new Vector2(1, 2), new Vector2(1, 3), new Vector2(2, 3), new Vector2(3, 3), new Vector2(3, 3), new Vector2(3, 3), new Vector2(4, 3)};
+        assertArrayEquals(new int[]{1, 3, 4, 5, 6}, PathSmoother.compress(grid[1][1], path));
+
+        //A wait before the first step is kept too
+        Vector2[] waitFirst = {new Vector2(1, 1), new Vector2(1, 2), new Vector2(1, 3)};
+        assertArrayEquals(new int[]{0, 2}, PathSmoother.compress(grid[1][1], waitFirst));
+        assertArrayEquals(new int[0], PathSmoother.compress(grid[1][1], new Vector2[0]));
+    }
+
+    //Tests that a path's own waypoints are set in place, keeping a node that isn't a corner when asked to
+    @Test
+    public void testCompressInPlace(){
+        Path path = new Path();
+        path.setCells(new Vector2[]{new Vector2(1, 2), new Vector2(1, 3), new Vector2(1, 4), new Vector2(2, 4), new Vector2(3, 4)});
+        PathSmoother.compress(1, 1, path, -1);
+        assertArrayEquals(new int[]{2, 4}, path.copyWaypoints());
+        PathSmoother.compress(1, 1, path, 0);
+        assertArrayEquals(new int[]{0, 2, 4}, path.copyWaypoints());
+
+        Node[][] grid = GridStore.createGrid(8, 8);
+        PathSmoother.smooth(1, 1, path, GridStore.of(grid));
+        assertArrayEquals(new int[]{4}, path.copyWaypoints());
+    }
+
+    //Tests that corners are cut wherever they can be seen past, and never through a wall
+    @Test
+    public void testSmooth(){
+        Node[][] grid = GridStore.createGrid(10, 10);
+        Vector2[] openPath = PathfindingUtils.findPath(grid[1][1], grid[7][4], grid);
+        assertArrayEquals(new int[]{openPath.length - 1}, PathSmoother.smooth(grid[1][1], openPath, grid));
+
+        for(int y = 0; y < 8; y++){
+            grid[5][y].setNodeType(NodeType.WALL);
+        }
+        Vector2[] path = PathfindingUtils.findPath(grid[1][1], grid[8][1], grid);
+        int[] waypoints = PathSmoother.smooth(grid[1][1], path, grid);
+        assertTrue(waypoints.length < PathSmoother.compress(grid[1][1], path).length);
+        assertEquals(path.length - 1, waypoints[waypoints.length - 1]);
+        GridStore store = GridStore.of(grid);
+        Vector2 previous = new Vector2(1, 1);
+        for(int waypoint : waypoints){
+            Vector2 next = path[waypoint];
+            assertTrue(PathSmoother.hasLineOfSight((int)previous.x, (int)previous.y, (int)next.x, (int)next.y, store));
+            previous = next;
+        }
+    }
+
+    //Tests that lines of sight are blocked by anything collidable, including a diagonal gap between two obstacles
+    @Test
+    public void testLineOfSight(){
+        Node[][] grid = GridStore.createGrid(6, 6);
+        GridStore store = GridStore.of(grid);
+        assertTrue(PathSmoother.hasLineOfSight(0, 0, 5, 3, store));
+        grid[3][2].setNodeType(NodeType.CUSTOMER);
+        assertFalse(PathSmoother.hasLineOfSight(0, 0, 5, 3, store));
+        grid[3][2].setNodeType(NodeType.EMPTY);
+
+        grid[2][1].setNodeType(NodeType.STATION);
+        grid[1][2].setNodeType(NodeType.STATION);
+        assertFalse(PathSmoother.hasLineOfSight(0, 0, 3, 3, store));
+        assertTrue(PathSmoother.hasLineOfSight(0, 0, 0, 5, store));
+        assertFalse(PathSmoother.hasLineOfSight(0, 0, 6, 0, store));
+    }
+}
@@ -0,0 +1,74 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.pathfinding.Path;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class PathTests {
+
+    //Tests that cells are packed and unpacked, including ones far from the origin, and that a new path replaces the old one
+    @Test
+    public void testCells(){
+        Path path = new Path();
+        path.setCells(new Vector2[]{new Vector2(0, 1), new Vector2(1023, 1), new Vector2(1023, 1022)});
+        assertEquals(3, path.getCellCount());
+        assertEquals(1023, path.getCellX(1));
+        assertEquals(1, path.getCellY(1));
+        assertEquals(1022, path.getCellY(2));
+
+        path.addWaypoint(2);
+        path.setWorldPosition(0, 12f, 34f);
+        assertEquals(12f, path.getWorldX(0), 0f);
+        assertEquals(34f, path.getWorldY(0), 0f);
+
+        Vector2[] longPath = new Vector2[100];
+        for(int i = 0; i < longPath.length; i++){
+            longPath[i] = new Vector2(i, 5);
+            path.addWaypoint(i);
+        }
+        path.setCells(longPath);
+        assertEquals(100, path.getCellCount());
+        assertTrue(path.isEmpty());
+        assertEquals(99, path.getCellX(99));
+    }
+
+    //Tests that cells added one at a time and copied from another path come out as the same grid path
+    @Test
+    public void testCopyCells(){
+        Path path = new Path();
+        for(int i = 0; i < 40; i++){
+            path.addCell(i, 40 - i);
+        }
+        path.addWaypoint(3);
+        Path copy = new Path();
+        copy.setCells(path);
+        assertEquals(40, copy.getCellCount());
+        assertTrue(copy.isEmpty());
+        assertArrayEquals(path.toGridPath(), copy.toGridPath());
+        assertEquals(new Vector2(39, 1), copy.toGridPath()[39]);
+    }
+
+    //Tests that a freed path comes back from the pool empty, rather than a new one being made
+    @Test
+    public void testPool(){
+        Path path = Path.obtain();
+        path.setCells(new Vector2[]{new Vector2(1, 1), new Vector2(1, 2)});
+        path.addWaypoint(1);
+        Path.free(path);
+
+        Path reused = Path.obtain();
+        assertSame(path, reused);
+        assertEquals(0, reused.getCellCount());
+        assertTrue(reused.isEmpty());
+        assertArrayEquals(new int[0], reused.copyWaypoints());
+        Path.free(reused);
+    }
+}
@@ -0,0 +1,116 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.pathfinding.Path;
+import com.mygdx.game.threads.PathfindingService;
+import com.mygdx.game.threads.PathfindingTicket;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class PathfindingServiceTests {
+
+    //Tests that a ticket cancelled on the worker pool never reports done, whether it was cancelled before or after the search finished
+    @Test
+    public void testCancelledTicketNeverDone() throws InterruptedException {
+        Node[][] grid = GridStore.createGrid(20, 20);
+        PathfindingTicket cancelledEarly = PathfindingService.submit(grid[0][0], grid[19][19], grid);
+        cancelledEarly.cancel();
+        PathfindingTicket cancelledLate = PathfindingService.submit(grid[0][0], grid[19][0], grid);
+        waitUntilDone(cancelledLate);
+        cancelledLate.cancel();
+
+        //Searches queued after them have finished, so theirs have long since run or been dropped
+        PathfindingTicket[] later = new PathfindingTicket[PathfindingService.WORKER_COUNT * 2];
+        for(int i = 0; i < later.length; i++){
+            later[i] = PathfindingService.submit(grid[0][i], grid[19][19 - i], grid);
+        }
+        for(PathfindingTicket ticket : later){
+            waitUntilDone(ticket);
+        }
+        assertTrue(cancelledEarly.isCancelled());
+        assertFalse(cancelledEarly.isDone());
+        assertTrue(cancelledLate.isCancelled());
+        assertFalse(cancelledLate.isDone());
+    }
+
+    //Tests that a time-sliced ticket cancelled part way through, or once finished, never reports done
+    @Test
+    public void testCancelledSlicedTicketNeverDone(){
+        Node[][] grid = GridStore.createGrid(30, 30);
+        PathfindingService.setExpansionBudget(PathfindingService.MIN_EXPANSIONS_PER_SLICE);
+        try{
+            PathfindingTicket cancelledEarly = PathfindingService.submit(grid[0][0], grid[29][29], grid);
+            PathfindingTicket cancelledLate = PathfindingService.submit(grid[0][0], grid[1][0], grid);
+            PathfindingService.newFrame();
+            assertFalse(cancelledEarly.isDone());
+            cancelledEarly.cancel();
+            while(!cancelledLate.isDone()){
+                PathfindingService.newFrame();
+            }
+            cancelledLate.cancel();
+
+            while(PathfindingService.getPendingSlicedSearchCount() > 0){
+                PathfindingService.newFrame();
+            }
+            assertTrue(cancelledEarly.isCancelled());
+            assertFalse(cancelledEarly.isDone());
+            assertTrue(cancelledLate.isCancelled());
+            assertFalse(cancelledLate.isDone());
+        }
+        finally{
+            PathfindingService.setExpansionBudget(0);
+        }
+    }
+
+    //Tests that no more than the allowance of finished paths is claimed between frames, and that the allowance comes back each frame
+    @Test
+    public void testCompletionsPerFrame() throws InterruptedException {
+        Node[][] grid = GridStore.createGrid(20, 20);
+        PathfindingTicket[] tickets = new PathfindingTicket[PathfindingService.MAX_COMPLETIONS_PER_FRAME * 2 + 1];
+        for(int i = 0; i < tickets.length; i++){
+            tickets[i] = PathfindingService.submit(grid[0][i], grid[19][19 - i], grid);
+        }
+        for(PathfindingTicket ticket : tickets){
+            waitUntilDone(ticket);
+        }
+
+        //Every ticket is done, but only a frame's worth can be picked up each frame
+        int[] claimedPerFrame = new int[3];
+        int claimed = 0;
+        Path path = new Path();
+        for(int frame = 0; frame < claimedPerFrame.length; frame++){
+            PathfindingService.newFrame();
+            while(claimed < tickets.length && PathfindingService.tryClaimCompletion()){
+                tickets[claimed++].getPath(path);
+                assertTrue(path.getCellCount() > 0);
+                claimedPerFrame[frame]++;
+            }
+        }
+        assertEquals(PathfindingService.MAX_COMPLETIONS_PER_FRAME, claimedPerFrame[0]);
+        assertEquals(PathfindingService.MAX_COMPLETIONS_PER_FRAME, claimedPerFrame[1]);
+        assertEquals(1, claimedPerFrame[2]);
+
+        //Claims past the allowance are turned down until the next frame
+        PathfindingService.newFrame();
+        for(int i = 0; i < PathfindingService.MAX_COMPLETIONS_PER_FRAME; i++){
+            assertTrue(PathfindingService.tryClaimCompletion());
+        }
+        assertFalse(PathfindingService.tryClaimCompletion());
+        assertFalse(PathfindingService.tryClaimCompletion());
+        PathfindingService.newFrame();
+        assertTrue(PathfindingService.tryClaimCompletion());
+    }
+
+    private void waitUntilDone(PathfindingTicket ticket) throws InterruptedException {
+        while(!ticket.isDone()){
+            Thread.sleep(1);
+        }
+    }
+}
@@ -1,8 +1,400 @@
 package de.tomgrill.gdxtesting.tests;
 
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.Node;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.enums.PathfinderType;
+import com.mygdx.game.pathfinding.AStarPathfinder;
+import com.mygdx.game.pathfinding.ClusterGraph;
+import com.mygdx.game.pathfinding.HierarchicalPathfinder;
+import com.mygdx.game.pathfinding.NavigationGrid;
+import com.mygdx.game.pathfinding.Path;
+import com.mygdx.game.pathfinding.PathCache;
+import com.mygdx.game.pathfinding.SearchContext;
+import com.mygdx.game.threads.PathRequest;
+import com.mygdx.game.utils.PathfindingUtils;
 import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 @RunWith(GdxTestRunner.class)
 public class PathfindingUtilTests {
+
+    //Tests that a path along an open corridor is the straight line between the two nodes
+    @Test
+    public void testStraightPath(){
+        Node[][] grid = createTestNodeArray();
+        Vector2[] path = PathfindingUtils.findPath(grid[1][1], grid[1][5], grid);
+        //The start node is not part of the path, the end node is
+        assertEquals(4, path.length);
+        assertEquals(new Vector2(1, 2), path[0]);
+        assertEquals(new Vector2(1, 5), path[path.length - 1]);
+    }
+
+    //Tests that the path goes around the wall in the middle of the grid rather than through it
+    @Test
+    public void testPathAroundWall(){
+        Node[][] grid = createTestNodeArray();
+        Vector2[] path = PathfindingUtils.findPath(grid[2][3], grid[4][3], grid);
+        //The shortest way round the wall is up or down 2, across 2 and back 2
+        assertEquals(6, path.length);
+        for(Vector2 step : path){
+            assertEquals(false, grid[(int)step.x][(int)step.y].isCollidable());
+        }
+        assertEquals(new Vector2(4, 3), path[path.length - 1]);
+    }
+
+    //Tests that a walled off end node returns an empty path
+    @Test
+    public void testUnreachablePath(){
+        Node[][] grid = createTestNodeArray();
+        grid[4][5].setNodeType(NodeType.WALL);
+        grid[5][4].setNodeType(NodeType.WALL);
+        assertEquals(0, PathfindingUtils.findPath(grid[1][1], grid[5][5], grid).length);
+        //A wall can never be the end of a path
+        assertEquals(0, PathfindingUtils.findPath(grid[1][1], grid[3][3], grid).length);
+    }
+
+    //Tests that pathfinding to the node you are already on returns just that node
+    @Test
+    public void testPathToSelf(){
+        Node[][] grid = createTestNodeArray();
+        Vector2[] path = PathfindingUtils.findPath(grid[2][2], grid[2][2], grid);
+        assertEquals(1, path.length);
+        assertEquals(new Vector2(2, 2), path[0]);
+    }
+
+    //Tests that pathfinding to a station stops on the node next to it
+    @Test
+    public void testPathToInteractable(){
+        Node[][] grid = createTestNodeArray();
+        grid[5][3].setNodeType(NodeType.STATION);
+        Vector2[] path = PathfindingUtils.findPath(grid[4][1], grid[5][3], grid);
+        //The station is against the right wall, so it has to be used from the left
+        assertEquals(new Vector2(4, 3), path[path.length - 1]);
+    }
+
+    //Tests that searches running on several threads at once on the same grid don't interfere with each other
+    @Test
+    public void testConcurrentSearches() throws InterruptedException {
+        final Node[][] grid = createTestNodeArray();
+        final Vector2[] expectedPath = PathfindingUtils.findPath(grid[1][1], grid[5][5], grid);
+        final Vector2[] expectedReversePath = PathfindingUtils.findPath(grid[5][1], grid[1][5], grid);
+        final AtomicInteger failures = new AtomicInteger(0);
+
+        Thread[] threads = new Thread[4];
+        for(int t = 0; t < threads.length; t++){
+            final boolean reverse = t % 2 == 1;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for(int i = 0; i < 500; i++){
+                        Vector2[] path = reverse ? PathfindingUtils.findPath(grid[5][1], grid[1][5], grid) : PathfindingUtils.findPath(grid[1][1], grid[5][5], grid);
+                        if(!Arrays.equals(path, reverse ? expectedReversePath : expectedPath)) failures.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for(Thread thread : threads) thread.join();
+        assertEquals(0, failures.get());
+    }
+
+    //Tests that a batch gives back the same paths as searching for each one on its own, in the same order
+    @Test
+    public void testFindPaths(){
+        Node[][] grid = createRoomsNodeArray();
+        List<PathRequest> requests = new ArrayList<>();
+        for(int i = 0; i < 200; i++){
+            Node start = grid[(i * 7) % 24][(i * 11) % 20];
+            Node end = grid[(i * 13) % 24][(i * 5) % 20];
+            requests.add(new PathRequest(start, end, grid, i % 2 == 0 ? PathfinderType.A_STAR : PathfinderType.JUMP_POINT));
+        }
+        List<Vector2[]> paths = PathfindingUtils.findPaths(requests);
+        assertEquals(requests.size(), paths.size());
+        for(int i = 0; i < requests.size(); i++){
+            PathRequest request = requests.get(i);
+            Vector2[] expectedPath = PathfindingUtils.findPath(request.getStart(), request.getEnd(), grid, request.getPathfinderType());
+            assertEquals(expectedPath.length, paths.get(i).length);
+            if(expectedPath.length > 0) assertEquals(expectedPath[expectedPath.length - 1], paths.get(i)[expectedPath.length - 1]);
+        }
+        assertTrue(PathfindingUtils.findPaths(new ArrayList<PathRequest>()).isEmpty());
+    }
+
+    //Tests that Jump Point Search finds a path of the same length as A* between every pair of open nodes, and ends next to interactables the same way
+    @Test
+    public void testJumpPointMatchesAStar(){
+        Node[][] grid = createTestNodeArray();
+        grid[5][3].setNodeType(NodeType.STATION);
+        for(Node[] startColumn : grid){
+            for(Node start : startColumn){
+                if(start.isCollidable()) continue;
+                for(Node[] endColumn : grid){
+                    for(Node end : endColumn){
+                        Vector2[] aStarPath = PathfindingUtils.findPath(start, end, grid, PathfinderType.A_STAR);
+                        Vector2[] jumpPointPath = PathfindingUtils.findPath(start, end, grid, PathfinderType.JUMP_POINT);
+                        assertEquals(aStarPath.length, jumpPointPath.length);
+                        if(aStarPath.length > 0) assertEquals(aStarPath[aStarPath.length - 1], jumpPointPath[jumpPointPath.length - 1]);
+                    }
+                }
+            }
+        }
+    }
+
+    //Tests that the pathfinder set for a grid is the one findPath() uses
+    @Test
+    public void testPathfinderPerGrid(){
+        Node[][] grid = createTestNodeArray();
+        assertEquals(PathfinderType.A_STAR, PathfindingUtils.getPathfinderType(grid));
+        PathfindingUtils.setPathfinderType(grid, PathfinderType.JUMP_POINT);
+        assertEquals(PathfinderType.JUMP_POINT, PathfindingUtils.getPathfinderType(grid));
+        assertEquals(PathfinderType.A_STAR, PathfindingUtils.getPathfinderType(createTestNodeArray()));
+        assertEquals(4, PathfindingUtils.findPath(grid[1][1], grid[1][5], grid).length);
+    }
+
+    //Tests that the hierarchical pathfinder finds a path whenever A* does, on a grid big enough to have several clusters
+    @Test
+    public void testHierarchicalMatchesAStarReachability(){
+        Node[][] grid = createRoomsNodeArray();
+        for(int i = 0; i < 400; i++){
+            Node start = grid[(i * 7) % 24][(i * 11) % 20];
+            Node end = grid[(i * 13) % 24][(i * 5) % 20];
+            if(start.isCollidable() || end.isCollidable()) continue;
+            Vector2[] aStarPath = PathfindingUtils.findPath(start, end, grid, PathfinderType.A_STAR);
+            Vector2[] hierarchicalPath = PathfindingUtils.findPath(start, end, grid, PathfinderType.HIERARCHICAL);
+            assertEquals(aStarPath.length == 0, hierarchicalPath.length == 0);
+            assertTrue(hierarchicalPath.length >= aStarPath.length);
+            if(hierarchicalPath.length > 1) assertEquals(new Vector2(end.getGridX(), end.getGridY()), hierarchicalPath[hierarchicalPath.length - 1]);
+            //Every step only moves to a neighbouring open node
+            Vector2 previous = new Vector2(start.getGridX(), start.getGridY());
+            for(Vector2 coordinate : hierarchicalPath){
+                if(start == end) break;
+                assertEquals(1f, Math.abs(coordinate.x - previous.x) + Math.abs(coordinate.y - previous.y), 1e-9);
+                assertFalse(grid[(int)coordinate.x][(int)coordinate.y].isCollidable());
+                previous = coordinate;
+            }
+        }
+    }
+
+    //Tests that a route across several clusters is filled in leg by leg rather than searched for again with A* over the whole grid
+    @Test
+    public void testHierarchicalRefinesAcrossClusters(){
+        Node[][] grid = createRoomsNodeArray();
+        SearchContext context = new SearchContext();
+        Path aStarPath = new Path();
+        new AStarPathfinder().findPath(grid[1][1], grid[22][18], grid, context, aStarPath);
+        int aStarExpanded = context.getClosedCount();
+        Path hierarchicalPath = new Path();
+        new HierarchicalPathfinder().findPath(grid[1][1], grid[22][18], grid, context, hierarchicalPath);
+        //The last search run was the last leg, which never leaves its cluster
+        int clusterSize = ClusterGraph.DEFAULT_CLUSTER_SIZE;
+        assertTrue(context.getClosedCount() <= clusterSize * clusterSize);
+        assertTrue(context.getClosedCount() < aStarExpanded);
+        assertTrue(hierarchicalPath.getCellCount() >= aStarPath.getCellCount());
+        assertEquals(22, hierarchicalPath.getCellX(hierarchicalPath.getCellCount() - 1));
+        assertEquals(18, hierarchicalPath.getCellY(hierarchicalPath.getCellCount() - 1));
+    }
+
+    //Tests that bidirectional A* finds a path of the same length as A* between every pair of open nodes, stepping between open neighbours all the way
+    @Test
+    public void testBidirectionalMatchesAStar(){
+        Node[][] grid = createRoomsNodeArray();
+        grid[20][4].setNodeType(NodeType.CUSTOMER);
+        for(int i = 0; i < 400; i++){
+            Node start = grid[(i * 7) % 24][(i * 11) % 20];
+            Node end = grid[(i * 13) % 24][(i * 5) % 20];
+            if(start.isCollidable() || end.isCollidable()) continue;
+            Vector2[] aStarPath = PathfindingUtils.findPath(start, end, grid, PathfinderType.A_STAR);
+            Vector2[] bidirectionalPath = PathfindingUtils.findPath(start, end, grid, PathfinderType.BIDIRECTIONAL);
+            assertEquals(aStarPath.length, bidirectionalPath.length);
+            if(start == end || aStarPath.length == 0) continue;
+            assertEquals(new Vector2(end.getGridX(), end.getGridY()), bidirectionalPath[bidirectionalPath.length - 1]);
+            Vector2 previous = new Vector2(start.getGridX(), start.getGridY());
+            for(Vector2 coordinate : bidirectionalPath){
+                assertEquals(1f, Math.abs(coordinate.x - previous.x) + Math.abs(coordinate.y - previous.y), 1e-9);
+                assertFalse(grid[(int)coordinate.x][(int)coordinate.y].isCollidable());
+                previous = coordinate;
+            }
+        }
+        //A collidable start, like a customer's own node, is still walked away from
+        assertEquals(PathfindingUtils.findPath(grid[20][4], grid[1][1], grid, PathfinderType.A_STAR).length,
+                PathfindingUtils.findPath(grid[20][4], grid[1][1], grid, PathfinderType.BIDIRECTIONAL).length);
+    }
+
+    //Tests that on long routes across a large map of rooms the two frontiers expand fewer nodes between them than A* does on its own
+    @Test
+    public void testBidirectionalExpandsFewerNodes(){
+        Node[][] grid = new Node[128][128];
+        for(int x = 0; x < 128; x++){
+            for(int y = 0; y < 128; y++){
+                //Rooms 16 nodes across, each with a door in the wall to its right and the wall above it
+                boolean wall = (x % 16 == 8 && Math.abs(y % 16 - 3) > 1) || (y % 16 == 8 && Math.abs(x % 16 - 12) > 1);
+                grid[x][y] = new Node(x, y, wall ? NodeType.WALL : NodeType.EMPTY);
+            }
+        }
+        int aStarExpanded = 0;
+        int bidirectionalExpanded = 0;
+        Path aStarPath = new Path();
+        Path bidirectionalPath = new Path();
+        for(int i = 0; i < 8; i++){
+            Node start = grid[2][i * 16 + 1];
+            Node end = grid[125][125 - i * 16];
+            SearchContext aStarContext = new SearchContext();
+            SearchContext bidirectionalContext = new SearchContext();
+            PathfinderType.A_STAR.getPathfinder().findPath(start, end, grid, aStarContext, aStarPath);
+            PathfinderType.BIDIRECTIONAL.getPathfinder().findPath(start, end, grid, bidirectionalContext, bidirectionalPath);
+            assertEquals(aStarPath.getCellCount(), bidirectionalPath.getCellCount());
+            aStarExpanded += aStarContext.getClosedCount();
+            bidirectionalExpanded += bidirectionalContext.getClosedCount() + bidirectionalContext.getReverseContext().getClosedCount();
+        }
+        assertTrue(bidirectionalExpanded * 2 < aStarExpanded);
+    }
+
+    //Tests that routes searched for on several threads at once, each with its own context, are the same as ones searched for one at a time
+    @Test
+    public void testClusterRoutesInParallel() throws InterruptedException {
+        final Node[][] grid = createRoomsNodeArray();
+        final ClusterGraph clusterGraph = NavigationGrid.of(grid).getClusterGraph();
+        final int[] expected = clusterGraph.findRoute(grid[1][1], grid[22][18], new SearchContext());
+        final AtomicInteger mismatches = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for(int t = 0; t < threads.length; t++){
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    SearchContext context = new SearchContext();
+                    for(int i = 0; i < 200; i++){
+                        if(!Arrays.equals(expected, clusterGraph.findRoute(grid[1][1], grid[22][18], context))) mismatches.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for(Thread thread : threads){
+            thread.join();
+        }
+        assertEquals(0, mismatches.get());
+    }
+
+    //Tests that only the clusters next to a changed wall are worked out again, and that the new wall is used
+    @Test
+    public void testClusterRebuild(){
+        Node[][] grid = createRoomsNodeArray();
+        ClusterGraph clusterGraph = NavigationGrid.of(grid).getClusterGraph();
+        assertEquals(9, clusterGraph.getDirtyClusterCount());
+        assertTrue(PathfindingUtils.findPath(grid[1][1], grid[22][18], grid, PathfinderType.HIERARCHICAL).length > 0);
+        assertEquals(0, clusterGraph.getDirtyClusterCount());
+
+        //Closing the door between the bottom rooms only touches the cluster it is in
+        grid[12][3].setNodeType(NodeType.STATION);
+        assertEquals(1, clusterGraph.getDirtyClusterCount());
+        //The way round is through the top rooms
+        Vector2[] path = PathfindingUtils.findPath(grid[1][1], grid[22][1], grid, PathfinderType.HIERARCHICAL);
+        assertTrue(path.length >= PathfindingUtils.findPath(grid[1][1], grid[22][1], grid, PathfinderType.A_STAR).length);
+        assertFalse(Arrays.asList(path).contains(new Vector2(12, 3)));
+        assertTrue(Arrays.asList(path).contains(new Vector2(12, 15)));
+    }
+
+    //Tests that repeated searches are served from the path cache until a wall changes or the path is blocked
+    @Test
+    public void testPathCache(){
+        Node[][] grid = createTestNodeArray();
+        PathCache pathCache = PathfindingUtils.getPathCache(grid);
+        Vector2[] path = PathfindingUtils.findPath(grid[1][3], grid[5][3], grid);
+        assertEquals(0, pathCache.getHits());
+        assertEquals(1, pathCache.getMisses());
+
+        Vector2[] cachedPath = PathfindingUtils.findPath(grid[1][3], grid[5][3], grid);
+        assertEquals(1, pathCache.getHits());
+        assertEquals(Arrays.asList(path), Arrays.asList(cachedPath));
+
+        //Removing a wall gives a shorter path, so the cache has to be emptied
+        int version = pathCache.getVersion();
+        grid[3][2].setNodeType(NodeType.EMPTY);
+        assertEquals(version + 1, pathCache.getVersion());
+        assertEquals(0, pathCache.size());
+        assertEquals(4, PathfindingUtils.findPath(grid[1][2], grid[5][2], grid).length);
+
+        //A customer standing on a cached path makes it a miss
+        PathfindingUtils.findPath(grid[1][2], grid[5][2], grid);
+        long misses = pathCache.getMisses();
+        grid[3][2].setNodeType(NodeType.CUSTOMER);
+        assertEquals(6, PathfindingUtils.findPath(grid[1][2], grid[5][2], grid).length);
+        assertEquals(misses + 1, pathCache.getMisses());
+    }
+
+    //Tests that the least recently used path is dropped once the cache is full
+    @Test
+    public void testPathCacheCapacity(){
+        Node[][] grid = createTestNodeArray();
+        PathCache pathCache = new PathCache(grid, 2);
+        Path path = new Path();
+        path.addCell(2, 1);
+        pathCache.put(grid[1][1], grid[2][1], PathfinderType.A_STAR, path, 0);
+        pathCache.put(grid[1][2], grid[2][1], PathfinderType.A_STAR, path, 0);
+        Path cachedPath = new Path();
+        pathCache.get(grid[1][1], grid[2][1], PathfinderType.A_STAR, cachedPath);
+        pathCache.put(grid[1][3], grid[2][1], PathfinderType.A_STAR, path, 0);
+
+        assertEquals(2, pathCache.size());
+        cachedPath.clear();
+        assertTrue(pathCache.get(grid[1][1], grid[2][1], PathfinderType.A_STAR, cachedPath));
+        assertEquals(1, cachedPath.getCellCount());
+        assertFalse(pathCache.get(grid[1][2], grid[2][1], PathfinderType.A_STAR, cachedPath));
+        //A path from before a version change is never put in
+        pathCache.put(grid[1][4], grid[2][1], PathfinderType.A_STAR, path, -1);
+        assertFalse(pathCache.get(grid[1][4], grid[2][1], PathfinderType.A_STAR, cachedPath));
+    }
+
+    /*Creates a 24x20 test grid of four rooms split by a wall down the middle at x = 12 and across at y = 10,
+     * with a door through each wall at (12, 3), (12, 15), (5, 10) and (18, 10)
+     */
+    private Node[][] createRoomsNodeArray(){
+        Node[][] grid = new Node[24][20];
+        for(int x = 0; x < 24; x++){
+            for(int y = 0; y < 20; y++){
+                boolean wall = (x == 12 && y != 3 && y != 15) || (y == 10 && x != 5 && x != 18 && x != 12);
+                grid[x][y] = new Node(x, y, wall ? NodeType.WALL : NodeType.EMPTY);
+            }
+        }
+        grid[12][10].setNodeType(NodeType.WALL);
+        return grid;
+    }
+
+    /*Creates a 7x7 test grid
+     * Appearance is as follows, with X representing walls and blank space representing empty nodes
+     *
+     *  X X X X X X X
+     *  X           X
+     *  X     X     X
+     *  X     X     X
+     *  X     X     X
+     *  X           X
+     *  X X X X X X X
+     *
+     */
+    private Node[][] createTestNodeArray(){
+        Node[][] grid = new Node[7][7];
+
+        for(int y = 0; y < grid.length; y++){
+            for(int x = 0; x < grid.length; x++){
+                boolean atEdge = (x == 0 || y == 0 || x == grid.length - 1 || y == grid.length - 1);
+                grid[x][y] = atEdge ? new Node(x, y, NodeType.WALL) : new Node(x, y);
+            }
+        }
+        grid[3][2].setNodeType(NodeType.WALL);
+        grid[3][3].setNodeType(NodeType.WALL);
+        grid[3][4].setNodeType(NodeType.WALL);
+
+        return grid;
+    }
 }
@@ -0,0 +1,139 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.GridStore;
+import com.mygdx.game.Node;
+import com.mygdx.game.OccupancyIndex;
+import com.mygdx.game.SpatialHash;
+import com.mygdx.game.enums.NodeType;
+import com.mygdx.game.interfaces.IGridEntity;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class SpatialHashTests {
+
+    //Tests that a rectangle finds exactly the entities on nodes inside it, including ones in other buckets and on its edges
+    @Test
+    public void testFindInRectangle(){
+        SpatialHash spatialHash = new SpatialHash(16, 16);
+        TestEntity inside = new TestEntity();
+        TestEntity onEdge = new TestEntity();
+        TestEntity outside = new TestEntity();
+        spatialHash.put(inside, 3, 3);
+        spatialHash.put(onEdge, 5, 6);
+        spatialHash.put(outside, 6, 3);
+
+        List<IGridEntity> found = new ArrayList<>();
+        assertEquals(2, spatialHash.findInRectangle(2, 2, 5, 6, found));
+        assertTrue(found.contains(inside));
+        assertTrue(found.contains(onEdge));
+        assertFalse(found.contains(outside));
+
+        //A rectangle hanging off the grid only looks at the part on it
+        found.clear();
+        assertEquals(3, spatialHash.findInRectangle(-10, -10, 100, 100, found));
+        found.clear();
+        assertEquals(0, spatialHash.findInRectangle(20, 20, 30, 30, found));
+    }
+
+    //Tests that a radius keeps out the corners of the square around it, even next to the edge of the grid
+    @Test
+    public void testFindInRadius(){
+        SpatialHash spatialHash = new SpatialHash(16, 16);
+        TestEntity beside = new TestEntity();
+        TestEntity diagonal = new TestEntity();
+        TestEntity corner = new TestEntity();
+        spatialHash.put(beside, 0, 2);
+        spatialHash.put(diagonal, 1, 1);
+        spatialHash.put(corner, 2, 2);
+
+        List<IGridEntity> found = new ArrayList<>();
+        assertEquals(2, spatialHash.findInRadius(0, 0, 2, found));
+        assertTrue(found.contains(beside));
+        assertTrue(found.contains(diagonal));
+        assertFalse(found.contains(corner));
+
+        found.clear();
+        assertEquals(1, spatialHash.findInRadius(2, 2, 0, found));
+        assertTrue(found.contains(corner));
+    }
+
+    //Tests that an entity is found where it moved to and not where it was, including off the grid, and is gone once removed
+    @Test
+    public void testMoveAndRemove(){
+        SpatialHash spatialHash = new SpatialHash(16, 16);
+        TestEntity entity = new TestEntity();
+        TestEntity other = new TestEntity();
+        spatialHash.put(other, 1, 1);
+        spatialHash.put(entity, 1, 2);
+        spatialHash.put(entity, 9, 9);
+
+        List<IGridEntity> found = new ArrayList<>();
+        assertEquals(1, spatialHash.findInRectangle(0, 0, 3, 3, found));
+        assertTrue(found.contains(other));
+        found.clear();
+        assertEquals(1, spatialHash.findInRadius(9, 9, 1, found));
+        assertTrue(found.contains(entity));
+
+        spatialHash.put(entity, -1, 9);
+        found.clear();
+        assertEquals(1, spatialHash.findInRectangle(0, 0, 15, 15, found));
+        assertEquals(2, spatialHash.getEntityCount());
+
+        assertTrue(spatialHash.remove(other));
+        assertFalse(spatialHash.remove(other));
+        found.clear();
+        assertEquals(0, spatialHash.findInRectangle(0, 0, 15, 15, found));
+        assertEquals(1, spatialHash.getEntityCount());
+    }
+
+    //Tests that entities moved with the grid's occupancy index are kept up to date in the grid's spatial hash
+    @Test
+    public void testFollowsOccupancyIndex(){
+        Node[][] grid = GridStore.createGrid(10, 10);
+        OccupancyIndex occupancyIndex = OccupancyIndex.of(grid);
+        SpatialHash spatialHash = SpatialHash.of(grid);
+        TestEntity customer = new TestEntity();
+        occupancyIndex.place(customer, NodeType.CUSTOMER, 2, 2);
+
+        List<IGridEntity> found = new ArrayList<>();
+        assertEquals(1, spatialHash.findInRadius(2, 2, 0, found));
+
+        occupancyIndex.moveTo(customer, 7, 8);
+        found.clear();
+        assertEquals(0, spatialHash.findInRadius(2, 2, 3, found));
+        assertEquals(1, spatialHash.findInRadius(7, 7, 1, found));
+
+        occupancyIndex.remove(customer);
+        assertEquals(0, spatialHash.getEntityCount());
+    }
+
+    private static class TestEntity implements IGridEntity {
+        private Vector2 gridPosition;
+
+        @Override
+        public Vector2 getPreviousGridPosition() {
+            return gridPosition;
+        }
+
+        @Override
+        public void setCurrentGridPosition(Vector2 gridPos) {
+            gridPosition = gridPos;
+        }
+
+        @Override
+        public Sprite getSprite() {
+            return null;
+        }
+    }
+}
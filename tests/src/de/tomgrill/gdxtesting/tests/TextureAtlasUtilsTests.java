@@ -0,0 +1,56 @@
+package de.tomgrill.gdxtesting.tests;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.mygdx.game.utils.TextureAtlasUtils;
+import de.tomgrill.gdxtesting.GdxTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(GdxTestRunner.class)
+public class TextureAtlasUtilsTests {
+
+    //Tests that every region acquired adds a reference to the image it is in, shared with whoever else acquired it,
+    //and that each release takes one away again
+    @Test
+    public void testReferenceCount(){
+        String path = "Chef_Assets/Chef_Pink_Up.png";
+        TextureRegion first = TextureAtlasUtils.acquireRegion(path);
+        //Anything else using the same atlas holds references to it too
+        int referenceCount = TextureAtlasUtils.getReferenceCount(path);
+        assertTrue(referenceCount > 0);
+
+        TextureRegion second = TextureAtlasUtils.acquireRegion(path);
+        assertSame(first, second);
+        assertEquals(referenceCount + 1, TextureAtlasUtils.getReferenceCount(path));
+
+        TextureAtlasUtils.release(path);
+        assertEquals(referenceCount, TextureAtlasUtils.getReferenceCount(path));
+        TextureAtlasUtils.release(path);
+        assertEquals(referenceCount - 1, TextureAtlasUtils.getReferenceCount(path));
+    }
+
+    //Tests that a set of regions acquired together is released together
+    @Test
+    public void testReleaseSet(){
+        String[] paths = {"Chef_Assets/Chef_Dark_Up.png", "Chef_Assets/Chef_Dark_Left.png"};
+        TextureAtlasUtils.acquireRegions(paths);
+        int[] referenceCounts = new int[paths.length];
+        for(int i = 0; i < paths.length; i++){
+            referenceCounts[i] = TextureAtlasUtils.getReferenceCount(paths[i]);
+        }
+
+        TextureAtlasUtils.acquireRegions(paths);
+        for(int i = 0; i < paths.length; i++){
+            assertTrue(TextureAtlasUtils.getReferenceCount(paths[i]) > referenceCounts[i]);
+        }
+        TextureAtlasUtils.release(paths);
+        for(int i = 0; i < paths.length; i++){
+            assertEquals(referenceCounts[i], TextureAtlasUtils.getReferenceCount(paths[i]));
+        }
+        TextureAtlasUtils.release(paths);
+    }
+}